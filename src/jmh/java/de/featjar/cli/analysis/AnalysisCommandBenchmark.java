@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis;
+
+import static de.featjar.base.computation.Computations.async;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.cli.Commands;
+import de.featjar.base.data.Result;
+import de.featjar.cli.batch.BatchCommand;
+import de.featjar.cli.batch.OptionMap;
+import de.featjar.cli.benchmark.PipelineBenchmark;
+import de.featjar.formula.io.FormulaFormats;
+import de.featjar.formula.structure.formula.IFormula;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures each analysis command on an already loaded formula, including its transformation into CNF.
+ * Lives in this package to set up commands without running them, which would also measure printing the result.
+ * The persistent cache is disabled, so that each invocation computes the boolean representation.
+ * The parameters are declared by subclasses, which only combine models and commands that terminate in reasonable
+ * time: {@link SequentialAnalysisCommandBenchmark}, {@link ParallelAnalysisCommandBenchmark}, and
+ * {@link EnumerationAnalysisCommandBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class AnalysisCommandBenchmark {
+    private AAnalysisCommand<?> analysisCommand;
+
+    /**
+     * {@return the file name of the model in {@link PipelineBenchmark#MODEL_DIRECTORY}}
+     */
+    protected abstract String getModel();
+
+    /**
+     * {@return the name of the command, see {@link BatchCommand#newCommand(String)}}
+     */
+    protected abstract String getCommand();
+
+    /**
+     * {@return the options passed to the command in addition to the input}
+     */
+    protected List<String> getOptions() {
+        return List.of();
+    }
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        FeatJAR.initialize();
+        String input = Paths.get(PipelineBenchmark.MODEL_DIRECTORY, getModel()).toString();
+        Result<IFormula> formula = Commands.loadFile(input, FeatJAR.extensionPoint(FormulaFormats.class));
+        analysisCommand = (AAnalysisCommand<?>) BatchCommand.newCommand(getCommand()).get();
+        List<String> arguments = new ArrayList<>(List.of("--input", input, "--no-disk-cache"));
+        arguments.addAll(getOptions());
+        analysisCommand.optionParser = OptionMap.parse(arguments);
+        analysisCommand.formula = async(formula.get());
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        // otherwise, all but the first invocation only measure a cache lookup
+        FeatJAR.cache().clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        FeatJAR.deinitialize();
+    }
+
+    @Benchmark
+    public Result<?> analysis() {
+        return analysisCommand.newComputation().parallelComputeResult();
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis;
+
+import java.util.List;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Measures the analysis commands that enumerate all solutions, by default and by connected components with the given
+ * number of threads.
+ * Only includes the models whose solutions can be enumerated in reasonable time, the larger models have too many.
+ */
+public class EnumerationAnalysisCommandBenchmark extends AnalysisCommandBenchmark {
+    @Param({"simple.xml", "basic.xml", "car.xml", "apl_model.xml", "gpl_medium_model.xml"})
+    public String model;
+
+    @Param({"ComputeSolutionsSAT4J", "ComputeSolutionCountSAT4J"})
+    public String command;
+
+    /**
+     * Number of threads for enumerating connected components, or {@code none} to not decompose the formula.
+     */
+    @Param({"none", "1", "2", "4"})
+    public String componentThreads;
+
+    @Override
+    protected String getModel() {
+        return model;
+    }
+
+    @Override
+    protected String getCommand() {
+        return command;
+    }
+
+    @Override
+    protected List<String> getOptions() {
+        return componentThreads.equals("none") ? List.of() : List.of("--components", "--threads", componentThreads);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis;
+
+import java.util.List;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Measures how the analysis commands that query solvers in parallel scale with the number of threads on all models.
+ */
+public class ParallelAnalysisCommandBenchmark extends AnalysisCommandBenchmark {
+    @Param({
+        "simple.xml",
+        "basic.xml",
+        "car.xml",
+        "apl_model.xml",
+        "gpl_medium_model.xml",
+        "berkeley_db_model.xml",
+        "500-100.xml"
+    })
+    public String model;
+
+    @Param({"ComputeCoreDeadVariablesSAT4J", "ComputeAtomicSetsSAT4J"})
+    public String command;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Override
+    protected String getModel() {
+        return model;
+    }
+
+    @Override
+    protected String getCommand() {
+        return command;
+    }
+
+    @Override
+    protected List<String> getOptions() {
+        return List.of("--threads", String.valueOf(threads));
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.benchmark;
+
+import static de.featjar.base.computation.Computations.async;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.cli.Commands;
+import de.featjar.base.data.Pair;
+import de.featjar.base.data.Result;
+import de.featjar.cli.transformer.CNFStrategy;
+import de.featjar.cli.transformer.ComputeTseitinBooleanRepresentation;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import de.featjar.formula.analysis.bool.ComputeBooleanRepresentationOfCNFFormula;
+import de.featjar.formula.io.FormulaFormats;
+import de.featjar.formula.structure.formula.IFormula;
+import de.featjar.formula.transformer.ComputeCNFFormula;
+import de.featjar.formula.transformer.ComputeNNFFormula;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures each stage of the pipeline that turns a model file into the boolean representation used by the analyses.
+ * Each stage starts from the precomputed result of the previous stage.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PipelineBenchmark {
+    public static final String MODEL_DIRECTORY = "src/test/resources/testFeatureModels";
+
+    @Param({
+        "simple.xml",
+        "basic.xml",
+        "car.xml",
+        "apl_model.xml",
+        "gpl_medium_model.xml",
+        "berkeley_db_model.xml",
+        "500-100.xml"
+    })
+    public String model;
+
+    private String input;
+    private IFormula formula;
+    private IFormula nnfFormula;
+    private IFormula cnfFormula;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        FeatJAR.initialize();
+        input = Paths.get(MODEL_DIRECTORY, model).toString();
+        formula = loadFormula().get();
+        nnfFormula = async(formula).map(ComputeNNFFormula::new).get().get();
+        cnfFormula = async(nnfFormula).map(ComputeCNFFormula::new).get().get();
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        // otherwise, all but the first invocation only measure a cache lookup
+        FeatJAR.cache().clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        FeatJAR.deinitialize();
+    }
+
+    @Benchmark
+    public Result<IFormula> load() {
+        return loadFormula();
+    }
+
+    @Benchmark
+    public Result<IFormula> nnf() {
+        return async(formula).map(ComputeNNFFormula::new).get();
+    }
+
+    @Benchmark
+    public Result<IFormula> cnf() {
+        return async(nnfFormula).map(ComputeCNFFormula::new).get();
+    }
+
+    @Benchmark
+    public Result<Pair<BooleanClauseList, VariableMap>> booleanRepresentation() {
+        return async(cnfFormula).map(ComputeBooleanRepresentationOfCNFFormula::new).get();
+    }
+
+    @Benchmark
+    public Result<Pair<BooleanClauseList, VariableMap>> tseitinBooleanRepresentation() {
+        return new ComputeTseitinBooleanRepresentation(async(nnfFormula), CNFStrategy.TSEITIN, 1).get();
+    }
+
+    private Result<IFormula> loadFormula() {
+        return Commands.loadFile(input, FeatJAR.extensionPoint(FormulaFormats.class));
+    }
+}
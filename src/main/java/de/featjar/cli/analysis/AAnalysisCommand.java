@@ -29,10 +29,11 @@ import de.featjar.base.data.Problem;
 import de.featjar.base.data.Result;
 import de.featjar.base.io.IO;
 import de.featjar.base.io.graphviz.GraphVizComputationTreeFormat;
+import de.featjar.cli.metrics.Metrics;
+import de.featjar.cli.transformer.CNFStrategy;
 import de.featjar.formula.analysis.value.ValueAssignment;
 import de.featjar.formula.analysis.value.ValueClause;
 import de.featjar.formula.analysis.value.ValueClauseList;
-import de.featjar.formula.io.FormulaFormats;
 import de.featjar.formula.io.value.ValueAssignmentFormat;
 import de.featjar.formula.io.value.ValueAssignmentListFormat;
 import de.featjar.formula.structure.formula.IFormula;
@@ -40,8 +41,19 @@ import de.featjar.formula.transformer.ComputeCNFFormula;
 import de.featjar.formula.transformer.ComputeDNFFormula;
 import de.featjar.formula.transformer.ComputeNNFFormula;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Computes an analysis result for a formula.
@@ -59,38 +71,133 @@ public abstract class AAnalysisCommand<T> implements ICommand {
             .setDescription("An additional clause list to assume")
             .setDefaultValue(new ValueClauseList());
 
+    public static final Option<CNFStrategy> CNF_STRATEGY_OPTION = new Option<>(
+                    "cnf-strategy", s -> Result.of(CNFStrategy.parse(s)))
+            .setDescription("Transformation into CNF. One of "
+                    + Arrays.stream(CNFStrategy.values()).map(String::valueOf).collect(Collectors.joining(", ")))
+            .setDefaultValue(CNFStrategy.DISTRIBUTIVE);
+
+    public static final Option<Integer> TSEITIN_THRESHOLD_OPTION = new Option<>(
+                    "tseitin-threshold", s -> Result.of(Integer.valueOf(s)))
+            .setDescription("Size of subformulas above which the hybrid CNF strategy introduces auxiliary variables")
+            .setDefaultValue(16);
+
     public static final Option<Boolean> BROWSE_CACHE_OPTION =
             new Flag("browse-cache").setDescription("Show cache contents in default browser");
 
+    public static final Option<Path> METRICS_OPTION = new Option<>("metrics", s -> Result.of(Paths.get(s)))
+            .setDescription("Write duration and allocated memory of each computation to a JSON or CSV file."
+                    + " Computations then run sequentially");
+
+    public static final Option<List<String>> PROJECT_OPTION = new Option<>(
+                    "project", AAnalysisCommand::loadVariableNames)
+            .setDescription("Project the formula onto the variables listed in the given file, one per line."
+                    + " Assumptions may only refer to these variables");
+
     protected IComputation<IFormula> formula;
     protected IOptionInput optionParser;
+    private boolean failed;
 
     //todo: output option
     @Override
     public List<Option<?>> getOptions() {
-        return List.of(INPUT_OPTION, BROWSE_CACHE_OPTION);
+        return List.of(INPUT_OPTION, BROWSE_CACHE_OPTION, METRICS_OPTION);
     }
 
     @Override
     public void run(IOptionInput optionParser) {
         this.optionParser = optionParser;
+        failed = false;
         String input = optionParser.get(INPUT_OPTION).get();
         Boolean browseCache = optionParser.get(BROWSE_CACHE_OPTION).get();
-        this.formula = async(Commands.loadFile(input, FeatJAR.extensionPoint(FormulaFormats.class)));
+        Result<Path> metricsFile = optionParser.get(METRICS_OPTION);
+        if (metricsFile.isPresent()) {
+            Metrics.start();
+        }
+        try {
+            String cache = FormulaCache.isEnabled()
+                    ? (FormulaCache.contains(input) ? Metrics.CACHE_HIT : Metrics.CACHE_MISS)
+                    : Metrics.NO_CACHE;
+            this.formula = async(Metrics.measure("load", () -> FormulaCache.load(input), result -> cache));
+            runComputation();
+        } finally {
+            if (metricsFile.isPresent()) {
+                Metrics.write(Metrics.stop(), metricsFile.get());
+            }
+        }
+        if (browseCache) FeatJAR.cache().browse(new GraphVizComputationTreeFormat());
+        this.optionParser = null;
+    }
 
+    /**
+     * Computes and prints the analysis result for the loaded {@link #formula}.
+     */
+    protected void runComputation() {
         IComputation<T> computation = newComputation();
         FeatJAR.log().info("running computation");
         FeatJAR.log().debug(computation.print());
+        if (Metrics.isRecording()) {
+            FeatJAR.log().info("recording metrics, so computations run sequentially");
+        }
         final long localTime = System.nanoTime();
-        final Result<T> result = computation.parallelComputeResult();
+        final Result<T> result =
+                Metrics.isRecording() ? computeMeasured(computation) : computation.parallelComputeResult();
         final long timeNeeded = System.nanoTime() - localTime;
         if (result.isPresent()) {
             FeatJAR.log().info("time needed for computation: " + ((timeNeeded / 1_000_000) / 1000.0) + "s");
             System.out.println(serializeResult(result.get()));
         } else {
-            System.err.println("Could not compute result.");
+            fail("Could not compute result.");
             // System.exit(1); // todo: only do this at the very end of running all commands to signal an error
         }
+        printProblems(result);
+    }
+
+    /**
+     * {@return the result of the given computation}
+     * If {@link Metrics} are recorded, each computation in the tree is computed and measured on its own, children
+     * first, so that each measurement only covers the computation itself.
+     *
+     * @param computation the computation
+     * @param <R> the type of the result
+     */
+    protected static <R> Result<R> computeMeasured(IComputation<R> computation) {
+        if (!Metrics.isRecording()) {
+            return computation.get();
+        }
+        computeChildrenMeasured(computation, Collections.newSetFromMap(new IdentityHashMap<>()));
+        return Metrics.measure(computation.getClass().getSimpleName(), () -> computation.get());
+    }
+
+    private static void computeChildrenMeasured(IComputation<?> computation, Set<IComputation<?>> computed) {
+        for (IComputation<?> child : computation.getChildren()) {
+            if (computed.add(child)) {
+                computeChildrenMeasured(child, computed);
+                Metrics.measure(child.getClass().getSimpleName(), () -> child.get());
+            }
+        }
+    }
+
+    /**
+     * {@return whether the last run of this command could not compute its result}
+     * A command that fails prints a note on standard error instead of throwing, so callers that run several commands
+     * check this to tell failed runs apart.
+     */
+    public boolean hasFailed() {
+        return failed;
+    }
+
+    /**
+     * Prints the given note on standard error and marks the current run as failed.
+     *
+     * @param note the note
+     */
+    protected void fail(String note) {
+        failed = true;
+        System.err.println(note);
+    }
+
+    protected void printProblems(Result<?> result) {
         if (result.hasProblems()) {
             System.err.println("The following problem(s) occurred:");
             for (Problem problem : result.getProblems()) {
@@ -98,12 +205,47 @@ public abstract class AAnalysisCommand<T> implements ICommand {
                 problem.getException().printStackTrace();
             }
         }
-        if (browseCache) FeatJAR.cache().browse(new GraphVizComputationTreeFormat());
-        this.optionParser = null;
     }
 
     public abstract IComputation<T> newComputation();
 
+    /**
+     * {@return whether this analysis depends on the number of solutions of the formula}
+     * If so, the transformation into CNF must not add solutions, see {@link CNFStrategy#isCountPreserving()}.
+     */
+    protected boolean requiresCountPreservingCNF() {
+        return false;
+    }
+
+    /**
+     * {@return the strategy for transforming the formula into CNF}
+     */
+    protected CNFStrategy getCNFStrategy() {
+        CNFStrategy strategy = optionParser.get(CNF_STRATEGY_OPTION).get();
+        if (requiresCountPreservingCNF() && !strategy.isCountPreserving()) {
+            FeatJAR.log().info("using " + CNFStrategy.TSEITIN + " instead of " + strategy + " to preserve solutions");
+            return CNFStrategy.TSEITIN;
+        }
+        return strategy;
+    }
+
+    /**
+     * {@return the variable names listed in the given file}
+     * Blank lines and lines starting with {@code #} are ignored.
+     *
+     * @param file the file
+     */
+    protected static Result<List<String>> loadVariableNames(String file) {
+        try (Stream<String> lines = Files.lines(Paths.get(file))) {
+            return Result.of(lines.map(String::trim)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .distinct()
+                    .collect(Collectors.toList()));
+        } catch (IOException | UncheckedIOException e) {
+            return Result.empty(e);
+        }
+    }
+
     public String serializeResult(T result) {
         return result.toString();
     }
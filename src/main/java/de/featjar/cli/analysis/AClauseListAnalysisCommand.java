@@ -0,0 +1,512 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis;
+
+import static de.featjar.base.computation.Computations.*;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.cli.Flag;
+import de.featjar.base.cli.ICommand;
+import de.featjar.base.cli.Option;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.data.Pair;
+import de.featjar.base.data.Result;
+import de.featjar.cli.analysis.solver.AClauseSolverAnalysis;
+import de.featjar.cli.analysis.solver.ClauseSolver;
+import de.featjar.cli.analysis.solver.CombinedAnalysis;
+import de.featjar.cli.analysis.solver.CombinedAnalysisResult;
+import de.featjar.cli.analysis.solver.ConditionalQueries;
+import de.featjar.cli.analysis.solver.EnumerationProgress;
+import de.featjar.cli.analysis.solver.LiteralPrinter;
+import de.featjar.cli.cache.BooleanRepresentationSerializer;
+import de.featjar.cli.cache.ComputeDiskCachedBooleanRepresentation;
+import de.featjar.cli.cache.DiskCache;
+import de.featjar.cli.metrics.Metrics;
+import de.featjar.cli.transformer.AuxiliaryVariables;
+import de.featjar.cli.transformer.CNFStrategy;
+import de.featjar.cli.transformer.ComputePreprocessedClauseList;
+import de.featjar.cli.transformer.ComputeProjectedBooleanRepresentation;
+import de.featjar.cli.transformer.ComputeReconstructedSolution;
+import de.featjar.cli.transformer.ComputeTseitinBooleanRepresentation;
+import de.featjar.cli.transformer.ComputeWithoutAuxiliaryVariables;
+import de.featjar.cli.transformer.ReconstructionStack;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import de.featjar.formula.analysis.bool.ComputeBooleanRepresentationOfCNFFormula;
+import de.featjar.formula.structure.formula.IFormula;
+import de.featjar.formula.transformer.ComputeCNFFormula;
+import de.featjar.formula.transformer.ComputeNNFFormula;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Computes an analysis result on the clause list of a formula.
+ * Provides the transformation into a clause list, its caching and preprocessing, conditional queries, and stoppable
+ * enumerations, while subclasses decide how the clause list is analyzed.
+ *
+ * @param <T> the type of the analysis result
+ * @param <U> the type of the analysis result on the clause list
+ */
+public abstract class AClauseListAnalysisCommand<T, U> extends AAnalysisCommand<T> {
+    public static final Option<Boolean> NO_DISK_CACHE_OPTION = new Flag("no-disk-cache")
+            .setDescription("Do not consult or update the persistent cache of boolean representations");
+
+    public static final Option<Long> DISK_CACHE_SIZE_OPTION = new Option<>(
+                    "disk-cache-size", s -> Result.of(Long.valueOf(s)))
+            .setDescription("Maximum size of the persistent cache in MiB")
+            .setDefaultValue(DiskCache.DEFAULT_MAXIMUM_SIZE / (1024 * 1024));
+
+    public static final Option<Integer> THREADS_OPTION = new Option<>(
+                    "threads", s -> Result.of(Integer.valueOf(s)))
+            .setDescription("Number of solver threads, 0 for one per processor")
+            .setDefaultValue(1);
+
+    public static final Option<Boolean> COMPONENTS_OPTION = new Flag("components")
+            .setDescription("Split the formula into variable-disjoint components and solve them independently");
+
+    public static final Option<Boolean> PREPROCESS_OPTION = new Flag("preprocess")
+            .setDescription("Simplify the clause list by unit propagation, subsumption, and variable elimination");
+
+    public static final Option<Long> PROGRESS_INTERVAL_OPTION = new Option<>(
+                    "progress-interval", s -> Result.of(Long.valueOf(s)))
+            .setDescription("Interval in seconds in which the progress of an enumeration is logged, 0 to disable."
+                    + " Like a timeout, makes the enumeration stoppable with Ctrl-C, yielding a partial result")
+            .setDefaultValue(0L);
+
+    public static final Option<Path> ASSUMPTIONS_OPTION = new Option<>("assumptions", s -> Result.of(Paths.get(s)))
+            .setDescription("File with one assignment per line (e.g., A, -B) to evaluate the analysis under,"
+                    + " printing one result line per assignment");
+
+    /**
+     * Identifies the transformation pipeline whose result is kept in the formula cache and the persistent cache.
+     * Must be changed whenever the pipeline changes its output.
+     */
+    protected static final String BOOLEAN_REPRESENTATION_PIPELINE = "nnf-cnf-boolean-v1";
+
+    /**
+     * Identifies the transformation pipeline with auxiliary variables, see {@link #BOOLEAN_REPRESENTATION_PIPELINE}.
+     */
+    protected static final String TSEITIN_BOOLEAN_REPRESENTATION_PIPELINE = "nnf-%s-%d-boolean-v1";
+
+    @Override
+    public List<Option<?>> getOptions() {
+        return ICommand.addOptions(
+                super.getOptions(),
+                ASSIGNMENT_OPTION,
+                CLAUSES_OPTION,
+                TIMEOUT_OPTION,
+                CNF_STRATEGY_OPTION,
+                TSEITIN_THRESHOLD_OPTION,
+                NO_DISK_CACHE_OPTION,
+                DISK_CACHE_SIZE_OPTION,
+                PREPROCESS_OPTION,
+                PROJECT_OPTION);
+    }
+
+    /**
+     * Tracks the enumeration run by {@link #runCancellable(Runnable, String)}, if any.
+     */
+    protected EnumerationProgress enumerationProgress;
+
+    /**
+     * {@return a computation that runs the given analysis on the input formula}
+     * Like {@link ASAT4JAnalysisCommand#newComputation()}, but for analyses implemented on top of
+     * {@link de.featjar.cli.analysis.solver.ClauseSolver}.
+     *
+     * @param factory creates the analysis
+     */
+    protected IComputation<T> newComputation(AClauseSolverAnalysis.Factory<U> factory) {
+        var booleanRepresentation = newBooleanRepresentation();
+        var variableMap = getValue(booleanRepresentation);
+        var preprocessedClauseList = newPreprocessedClauseList(booleanRepresentation);
+        var analysis = factory.create(
+                preprocessedClauseList == null ? getKey(booleanRepresentation) : getKey(preprocessedClauseList),
+                optionParser.get(ASSIGNMENT_OPTION).get().toBoolean(variableMap),
+                optionParser.get(CLAUSES_OPTION).get().toBoolean(variableMap),
+                async(optionParser.get(TIMEOUT_OPTION)));
+        return interpret(
+                withoutAuxiliaryVariables(reconstruct(analysis, preprocessedClauseList), variableMap), variableMap);
+    }
+
+    /**
+     * {@return the analyses to run under each assignment of {@link #ASSUMPTIONS_OPTION}}
+     * Empty if this command does not support {@link #ASSUMPTIONS_OPTION}.
+     */
+    protected Set<CombinedAnalysis> getConditionalAnalyses() {
+        return EnumSet.noneOf(CombinedAnalysis.class);
+    }
+
+    @Override
+    protected void runComputation() {
+        if (!getConditionalAnalyses().isEmpty() && optionParser.get(ASSUMPTIONS_OPTION).isPresent()) {
+            runConditionalQueries();
+        } else {
+            super.runComputation();
+        }
+    }
+
+    /**
+     * Runs the {@link #getConditionalAnalyses() analyses} under each assignment of {@link #ASSUMPTIONS_OPTION}
+     * (in addition to {@link #ASSIGNMENT_OPTION} and {@link #CLAUSES_OPTION}) and prints one tab-separated line per
+     * assignment, in the order of the file.
+     * The formula is transformed once, and each of {@link #THREADS_OPTION} workers queries its own solver.
+     */
+    protected void runConditionalQueries() {
+        final long localTime = System.nanoTime();
+        Result<Pair<BooleanClauseList, VariableMap>> booleanRepresentation = computeSolverInput();
+        if (booleanRepresentation.isEmpty()) {
+            return;
+        }
+        VariableMap variableMap = booleanRepresentation.get().getValue();
+        Result<List<int[]>> assumptionSets =
+                ConditionalQueries.loadAssumptionSets(optionParser.get(ASSUMPTIONS_OPTION).get(), variableMap);
+        if (assumptionSets.isEmpty()) {
+            fail("Could not load assumptions.");
+            printProblems(assumptionSets);
+            return;
+        }
+        int[] assumedLiterals = getAssumedLiterals(variableMap);
+        List<int[]> queries = assumptionSets.get().stream()
+                .map(assumptions -> IntStream.concat(IntStream.of(assumedLiterals), IntStream.of(assumptions))
+                        .toArray())
+                .collect(Collectors.toList());
+        Set<CombinedAnalysis> analyses = getConditionalAnalyses();
+        LiteralPrinter literalPrinter = new LiteralPrinter(variableMap);
+        int originalVariableCount = AuxiliaryVariables.getOriginalVariableCount(variableMap);
+        System.out.println(
+                "assumptions\t" + analyses.stream().map(String::valueOf).collect(Collectors.joining("\t")));
+        try {
+            new ConditionalQueries(queries, analyses)
+                    .run(
+                            () -> newClauseSolver(booleanRepresentation.get()),
+                            optionParser.get(THREADS_OPTION).get(),
+                            (index, result) -> {
+                                StringBuilder line = literalPrinter.print(
+                                        new StringBuilder(), assumptionSets.get().get(index));
+                                for (CombinedAnalysis analysis : analyses) {
+                                    line.append('\t');
+                                    printConditionalResult(
+                                            line, analysis, result, literalPrinter, originalVariableCount);
+                                }
+                                System.out.println(line);
+                            });
+        } catch (ExecutionException e) {
+            FeatJAR.log().error(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            FeatJAR.log().error(e);
+        }
+        final long timeNeeded = System.nanoTime() - localTime;
+        FeatJAR.log()
+                .info("time needed for " + queries.size() + " assignments: " + ((timeNeeded / 1_000_000) / 1000.0)
+                        + "s");
+    }
+
+    private static void printConditionalResult(
+            StringBuilder line,
+            CombinedAnalysis analysis,
+            Result<CombinedAnalysisResult> result,
+            LiteralPrinter literalPrinter,
+            int originalVariableCount) {
+        if (result.isEmpty()) {
+            line.append("timeout");
+            return;
+        }
+        if (!result.get().isSatisfiable() && analysis != CombinedAnalysis.COUNT) {
+            line.append("unsatisfiable");
+            return;
+        }
+        switch (analysis) {
+            case SOLUTION:
+                literalPrinter.print(line, result.get().getSolution().get(), originalVariableCount);
+                break;
+            case CORE_DEAD:
+                literalPrinter.print(
+                        line,
+                        AuxiliaryVariables.removeAuxiliaryLiterals(
+                                result.get().getCoreDeadLiterals().get(), originalVariableCount));
+                break;
+            case ATOMIC_SETS:
+                for (int[] atomicSet : result.get().getAtomicSets().get()) {
+                    int[] literals = AuxiliaryVariables.removeAuxiliaryLiterals(atomicSet, originalVariableCount);
+                    if (literals.length > 0) {
+                        literalPrinter.print(line.append('{'), literals).append('}');
+                    }
+                }
+                break;
+            case COUNT:
+                line.append(result.get().getSolutionCount().get());
+                break;
+        }
+    }
+
+    /**
+     * {@return whether an enumeration should run as an anytime computation}
+     * That is the case if a timeout or progress reporting is requested, as only then a partial result or the
+     * progress is of interest.
+     * Anytime enumeration uses a {@link de.featjar.cli.analysis.solver.SolutionEnumerator}, which needs up to one
+     * query per variable for each solution, so otherwise the analyses in {@code de.featjar.formula.analysis.sat4j}
+     * are used, which need a single query per solution.
+     */
+    protected boolean isAnytime() {
+        Duration timeout = optionParser.get(TIMEOUT_OPTION).get();
+        return (!timeout.isZero() && !timeout.isNegative()) || optionParser.get(PROGRESS_INTERVAL_OPTION).get() > 0;
+    }
+
+    /**
+     * {@return the progress of the current enumeration}
+     * Outside of {@link #runCancellable(Runnable, String)}, returns a new progress that is not reported.
+     */
+    protected EnumerationProgress getEnumerationProgress() {
+        return enumerationProgress != null
+                ? enumerationProgress
+                : new EnumerationProgress(optionParser.get(TIMEOUT_OPTION).get(), Duration.ZERO);
+    }
+
+    /**
+     * Runs an enumeration that reports its progress and can be stopped at any time.
+     * When the time limit is reached or Ctrl-C is pressed, the enumeration stops and its partial result is printed,
+     * followed by the given note on standard error.
+     *
+     * @param enumeration the enumeration, which should use {@link #getEnumerationProgress()}
+     * @param incompleteNote the note printed if the enumeration was stopped
+     */
+    protected void runCancellable(Runnable enumeration, String incompleteNote) {
+        enumerationProgress = new EnumerationProgress(
+                optionParser.get(TIMEOUT_OPTION).get(),
+                Duration.ofSeconds(optionParser.get(PROGRESS_INTERVAL_OPTION).get()));
+        enumerationProgress.start();
+        try {
+            enumeration.run();
+            enumerationProgress.report();
+            if (!enumerationProgress.isComplete()) {
+                System.err.println(incompleteNote);
+            }
+        } finally {
+            enumerationProgress.stop();
+            enumerationProgress = null;
+        }
+    }
+
+    /**
+     * {@return whether preprocessing may eliminate variables for this analysis}
+     * Variable elimination only preserves satisfiability, so it is only allowed for analyses that search for a
+     * single solution, which can be reconstructed afterwards.
+     */
+    protected boolean allowsVariableElimination() {
+        return false;
+    }
+
+    /**
+     * {@return a computation that preprocesses the clause list of the given boolean representation, or null if
+     * {@link #PREPROCESS_OPTION} is not given}
+     *
+     * @param booleanRepresentation the boolean representation
+     */
+    protected IComputation<Pair<BooleanClauseList, ReconstructionStack>> newPreprocessedClauseList(
+            IComputation<Pair<BooleanClauseList, VariableMap>> booleanRepresentation) {
+        if (!optionParser.get(PREPROCESS_OPTION).get()) {
+            return null;
+        }
+        var variableMap = getValue(booleanRepresentation);
+        return new ComputePreprocessedClauseList(
+                getKey(booleanRepresentation),
+                optionParser.get(ASSIGNMENT_OPTION).get().toBoolean(variableMap),
+                optionParser.get(CLAUSES_OPTION).get().toBoolean(variableMap),
+                allowsVariableElimination());
+    }
+
+    /**
+     * {@return a computation that maps the given analysis result back to the original clause list}
+     *
+     * @param result the analysis result
+     * @param preprocessedClauseList the preprocessed clause list, or null if there is none
+     */
+    protected IComputation<U> reconstruct(
+            IComputation<U> result,
+            IComputation<Pair<BooleanClauseList, ReconstructionStack>> preprocessedClauseList) {
+        return preprocessedClauseList == null || !allowsVariableElimination()
+                ? result
+                : new ComputeReconstructedSolution<>(result, getValue(preprocessedClauseList));
+    }
+
+    /**
+     * {@return a computation that removes auxiliary variables from the given analysis result, if there are any}
+     *
+     * @param result the analysis result
+     * @param variableMap the variable map
+     */
+    protected IComputation<U> withoutAuxiliaryVariables(
+            IComputation<U> result, IComputation<VariableMap> variableMap) {
+        return getCNFStrategy() == CNFStrategy.DISTRIBUTIVE
+                ? result
+                : new ComputeWithoutAuxiliaryVariables<>(result, variableMap);
+    }
+
+    /**
+     * {@return the identifier of the transformation pipeline selected by the options}
+     */
+    protected String getBooleanRepresentationPipeline() {
+        CNFStrategy strategy = getCNFStrategy();
+        return strategy == CNFStrategy.DISTRIBUTIVE
+                ? BOOLEAN_REPRESENTATION_PIPELINE
+                : String.format(
+                        TSEITIN_BOOLEAN_REPRESENTATION_PIPELINE,
+                        strategy,
+                        optionParser.get(TSEITIN_THRESHOLD_OPTION).get());
+    }
+
+    /**
+     * {@return a computation for the boolean representation of the input formula}
+     * If {@link #PROJECT_OPTION} is given, the boolean representation is projected onto the listed variables, see
+     * {@link ComputeProjectedBooleanRepresentation}.
+     */
+    protected IComputation<Pair<BooleanClauseList, VariableMap>> newBooleanRepresentation() {
+        var booleanRepresentation = newCachedBooleanRepresentation();
+        Result<List<String>> projectedVariables = optionParser.get(PROJECT_OPTION);
+        return projectedVariables.isPresent()
+                ? new ComputeProjectedBooleanRepresentation(booleanRepresentation, projectedVariables.get())
+                : booleanRepresentation;
+    }
+
+    /**
+     * {@return a computation for the boolean representation of the input formula, without projection}
+     * If the input is a file, the result is looked up in and stored to the {@link FormulaCache} (if enabled) and the
+     * persistent {@link DiskCache} (unless {@link #NO_DISK_CACHE_OPTION} is given).
+     */
+    protected IComputation<Pair<BooleanClauseList, VariableMap>> newCachedBooleanRepresentation() {
+        String input = optionParser.get(INPUT_OPTION).get();
+        String pipeline = getBooleanRepresentationPipeline();
+        Result<Pair<BooleanClauseList, VariableMap>> residentBooleanRepresentation =
+                FormulaCache.getBooleanRepresentation(input, pipeline);
+        if (FormulaCache.isEnabled()) {
+            Metrics.record(
+                    "resident-boolean-representation",
+                    residentBooleanRepresentation.isPresent() ? Metrics.CACHE_HIT : Metrics.CACHE_MISS);
+        }
+        if (residentBooleanRepresentation.isPresent()) {
+            return async(residentBooleanRepresentation.get());
+        }
+        CNFStrategy strategy = getCNFStrategy();
+        IComputation<IFormula> nnfFormula = async(formula).map(ComputeNNFFormula::new);
+        IComputation<Pair<BooleanClauseList, VariableMap>> booleanRepresentation =
+                strategy == CNFStrategy.DISTRIBUTIVE
+                        ? nnfFormula.map(ComputeCNFFormula::new).map(ComputeBooleanRepresentationOfCNFFormula::new)
+                        : new ComputeTseitinBooleanRepresentation(
+                                nnfFormula, strategy, optionParser.get(TSEITIN_THRESHOLD_OPTION).get());
+        if (!optionParser.get(NO_DISK_CACHE_OPTION).get()) {
+            DiskCache diskCache = new DiskCache(
+                    DiskCache.DEFAULT_DIRECTORY, optionParser.get(DISK_CACHE_SIZE_OPTION).get() * 1024 * 1024);
+            Result<String> key = diskCache.getKey(Paths.get(input), pipeline);
+            if (key.isPresent()) {
+                Result<Pair<BooleanClauseList, VariableMap>> cachedBooleanRepresentation = Metrics.measure(
+                        "disk-cache-load",
+                        () -> diskCache.load(key.get(), BooleanRepresentationSerializer::read),
+                        result -> result.isPresent() ? Metrics.CACHE_HIT : Metrics.CACHE_MISS);
+                if (cachedBooleanRepresentation.isPresent()) {
+                    FeatJAR.log().info("using boolean representation from disk cache");
+                    FormulaCache.putBooleanRepresentation(input, pipeline, cachedBooleanRepresentation.get());
+                    return async(cachedBooleanRepresentation.get());
+                }
+                booleanRepresentation =
+                        new ComputeDiskCachedBooleanRepresentation(booleanRepresentation, diskCache, key.get());
+            }
+        }
+        if (FormulaCache.isEnabled()) {
+            booleanRepresentation = new ComputeResidentBooleanRepresentation(booleanRepresentation, input, pipeline);
+        }
+        return booleanRepresentation;
+    }
+
+    /**
+     * {@return the boolean representation of the input formula, preprocessed if {@link #PREPROCESS_OPTION} is given}
+     * Meant for commands that query a {@link ClauseSolver} directly instead of running a computation.
+     * If the boolean representation cannot be computed, prints the problems and returns an empty result.
+     */
+    protected Result<Pair<BooleanClauseList, VariableMap>> computeSolverInput() {
+        Result<Pair<BooleanClauseList, VariableMap>> booleanRepresentation =
+                computeMeasured(newBooleanRepresentation());
+        if (booleanRepresentation.isPresent()) {
+            VariableMap variableMap = booleanRepresentation.get().getValue();
+            var preprocessedClauseList = newPreprocessedClauseList(async(booleanRepresentation.get()));
+            if (preprocessedClauseList != null) {
+                booleanRepresentation = computeMeasured(preprocessedClauseList)
+                        .map(preprocessed -> new Pair<>(preprocessed.getKey(), variableMap));
+            }
+        }
+        if (booleanRepresentation.isEmpty()) {
+            fail("Could not compute result.");
+            printProblems(booleanRepresentation);
+        }
+        return booleanRepresentation;
+    }
+
+    /**
+     * {@return a solver for the given boolean representation that respects the assumed clauses and timeout}
+     * The assumed assignment is not added to the solver, use {@link #getAssumedLiterals(VariableMap)} to query it.
+     *
+     * @param booleanRepresentation the boolean representation
+     */
+    protected ClauseSolver newClauseSolver(Pair<BooleanClauseList, VariableMap> booleanRepresentation) {
+        ClauseSolver solver =
+                new ClauseSolver(booleanRepresentation.getKey(), optionParser.get(TIMEOUT_OPTION).get());
+        solver.addClauses(getAssumedClauses(booleanRepresentation.getValue()));
+        return solver;
+    }
+
+    /**
+     * {@return the assumed clauses}
+     *
+     * @param variableMap the variable map
+     */
+    protected BooleanClauseList getAssumedClauses(VariableMap variableMap) {
+        return optionParser
+                .get(CLAUSES_OPTION)
+                .get()
+                .toBoolean(async(variableMap))
+                .get()
+                .get();
+    }
+
+    /**
+     * {@return the literals of the assumed assignment}
+     *
+     * @param variableMap the variable map
+     */
+    protected int[] getAssumedLiterals(VariableMap variableMap) {
+        return optionParser
+                .get(ASSIGNMENT_OPTION)
+                .get()
+                .toBoolean(async(variableMap))
+                .get()
+                .get()
+                .get();
+    }
+
+    public abstract IComputation<T> interpret(IComputation<U> result, IComputation<VariableMap> variableMap);
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis;
+
+import static de.featjar.base.computation.Computations.*;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.cli.ICommand;
+import de.featjar.base.cli.Option;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.data.Pair;
+import de.featjar.base.data.Result;
+import de.featjar.cli.analysis.ddnnf.ComputeDDNNF;
+import de.featjar.cli.analysis.ddnnf.ComputeStoredDDNNF;
+import de.featjar.cli.analysis.ddnnf.DDNNF;
+import de.featjar.cli.analysis.ddnnf.DDNNFSerializer;
+import de.featjar.cli.cache.DiskCache;
+import de.featjar.cli.metrics.Metrics;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.value.ValueClause;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Analysis that compiles the formula into a {@link DDNNF} once and answers queries on the compiled circuit.
+ * The d-DNNF is kept in the persistent {@link DiskCache} and, if {@link #DDNNF_OPTION} is given, in a file that
+ * later runs load instead of transforming and compiling the formula again.
+ *
+ * @param <T> the type of the analysis result
+ */
+public abstract class ADDNNFAnalysisCommand<T> extends AClauseListAnalysisCommand<T, T> {
+    public static final Option<Path> DDNNF_OPTION = new Option<>("ddnnf", s -> Result.of(Paths.get(s)))
+            .setDescription("File with the compiled d-DNNF. Loaded if it has been compiled from the same formula,"
+                    + " clauses, and options, otherwise written after compilation");
+
+    /**
+     * Identifies the compilation whose result is kept in the persistent cache.
+     * Must be changed whenever the compiler or the serialization changes its output.
+     */
+    protected static final String DDNNF_PIPELINE = "ddnnf-v2-";
+
+    @Override
+    public List<Option<?>> getOptions() {
+        return ICommand.addOptions(super.getOptions(), DDNNF_OPTION);
+    }
+
+    /**
+     * {@return computations for the d-DNNF of the input formula and its variable map}
+     * The d-DNNF is loaded from {@link #DDNNF_OPTION} if that file exists, otherwise from the persistent cache,
+     * otherwise it is compiled from the boolean representation and the assumed clauses and then stored in both.
+     * The persistent cache is only used without assumed clauses, which are kept out of its key.
+     * A d-DNNF is only loaded if it has been stored with the same {@link #getDDNNFKey() key}, otherwise it is
+     * compiled again.
+     */
+    protected Pair<IComputation<DDNNF>, IComputation<VariableMap>> newDDNNF() {
+        Result<String> key = getDDNNFKey();
+        Result<Path> file = optionParser.get(DDNNF_OPTION);
+        if (file.isPresent() && key.isEmpty()) {
+            FeatJAR.log().warning("could not identify the formula, not using d-DNNF file " + file.get());
+            file = Result.empty();
+        }
+        if (file.isPresent() && Files.isRegularFile(file.get())) {
+            Path ddnnfFile = file.get();
+            Result<DDNNF> storedDDNNF = Metrics.measure("ddnnf-load", () -> loadDDNNF(ddnnfFile, key.get()));
+            if (storedDDNNF.isPresent()) {
+                FeatJAR.log().info("using d-DNNF from " + ddnnfFile + ", the formula is not transformed");
+                return new Pair<>(async(storedDDNNF.get()), async(storedDDNNF.get().getVariableMap()));
+            }
+            FeatJAR.log()
+                    .warning("could not load d-DNNF from " + ddnnfFile + ", compiling it again: "
+                            + storedDDNNF.getProblems().get(0).getException().getMessage());
+        }
+        DiskCache diskCache = null;
+        if (key.isPresent()
+                && !optionParser.get(NO_DISK_CACHE_OPTION).get()
+                && optionParser.get(CLAUSES_OPTION).get().getAll().isEmpty()) {
+            DiskCache cache = new DiskCache(
+                    DiskCache.DEFAULT_DIRECTORY, optionParser.get(DISK_CACHE_SIZE_OPTION).get() * 1024 * 1024);
+            diskCache = cache;
+            String cacheKey = key.get();
+            Result<DDNNF> cachedDDNNF = Metrics.measure(
+                    "disk-cache-load",
+                    () -> cache.load(cacheKey, in -> DDNNFSerializer.read(in, cacheKey)),
+                    result -> result.isPresent() ? Metrics.CACHE_HIT : Metrics.CACHE_MISS);
+            if (cachedDDNNF.isPresent()) {
+                FeatJAR.log().info("using d-DNNF from disk cache");
+                IComputation<DDNNF> ddnnf = async(cachedDDNNF.get());
+                if (file.isPresent()) {
+                    ddnnf = new ComputeStoredDDNNF(ddnnf, null, cacheKey, file.get());
+                }
+                return new Pair<>(ddnnf, async(cachedDDNNF.get().getVariableMap()));
+            }
+        }
+        var booleanRepresentation = newBooleanRepresentation();
+        var variableMap = getValue(booleanRepresentation);
+        IComputation<DDNNF> ddnnf = new ComputeDDNNF(
+                booleanRepresentation,
+                optionParser.get(CLAUSES_OPTION).get().toBoolean(variableMap),
+                async(optionParser.get(TIMEOUT_OPTION)));
+        if (diskCache != null || file.isPresent()) {
+            ddnnf = new ComputeStoredDDNNF(ddnnf, diskCache, key.get(), file.orElse(null));
+        }
+        return new Pair<>(ddnnf, variableMap);
+    }
+
+    private static Result<DDNNF> loadDDNNF(Path file, String key) {
+        try {
+            return Result.of(DDNNFSerializer.read(file, key));
+        } catch (IOException e) {
+            return Result.empty(e);
+        }
+    }
+
+    /**
+     * {@return the key of the d-DNNF selected by the options}
+     * A hash of the input file, {@link #getDDNNFPipeline()}, and the assumed clauses, or an empty result if the
+     * input file cannot be read.
+     * Without assumed clauses, this is also the key of the d-DNNF in the persistent cache.
+     */
+    protected Result<String> getDDNNFKey() {
+        List<ValueClause> clauses = optionParser.get(CLAUSES_OPTION).get().getAll();
+        String salt = clauses.isEmpty()
+                ? getDDNNFPipeline()
+                : getDDNNFPipeline() + "-clauses-"
+                        + clauses.stream().map(ValueClause::print).collect(Collectors.joining(";"));
+        return new DiskCache().getKey(Paths.get(optionParser.get(INPUT_OPTION).get()), salt);
+    }
+
+    /**
+     * {@return the identifier of the compilation selected by the options}
+     */
+    protected String getDDNNFPipeline() {
+        Result<List<String>> projectedVariables = optionParser.get(PROJECT_OPTION);
+        return DDNNF_PIPELINE
+                + getBooleanRepresentationPipeline()
+                + (projectedVariables.isPresent() ? "-project-" + String.join(",", projectedVariables.get()) : "");
+    }
+
+    @Override
+    protected boolean requiresCountPreservingCNF() {
+        return true;
+    }
+
+    /**
+     * {@return the given result}
+     * d-DNNF analyses compute their result directly on the {@link DDNNF}, so there is nothing to interpret.
+     */
+    @Override
+    public IComputation<T> interpret(IComputation<T> result, IComputation<VariableMap> variableMap) {
+        return result;
+    }
+}
@@ -22,41 +22,32 @@ package de.featjar.cli.analysis;
 
 import static de.featjar.base.computation.Computations.*;
 
-import de.featjar.base.cli.ICommand;
-import de.featjar.base.cli.Option;
 import de.featjar.base.computation.IComputation;
-import de.featjar.formula.analysis.VariableMap;
 import de.featjar.formula.analysis.bool.BooleanClauseList;
-import de.featjar.formula.analysis.bool.ComputeBooleanRepresentationOfCNFFormula;
 import de.featjar.formula.analysis.sat4j.ASAT4JAnalysis;
-import de.featjar.formula.transformer.ComputeCNFFormula;
-import de.featjar.formula.transformer.ComputeNNFFormula;
-import java.util.List;
-
-public abstract class ASAT4JAnalysisCommand<T, U> extends AAnalysisCommand<T> {
-    @Override
-    public List<Option<?>> getOptions() {
-        return ICommand.addOptions(super.getOptions(), ASSIGNMENT_OPTION, CLAUSES_OPTION, TIMEOUT_OPTION);
-    }
 
+/**
+ * Computes an analysis result by running a SAT4J analysis on the clause list of a formula.
+ *
+ * @param <T> the type of the analysis result
+ * @param <U> the type of the SAT4J analysis result
+ */
+public abstract class ASAT4JAnalysisCommand<T, U> extends AClauseListAnalysisCommand<T, U> {
     @SuppressWarnings("unchecked")
     @Override
     public IComputation<T> newComputation() {
-        var booleanRepresentation = async(formula)
-                .map(ComputeNNFFormula::new)
-                .map(ComputeCNFFormula::new)
-                .map(ComputeBooleanRepresentationOfCNFFormula::new);
-        var booleanClauseList = getKey(booleanRepresentation);
+        var booleanRepresentation = newBooleanRepresentation();
         var variableMap = getValue(booleanRepresentation);
-        var analysis = newAnalysis(booleanClauseList);
+        var preprocessedClauseList = newPreprocessedClauseList(booleanRepresentation);
+        var analysis = newAnalysis(
+                preprocessedClauseList == null ? getKey(booleanRepresentation) : getKey(preprocessedClauseList));
         analysis.setAssumedAssignment(optionParser.get(ASSIGNMENT_OPTION).get().toBoolean(variableMap));
         analysis.setAssumedClauseList(
                 optionParser.get(CLAUSES_OPTION).get().toBoolean(variableMap));
         analysis.setTimeout(async(optionParser.get(TIMEOUT_OPTION)));
-        return interpret(analysis, variableMap);
+        return interpret(
+                withoutAuxiliaryVariables(reconstruct(analysis, preprocessedClauseList), variableMap), variableMap);
     }
 
     public abstract ASAT4JAnalysis<U> newAnalysis(IComputation<BooleanClauseList> clauseList);
-
-    public abstract IComputation<T> interpret(IComputation<U> result, IComputation<VariableMap> variableMap);
 }
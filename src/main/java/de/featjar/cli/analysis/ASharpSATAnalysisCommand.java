@@ -20,36 +20,159 @@
  */
 package de.featjar.cli.analysis;
 
+import de.featjar.base.FeatJAR;
 import de.featjar.base.cli.ICommand;
+import de.featjar.base.cli.IOptionInput;
 import de.featjar.base.cli.Option;
 import de.featjar.base.computation.IComputation;
+import de.featjar.base.data.Pair;
+import de.featjar.base.data.Result;
+import de.featjar.cli.analysis.sharpsat.SharpSATPool;
+import de.featjar.cli.transformer.CNFStrategy;
+import de.featjar.cli.transformer.ComputeCNFFormulaOfBooleanRepresentation;
+import de.featjar.cli.transformer.ComputeProjectedBooleanRepresentation;
+import de.featjar.cli.transformer.ComputeTseitinBooleanRepresentation;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import de.featjar.formula.analysis.bool.ComputeBooleanRepresentationOfCNFFormula;
 import de.featjar.formula.analysis.sharpsat.ASharpSATAnalysis;
 import de.featjar.formula.structure.formula.IFormula;
 import de.featjar.formula.transformer.ComputeCNFFormula;
 import de.featjar.formula.transformer.ComputeNNFFormula;
 
+import java.time.Duration;
 import java.util.List;
 
 import static de.featjar.base.computation.Computations.*;
 
+/**
+ * Computes an analysis result for a formula with sharpSAT.
+ * Analyses that support it are counted by a shared {@link SharpSATPool} of sharpSAT processes that are started ahead
+ * of time and receive their formula over a pipe, see {@link #newPooledAnalysis}.
+ * Otherwise, sharpSAT is started for each computation and reads the formula from a temporary file.
+ *
+ * @param <T> the type of the analysis result
+ * @param <U> the type of the sharpSAT result
+ */
 public abstract class ASharpSATAnalysisCommand<T, U> extends AAnalysisCommand<T> {
+    public static final Option<Integer> SHARPSAT_PROCESSES_OPTION = new Option<>(
+                    "sharpsat-processes", s -> Result.of(Integer.valueOf(s)))
+            .setDescription("Number of sharpSAT processes that count at the same time."
+                    + " 0 to start sharpSAT for each computation instead of keeping processes ready")
+            .setDefaultValue(Runtime.getRuntime().availableProcessors());
+
+    public static final Option<Integer> SHARPSAT_QUEUE_OPTION = new Option<>(
+                    "sharpsat-queue", s -> Result.of(Integer.valueOf(s)))
+            .setDescription("Number of queries that may wait for a free sharpSAT process before further queries block")
+            .setDefaultValue(SharpSATPool.DEFAULT_QUEUE_CAPACITY);
+
+    public static final Option<String> SHARPSAT_BINARY_OPTION = new Option<>("sharpsat-binary", Result::of)
+            .setDescription("sharpSAT binary of the process pool."
+                    + " Defaults to sharpSAT in ~/.featjar/bin or on the PATH");
+
     @Override
     public List<Option<?>> getOptions() {
-        return ICommand.addOptions(super.getOptions(), TIMEOUT_OPTION);
+        return ICommand.addOptions(
+                super.getOptions(),
+                TIMEOUT_OPTION,
+                CNF_STRATEGY_OPTION,
+                TSEITIN_THRESHOLD_OPTION,
+                PROJECT_OPTION,
+                SHARPSAT_PROCESSES_OPTION,
+                SHARPSAT_QUEUE_OPTION,
+                SHARPSAT_BINARY_OPTION);
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public IComputation<T> newComputation() {
-        var cnfFormula = async(formula)
-                .map(ComputeNNFFormula::new)
-                .map(ComputeCNFFormula::new);
+        CNFStrategy strategy = getCNFStrategy();
+        IComputation<IFormula> nnfFormula = async(formula).map(ComputeNNFFormula::new);
+        Result<List<String>> projectedVariables = optionParser.get(PROJECT_OPTION);
+        IComputation<IFormula> cnfFormula = null;
+        IComputation<Pair<BooleanClauseList, VariableMap>> booleanRepresentation = null;
+        if (projectedVariables.isPresent()) {
+            IComputation<Pair<BooleanClauseList, VariableMap>> unprojectedBooleanRepresentation =
+                    strategy == CNFStrategy.DISTRIBUTIVE
+                            ? nnfFormula.map(ComputeCNFFormula::new).map(ComputeBooleanRepresentationOfCNFFormula::new)
+                            : new ComputeTseitinBooleanRepresentation(
+                                    nnfFormula, strategy, optionParser.get(TSEITIN_THRESHOLD_OPTION).get());
+            booleanRepresentation = new ComputeProjectedBooleanRepresentation(
+                    unprojectedBooleanRepresentation, projectedVariables.get());
+        } else if (strategy == CNFStrategy.DISTRIBUTIVE) {
+            cnfFormula = nnfFormula.map(ComputeCNFFormula::new);
+        } else {
+            booleanRepresentation = new ComputeTseitinBooleanRepresentation(
+                    nnfFormula, strategy, optionParser.get(TSEITIN_THRESHOLD_OPTION).get());
+        }
+        Result<SharpSATPool> pool = getPool(optionParser);
+        if (pool.isPresent()) {
+            Result<IComputation<U>> pooledAnalysis = newPooledAnalysis(
+                    booleanRepresentation != null
+                            ? booleanRepresentation
+                            : cnfFormula.map(ComputeBooleanRepresentationOfCNFFormula::new),
+                    async(optionParser.get(TIMEOUT_OPTION)),
+                    pool.get());
+            if (pooledAnalysis.isPresent()) {
+                return interpret(pooledAnalysis.get());
+            }
+        }
+        if (cnfFormula == null) {
+            cnfFormula = new ComputeCNFFormulaOfBooleanRepresentation(booleanRepresentation);
+        }
         var analysis = newAnalysis(cnfFormula);
         analysis.setTimeout(async(optionParser.get(TIMEOUT_OPTION)));
         return interpret(analysis);
     }
 
+    /**
+     * {@return the shared sharpSAT process pool configured by the given options}
+     * Returns an empty result if {@link #SHARPSAT_PROCESSES_OPTION} is 0 or there is no sharpSAT binary.
+     *
+     * @param optionParser the options
+     */
+    public static Result<SharpSATPool> getPool(IOptionInput optionParser) {
+        int processes = optionParser.get(SHARPSAT_PROCESSES_OPTION).get();
+        if (processes <= 0) {
+            return Result.empty();
+        }
+        Result<String> binary = getBinary(optionParser);
+        if (binary.isEmpty()) {
+            FeatJAR.log().info("no sharpSAT binary found for the process pool, starting sharpSAT for each computation");
+            return Result.empty();
+        }
+        return Result.of(SharpSATPool.getShared(
+                binary.get(), processes, optionParser.get(SHARPSAT_QUEUE_OPTION).get()));
+    }
+
+    /**
+     * {@return the sharpSAT binary given by {@link #SHARPSAT_BINARY_OPTION}, otherwise the one found by
+     * {@link SharpSATPool#findBinary()}}
+     *
+     * @param optionParser the options
+     */
+    public static Result<String> getBinary(IOptionInput optionParser) {
+        Result<String> binary = optionParser.get(SHARPSAT_BINARY_OPTION);
+        return binary.isPresent() ? binary : SharpSATPool.findBinary();
+    }
+
     public abstract ASharpSATAnalysis<U> newAnalysis(IComputation<IFormula> cnfFormula);
 
+    /**
+     * {@return an analysis that counts with the given sharpSAT process pool}
+     * Returns an empty result if the analysis is not supported by the pool, in which case
+     * {@link #newAnalysis(IComputation)} is used.
+     *
+     * @param booleanRepresentation the boolean representation
+     * @param timeout the timeout
+     * @param pool the pool
+     */
+    public Result<IComputation<U>> newPooledAnalysis(
+            IComputation<Pair<BooleanClauseList, VariableMap>> booleanRepresentation,
+            IComputation<Duration> timeout,
+            SharpSATPool pool) {
+        return Result.empty();
+    }
+
     public abstract IComputation<T> interpret(IComputation<U> result);
 }
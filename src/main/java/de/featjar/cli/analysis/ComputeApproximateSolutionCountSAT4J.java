@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis;
+
+import de.featjar.base.cli.ICommand;
+import de.featjar.base.cli.Option;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.data.Result;
+import de.featjar.cli.analysis.solver.ComputeApproximateSolutionCount;
+import de.featjar.formula.analysis.VariableMap;
+import java.math.BigInteger;
+import java.util.List;
+
+public class ComputeApproximateSolutionCountSAT4J extends AClauseListAnalysisCommand<BigInteger, BigInteger> {
+    public static final Option<Double> EPSILON_OPTION = new Option<>("epsilon", s -> Result.of(Double.valueOf(s)))
+            .setDescription("Tolerance of the approximation, the result is within a factor of 1 + epsilon")
+            .setDefaultValue(0.8);
+
+    public static final Option<Double> DELTA_OPTION = new Option<>("delta", s -> Result.of(Double.valueOf(s)))
+            .setDescription("Confidence of the approximation, the result is within tolerance with probability"
+                    + " 1 - delta")
+            .setDefaultValue(0.2);
+
+    public static final Option<Long> SEED_OPTION = new Option<>("seed", s -> Result.of(Long.valueOf(s)))
+            .setDescription("Seed of the random hash functions")
+            .setDefaultValue(0L);
+
+    @Override
+    public List<Option<?>> getOptions() {
+        return ICommand.addOptions(super.getOptions(), EPSILON_OPTION, DELTA_OPTION, SEED_OPTION, THREADS_OPTION);
+    }
+
+    @Override
+    public IComputation<BigInteger> newComputation() {
+        double epsilon = optionParser.get(EPSILON_OPTION).get();
+        double delta = optionParser.get(DELTA_OPTION).get();
+        int threadCount = optionParser.get(THREADS_OPTION).get();
+        long seed = optionParser.get(SEED_OPTION).get();
+        return newComputation((booleanClauseList, assumedAssignment, assumedClauseList, timeout) ->
+                new ComputeApproximateSolutionCount(
+                        booleanClauseList,
+                        assumedAssignment,
+                        assumedClauseList,
+                        timeout,
+                        epsilon,
+                        delta,
+                        threadCount,
+                        seed));
+    }
+
+    @Override
+    protected boolean requiresCountPreservingCNF() {
+        return true;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Queries SAT4J for an approximation of the number of solutions of a given formula";
+    }
+
+    @Override
+    public IComputation<BigInteger> interpret(IComputation<BigInteger> count, IComputation<VariableMap> variableMap) {
+        return count;
+    }
+}
@@ -20,19 +20,47 @@
  */
 package de.featjar.cli.analysis;
 
+import de.featjar.base.cli.ICommand;
+import de.featjar.base.cli.Option;
 import de.featjar.base.computation.IComputation;
+import de.featjar.cli.analysis.solver.CombinedAnalysis;
+import de.featjar.cli.analysis.solver.ComputeAtomicSetsInParallel;
 import de.featjar.formula.analysis.VariableMap;
 import de.featjar.formula.analysis.bool.BooleanClauseList;
 import de.featjar.formula.analysis.bool.BooleanSolutionList;
 import de.featjar.formula.analysis.value.ComputeValueRepresentationOfSolutionList;
 import de.featjar.formula.analysis.value.ValueSolutionList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 
 public class ComputeAtomicSetsSAT4J extends ASAT4JAnalysisCommand<ValueSolutionList, BooleanSolutionList> {
+    @Override
+    public List<Option<?>> getOptions() {
+        return ICommand.addOptions(super.getOptions(), THREADS_OPTION, ASSUMPTIONS_OPTION);
+    }
+
+    @Override
+    protected Set<CombinedAnalysis> getConditionalAnalyses() {
+        return EnumSet.of(CombinedAnalysis.ATOMIC_SETS);
+    }
+
     @Override
     public String getDescription() {
         return "Queries SAT4J for all atomic sets of a given formula";
     }
 
+    @Override
+    public IComputation<ValueSolutionList> newComputation() {
+        int threadCount = optionParser.get(THREADS_OPTION).get();
+        if (threadCount == 1) {
+            return super.newComputation();
+        }
+        return newComputation((booleanClauseList, assumedAssignment, assumedClauseList, timeout) ->
+                new ComputeAtomicSetsInParallel(
+                        booleanClauseList, assumedAssignment, assumedClauseList, timeout, threadCount));
+    }
+
     @Override
     public de.featjar.formula.analysis.sat4j.ComputeAtomicSetsSAT4J newAnalysis(
             IComputation<BooleanClauseList> clauseList) {
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis;
+
+import de.featjar.base.cli.ICommand;
+import de.featjar.base.cli.Option;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.data.Result;
+import de.featjar.cli.analysis.solver.CombinedAnalysis;
+import de.featjar.cli.analysis.solver.CombinedAnalysisResult;
+import de.featjar.cli.analysis.solver.ComputeCombinedAnalyses;
+import de.featjar.cli.analysis.solver.ComputeCombinedAnalysisReport;
+import de.featjar.formula.analysis.VariableMap;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class ComputeCombinedAnalysesSAT4J extends AClauseListAnalysisCommand<String, CombinedAnalysisResult> {
+    public static final Option<Set<CombinedAnalysis>> ANALYSES_OPTION = new Option<>(
+                    "analyses",
+                    s -> Result.of(Arrays.stream(s.split(","))
+                            .map(String::trim)
+                            .map(CombinedAnalysis::parse)
+                            .collect(Collectors.toCollection(() -> EnumSet.noneOf(CombinedAnalysis.class)))))
+            .setDescription("Comma-separated analyses to run on the same solver. Any of "
+                    + Arrays.stream(CombinedAnalysis.values()).map(String::valueOf).collect(Collectors.joining(", ")))
+            .setDefaultValue(EnumSet.allOf(CombinedAnalysis.class));
+
+    @Override
+    public List<Option<?>> getOptions() {
+        return ICommand.addOptions(super.getOptions(), ANALYSES_OPTION, ASSUMPTIONS_OPTION, THREADS_OPTION);
+    }
+
+    @Override
+    protected Set<CombinedAnalysis> getConditionalAnalyses() {
+        return optionParser.get(ANALYSES_OPTION).get();
+    }
+
+    @Override
+    public String getDescription() {
+        return "Queries a single SAT4J solver for several analysis results of a given formula";
+    }
+
+    @Override
+    protected boolean requiresCountPreservingCNF() {
+        return optionParser.get(ANALYSES_OPTION).get().contains(CombinedAnalysis.COUNT);
+    }
+
+    @Override
+    public IComputation<String> newComputation() {
+        Set<CombinedAnalysis> analyses = optionParser.get(ANALYSES_OPTION).get();
+        return newComputation((booleanClauseList, assumedAssignment, assumedClauseList, timeout) ->
+                new ComputeCombinedAnalyses(
+                        booleanClauseList, assumedAssignment, assumedClauseList, timeout, analyses));
+    }
+
+    @Override
+    public IComputation<String> interpret(
+            IComputation<CombinedAnalysisResult> result, IComputation<VariableMap> variableMap) {
+        return new ComputeCombinedAnalysisReport(result, variableMap);
+    }
+}
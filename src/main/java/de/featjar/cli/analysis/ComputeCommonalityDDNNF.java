@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis;
+
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.data.Pair;
+import de.featjar.cli.analysis.ddnnf.ComputeCommonalityOfDDNNF;
+import de.featjar.cli.analysis.ddnnf.DDNNF;
+import de.featjar.formula.analysis.VariableMap;
+
+/**
+ * Computes, for each feature, the number of solutions that contain it and its share of all solutions, and prints
+ * them as CSV.
+ * All counts are computed together on the same d-DNNF, see {@link ADDNNFAnalysisCommand}.
+ */
+public class ComputeCommonalityDDNNF extends ADDNNFAnalysisCommand<String> {
+    @Override
+    public IComputation<String> newComputation() {
+        Pair<IComputation<DDNNF>, IComputation<VariableMap>> ddnnf = newDDNNF();
+        return new ComputeCommonalityOfDDNNF(
+                ddnnf.getKey(), optionParser.get(ASSIGNMENT_OPTION).get().toBoolean(ddnnf.getValue()));
+    }
+
+    @Override
+    public String getDescription() {
+        return "Compiles a given formula into d-DNNF and counts the solutions that contain each feature";
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis;
+
+import de.featjar.base.computation.AComputation;
+import de.featjar.base.computation.Dependency;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Pair;
+import de.featjar.base.data.Result;
+import de.featjar.base.tree.structure.ITree;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import java.util.List;
+
+/**
+ * Passes through a boolean representation and keeps it in the {@link FormulaCache}, so that subsequent commands
+ * in the same process can skip its computation.
+ */
+public class ComputeResidentBooleanRepresentation extends AComputation<Pair<BooleanClauseList, VariableMap>> {
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    protected static final Dependency<Pair<BooleanClauseList, VariableMap>> BOOLEAN_REPRESENTATION =
+            (Dependency) Dependency.newDependency(Pair.class);
+
+    protected final String input;
+    protected final String pipeline;
+
+    public ComputeResidentBooleanRepresentation(
+            IComputation<Pair<BooleanClauseList, VariableMap>> booleanRepresentation, String input, String pipeline) {
+        super(booleanRepresentation);
+        this.input = input;
+        this.pipeline = pipeline;
+    }
+
+    protected ComputeResidentBooleanRepresentation(ComputeResidentBooleanRepresentation other) {
+        super(other);
+        this.input = other.input;
+        this.pipeline = other.pipeline;
+    }
+
+    @Override
+    public Result<Pair<BooleanClauseList, VariableMap>> compute(List<Object> dependencyList, Progress progress) {
+        Pair<BooleanClauseList, VariableMap> booleanRepresentation = BOOLEAN_REPRESENTATION.get(dependencyList);
+        FormulaCache.putBooleanRepresentation(input, pipeline, booleanRepresentation);
+        return Result.of(booleanRepresentation);
+    }
+
+    @Override
+    public ITree<IComputation<?>> cloneNode() {
+        return new ComputeResidentBooleanRepresentation(this);
+    }
+}
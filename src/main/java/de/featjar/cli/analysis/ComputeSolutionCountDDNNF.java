@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.cli.ICommand;
+import de.featjar.base.cli.Option;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.data.Pair;
+import de.featjar.base.data.Result;
+import de.featjar.cli.analysis.ddnnf.ComputeSolutionCountOfDDNNF;
+import de.featjar.cli.analysis.ddnnf.DDNNF;
+import de.featjar.cli.analysis.solver.CombinedAnalysis;
+import de.featjar.cli.analysis.solver.ConditionalQueries;
+import de.featjar.cli.analysis.solver.LiteralPrinter;
+import de.featjar.formula.analysis.VariableMap;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Counts solutions by compiling the formula into a {@link DDNNF} once and counting on the compiled circuit, which
+ * takes time linear in its size for any assumptions, see {@link ADDNNFAnalysisCommand}.
+ * With {@link #ASSUMPTIONS_OPTION}, all counts are answered from the same d-DNNF.
+ */
+public class ComputeSolutionCountDDNNF extends ADDNNFAnalysisCommand<BigInteger> {
+    @Override
+    public List<Option<?>> getOptions() {
+        return ICommand.addOptions(super.getOptions(), ASSUMPTIONS_OPTION);
+    }
+
+    @Override
+    public IComputation<BigInteger> newComputation() {
+        Pair<IComputation<DDNNF>, IComputation<VariableMap>> ddnnf = newDDNNF();
+        return new ComputeSolutionCountOfDDNNF(
+                ddnnf.getKey(), optionParser.get(ASSIGNMENT_OPTION).get().toBoolean(ddnnf.getValue()));
+    }
+
+    @Override
+    protected void runComputation() {
+        if (optionParser.get(ASSUMPTIONS_OPTION).isPresent()) {
+            runConditionalCounts();
+        } else {
+            super.runComputation();
+        }
+    }
+
+    /**
+     * Counts the solutions under each assignment of {@link #ASSUMPTIONS_OPTION} (in addition to
+     * {@link #ASSIGNMENT_OPTION}) on the same d-DNNF and prints one tab-separated line per assignment, in the order
+     * of the file.
+     */
+    protected void runConditionalCounts() {
+        final long localTime = System.nanoTime();
+        Pair<IComputation<DDNNF>, IComputation<VariableMap>> ddnnfComputation = newDDNNF();
+        Result<DDNNF> ddnnf = computeMeasured(ddnnfComputation.getKey());
+        if (ddnnf.isEmpty()) {
+            fail("Could not compute result.");
+            printProblems(ddnnf);
+            return;
+        }
+        VariableMap variableMap = ddnnf.get().getVariableMap();
+        Result<List<int[]>> assumptionSets =
+                ConditionalQueries.loadAssumptionSets(optionParser.get(ASSUMPTIONS_OPTION).get(), variableMap);
+        if (assumptionSets.isEmpty()) {
+            fail("Could not load assumptions.");
+            printProblems(assumptionSets);
+            return;
+        }
+        int[] assumedLiterals = getAssumedLiterals(variableMap);
+        LiteralPrinter literalPrinter = new LiteralPrinter(variableMap);
+        System.out.println("assumptions\t" + CombinedAnalysis.COUNT);
+        for (int[] assumptions : assumptionSets.get()) {
+            BigInteger count = ddnnf.get()
+                    .countSolutions(IntStream.concat(IntStream.of(assumedLiterals), IntStream.of(assumptions))
+                            .toArray());
+            System.out.println(literalPrinter
+                    .print(new StringBuilder(), assumptions)
+                    .append('\t')
+                    .append(count));
+        }
+        final long timeNeeded = System.nanoTime() - localTime;
+        FeatJAR.log()
+                .info("time needed for " + assumptionSets.get().size() + " assignments: "
+                        + ((timeNeeded / 1_000_000) / 1000.0) + "s");
+    }
+
+    @Override
+    public String getDescription() {
+        return "Compiles a given formula into d-DNNF and counts its solutions";
+    }
+}
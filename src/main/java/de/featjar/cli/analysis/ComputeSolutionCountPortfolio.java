@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis;
+
+import de.featjar.base.cli.ICommand;
+import de.featjar.base.cli.Option;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.data.Result;
+import de.featjar.cli.analysis.sharpsat.SharpSATPool;
+import de.featjar.formula.analysis.VariableMap;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+public class ComputeSolutionCountPortfolio extends AClauseListAnalysisCommand<BigInteger, BigInteger> {
+    public static final Option<Path> STATISTICS_OPTION = new Option<>("statistics", s -> Result.of(Paths.get(s)))
+            .setDescription("Append the winning engine of each race to a CSV file");
+
+    @Override
+    public List<Option<?>> getOptions() {
+        return ICommand.addOptions(
+                super.getOptions(),
+                STATISTICS_OPTION,
+                ASharpSATAnalysisCommand.SHARPSAT_PROCESSES_OPTION,
+                ASharpSATAnalysisCommand.SHARPSAT_QUEUE_OPTION,
+                ASharpSATAnalysisCommand.SHARPSAT_BINARY_OPTION);
+    }
+
+    @Override
+    protected boolean requiresCountPreservingCNF() {
+        return true;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Races SAT4J against sharpSAT for the number of solutions of a given formula";
+    }
+
+    @Override
+    public IComputation<BigInteger> newComputation() {
+        Path statisticsFile = optionParser.get(STATISTICS_OPTION).orElse(null);
+        SharpSATPool pool = ASharpSATAnalysisCommand.getPool(optionParser).orElse(null);
+        String sharpSATBinary = ASharpSATAnalysisCommand.getBinary(optionParser).orElse(null);
+        return newComputation((booleanClauseList, assumedAssignment, assumedClauseList, timeout) ->
+                new de.featjar.cli.analysis.solver.ComputeSolutionCountPortfolio(
+                        booleanClauseList,
+                        assumedAssignment,
+                        assumedClauseList,
+                        timeout,
+                        statisticsFile,
+                        pool,
+                        sharpSATBinary));
+    }
+
+    @Override
+    public IComputation<BigInteger> interpret(IComputation<BigInteger> count, IComputation<VariableMap> variableMap) {
+        return count;
+    }
+}
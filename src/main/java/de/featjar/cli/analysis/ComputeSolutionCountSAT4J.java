@@ -20,12 +20,104 @@
  */
 package de.featjar.cli.analysis;
 
+import de.featjar.base.cli.Flag;
+import de.featjar.base.cli.ICommand;
+import de.featjar.base.cli.Option;
 import de.featjar.base.computation.IComputation;
+import de.featjar.base.data.Result;
+import de.featjar.cli.analysis.solver.CombinedAnalysis;
+import de.featjar.cli.analysis.solver.ComputeSolutionCountAnytime;
+import de.featjar.cli.analysis.solver.ComputeSolutionCountByCubes;
+import de.featjar.cli.analysis.solver.ComputeSolutionCountByComponents;
+import de.featjar.cli.analysis.solver.EnumerationProgress;
 import de.featjar.formula.analysis.VariableMap;
 import de.featjar.formula.analysis.bool.BooleanClauseList;
 import java.math.BigInteger;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 
 public class ComputeSolutionCountSAT4J extends ASAT4JAnalysisCommand<BigInteger, BigInteger> {
+    public static final Option<Boolean> CUBES_OPTION = new Flag("cubes")
+            .setDescription("Split the search space into cubes and count them in parallel on the given threads");
+
+    public static final Option<Integer> CUBE_SIZE_OPTION = new Option<>(
+                    "cube-size", s -> Result.of(Integer.valueOf(s)))
+            .setDescription("Number of solutions after which a cube is split further")
+            .setDefaultValue(ComputeSolutionCountByCubes.DEFAULT_CUBE_SIZE);
+
+    @Override
+    public List<Option<?>> getOptions() {
+        return ICommand.addOptions(
+                super.getOptions(),
+                COMPONENTS_OPTION,
+                CUBES_OPTION,
+                CUBE_SIZE_OPTION,
+                THREADS_OPTION,
+                PROGRESS_INTERVAL_OPTION,
+                ASSUMPTIONS_OPTION);
+    }
+
+    @Override
+    protected Set<CombinedAnalysis> getConditionalAnalyses() {
+        return EnumSet.of(CombinedAnalysis.COUNT);
+    }
+
+    @Override
+    public IComputation<BigInteger> newComputation() {
+        if (optionParser.get(CUBES_OPTION).get()) {
+            if (optionParser.get(COMPONENTS_OPTION).get()) {
+                throw new IllegalArgumentException("--cubes cannot be combined with --components");
+            }
+            EnumerationProgress enumerationProgress = getEnumerationProgress();
+            int threadCount = optionParser.get(THREADS_OPTION).get();
+            int cubeSize = optionParser.get(CUBE_SIZE_OPTION).get();
+            return newComputation((booleanClauseList, assumedAssignment, assumedClauseList, timeout) ->
+                    new ComputeSolutionCountByCubes(
+                            booleanClauseList,
+                            assumedAssignment,
+                            assumedClauseList,
+                            timeout,
+                            threadCount,
+                            cubeSize,
+                            enumerationProgress));
+        }
+        if (!optionParser.get(COMPONENTS_OPTION).get()) {
+            if (!isAnytime()) {
+                return super.newComputation();
+            }
+            EnumerationProgress enumerationProgress = getEnumerationProgress();
+            return newComputation((booleanClauseList, assumedAssignment, assumedClauseList, timeout) ->
+                    new ComputeSolutionCountAnytime(
+                            booleanClauseList, assumedAssignment, assumedClauseList, timeout, enumerationProgress));
+        }
+        EnumerationProgress enumerationProgress = getEnumerationProgress();
+        int threadCount = optionParser.get(THREADS_OPTION).get();
+        return newComputation((booleanClauseList, assumedAssignment, assumedClauseList, timeout) ->
+                new ComputeSolutionCountByComponents(
+                        booleanClauseList,
+                        assumedAssignment,
+                        assumedClauseList,
+                        timeout,
+                        threadCount,
+                        enumerationProgress));
+    }
+
+    @Override
+    protected void runComputation() {
+        if (optionParser.get(CUBES_OPTION).get() || isAnytime()) {
+            runCancellable(
+                    super::runComputation, "Enumeration was stopped, the number of solutions is a lower bound.");
+        } else {
+            super.runComputation();
+        }
+    }
+
+    @Override
+    protected boolean requiresCountPreservingCNF() {
+        return true;
+    }
+
     @Override
     public String getDescription() {
         return "Queries SAT4J for the number of solutions of a given formula";
@@ -21,14 +21,23 @@
 package de.featjar.cli.analysis;
 
 import de.featjar.base.computation.IComputation;
-import de.featjar.base.io.format.IFormat;
+import de.featjar.base.data.Pair;
+import de.featjar.base.data.Result;
+import de.featjar.cli.analysis.sharpsat.ComputeSolutionCountPooledSharpSAT;
+import de.featjar.cli.analysis.sharpsat.SharpSATPool;
 import de.featjar.formula.analysis.VariableMap;
 import de.featjar.formula.analysis.bool.BooleanClauseList;
 import de.featjar.formula.structure.formula.IFormula;
 
 import java.math.BigInteger;
+import java.time.Duration;
 
 public class ComputeSolutionCountSharpSAT extends ASharpSATAnalysisCommand<BigInteger, BigInteger> {
+    @Override
+    protected boolean requiresCountPreservingCNF() {
+        return true;
+    }
+
     @Override
     public String getDescription() {
         return "Queries SharpSAT for the number of solutions of a given formula";
@@ -40,6 +49,14 @@ public class ComputeSolutionCountSharpSAT extends ASharpSATAnalysisCommand<BigIn
         return new de.featjar.formula.analysis.sharpsat.ComputeSolutionCountSharpSAT(cnfFormula);
     }
 
+    @Override
+    public Result<IComputation<BigInteger>> newPooledAnalysis(
+            IComputation<Pair<BooleanClauseList, VariableMap>> booleanRepresentation,
+            IComputation<Duration> timeout,
+            SharpSATPool pool) {
+        return Result.of(new ComputeSolutionCountPooledSharpSAT(booleanRepresentation, timeout, pool));
+    }
+
     @Override
     public IComputation<BigInteger> interpret(IComputation<BigInteger> count) {
         return count;
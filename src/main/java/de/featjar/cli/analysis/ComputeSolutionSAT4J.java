@@ -20,14 +20,36 @@
  */
 package de.featjar.cli.analysis;
 
+import de.featjar.base.cli.ICommand;
+import de.featjar.base.cli.Option;
 import de.featjar.base.computation.IComputation;
+import de.featjar.cli.analysis.solver.CombinedAnalysis;
 import de.featjar.formula.analysis.VariableMap;
 import de.featjar.formula.analysis.bool.BooleanClauseList;
 import de.featjar.formula.analysis.bool.BooleanSolution;
 import de.featjar.formula.analysis.value.ComputeValueRepresentationOfSolution;
 import de.featjar.formula.analysis.value.ValueSolution;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 
 public class ComputeSolutionSAT4J extends ASAT4JAnalysisCommand<ValueSolution, BooleanSolution> {
+    @Override
+    public List<Option<?>> getOptions() {
+        return ICommand.addOptions(super.getOptions(), ASSUMPTIONS_OPTION, THREADS_OPTION);
+    }
+
+    @Override
+    protected boolean allowsVariableElimination() {
+        // eliminated variables could not be assumed by conditional queries
+        return optionParser.get(ASSUMPTIONS_OPTION).isEmpty();
+    }
+
+    @Override
+    protected Set<CombinedAnalysis> getConditionalAnalyses() {
+        return EnumSet.of(CombinedAnalysis.SOLUTION);
+    }
+
     @Override
     public String getDescription() {
         return "Queries SAT4J for a solution of a given formula";
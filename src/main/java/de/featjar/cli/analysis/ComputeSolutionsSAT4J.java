@@ -20,14 +20,95 @@
  */
 package de.featjar.cli.analysis;
 
+import de.featjar.base.FeatJAR;
+import de.featjar.base.cli.Flag;
+import de.featjar.base.cli.ICommand;
+import de.featjar.base.cli.Option;
 import de.featjar.base.computation.IComputation;
+import de.featjar.base.data.Pair;
+import de.featjar.base.data.Result;
+import de.featjar.cli.analysis.solver.ClauseSolver;
+import de.featjar.cli.analysis.solver.ComponentDecomposition;
+import de.featjar.cli.analysis.solver.ComponentDecomposition.Component;
+import de.featjar.cli.analysis.solver.ComponentSolutions;
+import de.featjar.cli.analysis.solver.ComputeSolutionsAnytime;
+import de.featjar.cli.analysis.solver.ComputeSolutionsByComponents;
+import de.featjar.cli.analysis.solver.EnumerationProgress;
+import de.featjar.cli.analysis.solver.LiteralPrinter;
+import de.featjar.cli.analysis.solver.SolutionEnumerator;
+import de.featjar.cli.metrics.Metrics;
+import de.featjar.cli.transformer.AuxiliaryVariables;
+import de.featjar.cli.worker.DistributedEnumeration;
 import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.BooleanClause;
 import de.featjar.formula.analysis.bool.BooleanClauseList;
 import de.featjar.formula.analysis.bool.BooleanSolutionList;
 import de.featjar.formula.analysis.value.ComputeValueRepresentationOfSolutionList;
 import de.featjar.formula.analysis.value.ValueSolutionList;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Predicate;
 
 public class ComputeSolutionsSAT4J extends ASAT4JAnalysisCommand<ValueSolutionList, BooleanSolutionList> {
+    public static final Option<Boolean> STREAM_OPTION = new Flag("stream")
+            .setDescription("Print each solution as soon as it is found, using constant memory");
+
+    public static final Option<Integer> WORKERS_OPTION = new Option<>(
+                    "workers", s -> Result.of(Integer.valueOf(s)))
+            .setDescription("Number of local worker processes to distribute the enumeration to. Implies --stream")
+            .setDefaultValue(0);
+
+    public static final Option<List<String>> WORKER_ADDRESSES_OPTION = new Option<>(
+                    "worker-addresses", s -> Result.of(List.of(s.split(","))))
+            .setDescription("Comma-separated addresses (host:port) of running enumeration workers to distribute the"
+                    + " enumeration to. Implies --stream");
+
+    /**
+     * Number of solutions after which streamed output is flushed.
+     */
+    protected static final int FLUSH_INTERVAL = 1024;
+
+    @Override
+    public List<Option<?>> getOptions() {
+        return ICommand.addOptions(
+                super.getOptions(),
+                STREAM_OPTION,
+                COMPONENTS_OPTION,
+                THREADS_OPTION,
+                PROGRESS_INTERVAL_OPTION,
+                WORKERS_OPTION,
+                WORKER_ADDRESSES_OPTION);
+    }
+
+    @Override
+    public IComputation<ValueSolutionList> newComputation() {
+        if (!optionParser.get(COMPONENTS_OPTION).get()) {
+            if (!isAnytime()) {
+                return super.newComputation();
+            }
+            EnumerationProgress enumerationProgress = getEnumerationProgress();
+            return newComputation((booleanClauseList, assumedAssignment, assumedClauseList, timeout) ->
+                    new ComputeSolutionsAnytime(
+                            booleanClauseList, assumedAssignment, assumedClauseList, timeout, enumerationProgress));
+        }
+        EnumerationProgress enumerationProgress = getEnumerationProgress();
+        int threadCount = optionParser.get(THREADS_OPTION).get();
+        return newComputation((booleanClauseList, assumedAssignment, assumedClauseList, timeout) ->
+                new ComputeSolutionsByComponents(
+                        booleanClauseList,
+                        assumedAssignment,
+                        assumedClauseList,
+                        timeout,
+                        threadCount,
+                        enumerationProgress));
+    }
+
     @Override
     public String getDescription() {
         return "Queries SAT4J for all solutions of a given formula";
@@ -49,4 +130,138 @@ public class ComputeSolutionsSAT4J extends ASAT4JAnalysisCommand<ValueSolutionLi
     public String serializeResult(ValueSolutionList valueSolutionList) {
         return valueSolutionList.print();
     }
+
+    @Override
+    protected boolean requiresCountPreservingCNF() {
+        return true;
+    }
+
+    @Override
+    protected void runComputation() {
+        boolean stream = optionParser.get(STREAM_OPTION).get() || isDistributed();
+        if (stream || isAnytime()) {
+            runCancellable(
+                    stream ? this::streamSolutions : super::runComputation,
+                    "Enumeration was stopped, the solutions are incomplete.");
+        } else {
+            super.runComputation();
+        }
+    }
+
+    /**
+     * Prints all solutions while they are enumerated, instead of collecting them in a {@link ValueSolutionList}.
+     */
+    protected void streamSolutions() {
+        final long localTime = System.nanoTime();
+        Result<Pair<BooleanClauseList, VariableMap>> booleanRepresentation = computeSolverInput();
+        if (booleanRepresentation.isEmpty()) {
+            return;
+        }
+        VariableMap variableMap = booleanRepresentation.get().getValue();
+        LiteralPrinter literalPrinter = new LiteralPrinter(variableMap);
+        int originalVariableCount = AuxiliaryVariables.getOriginalVariableCount(variableMap);
+        PrintWriter out =
+                new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+        StringBuilder line = new StringBuilder();
+        long[] solutionCount = {0};
+        EnumerationProgress enumerationProgress = getEnumerationProgress();
+        Predicate<int[]> printer = solution -> {
+            line.setLength(0);
+            out.println(literalPrinter.print(line, solution, originalVariableCount));
+            if (++solutionCount[0] == 1) {
+                out.flush();
+                FeatJAR.log()
+                        .info("time needed for first solution: "
+                                + (((System.nanoTime() - localTime) / 1_000_000) / 1000.0) + "s");
+            } else if (solutionCount[0] % FLUSH_INTERVAL == 0) {
+                out.flush();
+            }
+            return enumerationProgress.addSolution();
+        };
+        Result<Boolean> complete;
+        if (isDistributed()) {
+            complete = enumerateDistributed(booleanRepresentation.get(), printer);
+        } else if (optionParser.get(COMPONENTS_OPTION).get()) {
+            BooleanClauseList clauseList = booleanRepresentation.get().getKey();
+            List<Component> components = ComponentDecomposition.decompose(
+                    clauseList, getAssumedClauses(variableMap), getAssumedLiterals(variableMap));
+            FeatJAR.log().info("enumerating solutions of " + components.size() + " components");
+            try {
+                complete = ComponentSolutions.enumerate(
+                                clauseList.getVariableCount(),
+                                components,
+                                optionParser.get(TIMEOUT_OPTION).get(),
+                                optionParser.get(THREADS_OPTION).get(),
+                                enumerationProgress)
+                        .map(componentSolutions -> {
+                            FeatJAR.log().info("streaming solutions");
+                            return Metrics.measure("stream-solutions", () -> componentSolutions.forEach(printer))
+                                    && enumerationProgress.isComplete();
+                        });
+            } catch (ExecutionException e) {
+                complete = Result.empty(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                complete = Result.empty(e);
+            }
+        } else {
+            FeatJAR.log().info("streaming solutions");
+            ClauseSolver solver = newClauseSolver(booleanRepresentation.get());
+            SolutionEnumerator enumerator = new SolutionEnumerator(solver, getAssumedLiterals(variableMap));
+            complete = Metrics.measure("stream-solutions", () -> enumerator.enumerate(printer));
+        }
+        out.flush();
+        final long timeNeeded = System.nanoTime() - localTime;
+        FeatJAR.log().info("time needed for computation: " + ((timeNeeded / 1_000_000) / 1000.0) + "s");
+        FeatJAR.log().info("number of solutions: " + solutionCount[0]);
+        enumerationProgress.setComplete(complete.isPresent() && complete.get());
+        if (complete.isEmpty() && complete.hasProblems()) {
+            fail("Could not compute result.");
+            printProblems(complete);
+        }
+    }
+
+    /**
+     * {@return whether the enumeration is distributed to worker processes}
+     */
+    protected boolean isDistributed() {
+        return optionParser.get(WORKERS_OPTION).get() > 0 || optionParser.get(WORKER_ADDRESSES_OPTION).isPresent();
+    }
+
+    /**
+     * Passes all solutions to the given consumer while they are enumerated by the workers given by
+     * {@link #WORKERS_OPTION} and {@link #WORKER_ADDRESSES_OPTION}, see {@link DistributedEnumeration}.
+     *
+     * @param booleanRepresentation the boolean representation
+     * @param consumer the consumer
+     * @return whether all solutions have been enumerated
+     */
+    protected Result<Boolean> enumerateDistributed(
+            Pair<BooleanClauseList, VariableMap> booleanRepresentation, Predicate<int[]> consumer) {
+        VariableMap variableMap = booleanRepresentation.getValue();
+        BooleanClauseList clauseList = booleanRepresentation.getKey();
+        BooleanClauseList assumedClauseList = getAssumedClauses(variableMap);
+        List<BooleanClause> clauses = new ArrayList<>(clauseList.getAll());
+        clauses.addAll(assumedClauseList.getAll());
+        Pair<BooleanClauseList, VariableMap> workerInput = new Pair<>(
+                new BooleanClauseList(
+                        clauses, Math.max(clauseList.getVariableCount(), assumedClauseList.getVariableCount())),
+                variableMap);
+        try (DistributedEnumeration distributedEnumeration = new DistributedEnumeration()) {
+            distributedEnumeration.spawnWorkers(optionParser.get(WORKERS_OPTION).get());
+            for (String address : optionParser.get(WORKER_ADDRESSES_OPTION).orElse(List.of())) {
+                distributedEnumeration.connectWorker(address.trim());
+            }
+            FeatJAR.log().info("streaming solutions");
+            return Metrics.measure(
+                    "stream-solutions",
+                    () -> distributedEnumeration.enumerate(
+                            workerInput,
+                            getAssumedLiterals(variableMap),
+                            optionParser.get(TIMEOUT_OPTION).get(),
+                            consumer));
+        } catch (IOException e) {
+            return Result.empty(e);
+        }
+    }
 }
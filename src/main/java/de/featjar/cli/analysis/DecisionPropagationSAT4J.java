@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.data.Pair;
+import de.featjar.base.data.Result;
+import de.featjar.cli.analysis.solver.DecisionPropagation;
+import de.featjar.cli.analysis.solver.LiteralPrinter;
+import de.featjar.cli.transformer.AuxiliaryVariables;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.BooleanAssignment;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import de.featjar.formula.analysis.value.ComputeValueRepresentationOfAssignment;
+import de.featjar.formula.analysis.value.ValueAssignment;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Interactively propagates decisions on a formula, e.g., as a backend for a configurator.
+ * The formula is loaded once and queried with a warm solver, see {@link DecisionPropagation}.
+ * Reads one request per line from standard input and responds with one tab-separated line on standard output:
+ * <ul>
+ * <li>{@code select <variable>} and {@code deselect <variable>} respond with the newly implied literals,</li>
+ * <li>{@code undo} responds with the undone decision,</li>
+ * <li>{@code decisions} responds with the current decisions,</li>
+ * <li>{@code state} responds with all decided and implied literals,</li>
+ * <li>{@code quit} ends the session, as does the end of input.</li>
+ * </ul>
+ * Successful responses start with {@code ok} and the time needed in milliseconds, followed by one literal per
+ * column, e.g., {@code ok 3 +A -B}.
+ * Failed responses start with {@code error}, followed by a message.
+ * Before the first request, the core and dead literals are printed as the response to an implicit request.
+ */
+public class DecisionPropagationSAT4J extends ASAT4JAnalysisCommand<ValueAssignment, BooleanAssignment> {
+    @Override
+    public String getDescription() {
+        return "Interactively selects and deselects variables and prints the implied literals";
+    }
+
+    @Override
+    public de.featjar.formula.analysis.sat4j.ComputeCoreDeadVariablesSAT4J newAnalysis(
+            IComputation<BooleanClauseList> clauseList) {
+        return new de.featjar.formula.analysis.sat4j.ComputeCoreDeadVariablesSAT4J(clauseList);
+    }
+
+    @Override
+    public IComputation<ValueAssignment> interpret(
+            IComputation<BooleanAssignment> booleanAssignment, IComputation<VariableMap> variableMap) {
+        return new ComputeValueRepresentationOfAssignment(booleanAssignment, variableMap);
+    }
+
+    @Override
+    protected void runComputation() {
+        Result<Pair<BooleanClauseList, VariableMap>> booleanRepresentation = computeSolverInput();
+        if (booleanRepresentation.isEmpty()) {
+            return;
+        }
+        VariableMap variableMap = booleanRepresentation.get().getValue();
+        int originalVariableCount = AuxiliaryVariables.getOriginalVariableCount(variableMap);
+        LiteralPrinter literalPrinter = new LiteralPrinter(variableMap);
+        Map<String, Integer> variables = new HashMap<>();
+        for (int variable = 1; variable <= originalVariableCount; variable++) {
+            variables.put(literalPrinter.getName(variable), variable);
+        }
+        DecisionPropagation decisionPropagation = new DecisionPropagation(
+                newClauseSolver(booleanRepresentation.get()), getAssumedLiterals(variableMap));
+        Session session = new Session(decisionPropagation, variables, literalPrinter, originalVariableCount);
+
+        long localTime = System.nanoTime();
+        Result<int[]> coreDeadLiterals = decisionPropagation.initialize();
+        if (coreDeadLiterals.isEmpty()) {
+            session.respondError(coreDeadLiterals, "formula is unsatisfiable or solver timed out");
+            return;
+        }
+        session.respond(localTime, coreDeadLiterals.get());
+        FeatJAR.log().info("waiting for decisions on standard input");
+        try {
+            BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+                if (line.equals("quit")) {
+                    break;
+                }
+                if (!line.isEmpty()) {
+                    session.handle(line);
+                }
+            }
+        } catch (IOException e) {
+            FeatJAR.log().error(e);
+        }
+    }
+
+    private static class Session {
+        private final DecisionPropagation decisionPropagation;
+        private final Map<String, Integer> variables;
+        private final LiteralPrinter literalPrinter;
+        private final int originalVariableCount;
+        private final PrintStream out = System.out;
+
+        private Session(
+                DecisionPropagation decisionPropagation,
+                Map<String, Integer> variables,
+                LiteralPrinter literalPrinter,
+                int originalVariableCount) {
+            this.decisionPropagation = decisionPropagation;
+            this.variables = variables;
+            this.literalPrinter = literalPrinter;
+            this.originalVariableCount = originalVariableCount;
+        }
+
+        private void handle(String line) {
+            long localTime = System.nanoTime();
+            int separator = line.indexOf(' ');
+            String request = separator < 0 ? line : line.substring(0, separator);
+            String argument = separator < 0 ? "" : line.substring(separator + 1).trim();
+            switch (request) {
+                case "select":
+                case "deselect":
+                    Integer variable = variables.get(argument);
+                    if (variable == null) {
+                        respondError(Result.empty(), "unknown variable " + argument);
+                        return;
+                    }
+                    Result<int[]> implied = decisionPropagation.decide(request.equals("select") ? variable : -variable);
+                    if (implied.isEmpty()) {
+                        respondError(implied, "solver timed out");
+                    } else {
+                        respond(localTime, implied.get());
+                    }
+                    break;
+                case "undo":
+                    Result<Integer> decision = decisionPropagation.undo();
+                    if (decision.isEmpty()) {
+                        respondError(decision, "no decision to undo");
+                    } else {
+                        respond(localTime, decision.get());
+                    }
+                    break;
+                case "decisions":
+                    respond(localTime, decisionPropagation.getDecisions());
+                    break;
+                case "state":
+                    respond(localTime, decisionPropagation.getAssignedLiterals());
+                    break;
+                default:
+                    respondError(Result.empty(), "unknown request " + request);
+            }
+        }
+
+        private void respond(long localTime, int... literals) {
+            StringBuilder sb = new StringBuilder("ok\t").append((System.nanoTime() - localTime) / 1_000_000);
+            for (int literal : literals) {
+                if (Math.abs(literal) <= originalVariableCount) {
+                    sb.append('\t').append(literal > 0 ? '+' : '-').append(literalPrinter.getName(literal));
+                }
+            }
+            out.println(sb);
+            out.flush();
+        }
+
+        private void respondError(Result<?> result, String defaultMessage) {
+            String message = result.getProblems().isEmpty()
+                    ? defaultMessage
+                    : result.getProblems().get(0).getException().getMessage();
+            out.println("error\t" + message);
+            out.flush();
+        }
+    }
+}
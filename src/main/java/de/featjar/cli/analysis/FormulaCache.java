@@ -0,0 +1,256 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.cli.Commands;
+import de.featjar.base.data.Pair;
+import de.featjar.base.data.Result;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.BooleanClause;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import de.featjar.formula.io.FormulaFormats;
+import de.featjar.formula.structure.formula.IFormula;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps parsed formulas and their boolean representations in memory while several commands run in the same process.
+ * Because all commands then share the same formula instance, they also share all computations derived from it in
+ * {@link FeatJAR#cache()}.
+ * Disabled by default, so that a single command run does not retain its formula.
+ */
+public class FormulaCache {
+    private static final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private static volatile boolean enabled = false;
+
+    /**
+     * A formula kept in memory, together with the boolean representations computed for it.
+     * The formula is parsed by the first thread that requests it, while other threads requesting it wait.
+     */
+    public static class Entry {
+        private final String input;
+        private final long lastModifiedTime;
+        private final long fileSize;
+        private final AtomicBoolean parsing = new AtomicBoolean();
+        private final CompletableFuture<Result<IFormula>> formula = new CompletableFuture<>();
+        private final Map<String, Pair<BooleanClauseList, VariableMap>> booleanRepresentations =
+                new ConcurrentHashMap<>();
+        private volatile long lastAccessTime = System.currentTimeMillis();
+
+        private Entry(String input, long lastModifiedTime, long fileSize) {
+            this.input = input;
+            this.lastModifiedTime = lastModifiedTime;
+            this.fileSize = fileSize;
+        }
+
+        public String getInput() {
+            return input;
+        }
+
+        public Duration getIdleTime() {
+            return Duration.ofMillis(System.currentTimeMillis() - lastAccessTime);
+        }
+
+        /**
+         * {@return an estimate of the memory retained by this entry in bytes}
+         * The formula is estimated by the size of its file, each boolean representation by its number of literals
+         * and variable names.
+         */
+        public long getEstimatedSize() {
+            long size = fileSize;
+            for (Pair<BooleanClauseList, VariableMap> booleanRepresentation : booleanRepresentations.values()) {
+                for (BooleanClause clause : booleanRepresentation.getKey().getAll()) {
+                    size += 32 + 4L * clause.get().length;
+                }
+                VariableMap variableMap = booleanRepresentation.getValue();
+                for (int i = 1; i <= variableMap.getVariableCount(); i++) {
+                    size += 64 + 2L * variableMap.get(i).get().length();
+                }
+            }
+            return size;
+        }
+
+        private void touch() {
+            lastAccessTime = System.currentTimeMillis();
+        }
+
+        private Result<IFormula> getFormula() {
+            if (parsing.compareAndSet(false, true)) {
+                try {
+                    formula.complete(parse(input));
+                } catch (RuntimeException e) {
+                    formula.complete(Result.empty(e));
+                }
+            }
+            return formula.join();
+        }
+    }
+
+    private FormulaCache() {}
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        FormulaCache.enabled = enabled;
+        if (!enabled) {
+            clear();
+        }
+    }
+
+    public static void clear() {
+        entries.clear();
+    }
+
+    /**
+     * {@return all formulas currently kept in memory}
+     */
+    public static List<Entry> getEntries() {
+        return entries.values().stream().collect(Collectors.toList());
+    }
+
+    /**
+     * {@return whether a formula for the given input is kept in memory}
+     * The formula may still be parsed again by {@link #load(String)} if the input has been modified.
+     *
+     * @param input the input
+     */
+    public static boolean contains(String input) {
+        return enabled && entries.containsKey(input);
+    }
+
+    /**
+     * Removes the formula for the given input.
+     *
+     * @param input the input
+     * @return whether a formula was removed
+     */
+    public static boolean evict(String input) {
+        return entries.remove(input) != null;
+    }
+
+    /**
+     * Removes all formulas that have not been accessed for the given time.
+     *
+     * @param maximumIdleTime the maximum idle time
+     * @return the number of removed formulas
+     */
+    public static int evictIdle(Duration maximumIdleTime) {
+        int count = 0;
+        for (Entry entry : getEntries()) {
+            if (entry.getIdleTime().compareTo(maximumIdleTime) > 0 && entries.remove(entry.input, entry)) {
+                FeatJAR.log().info("evicted idle formula " + entry.input);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * {@return the formula parsed from the given input}
+     * If this cache is enabled, the input is only parsed again if it has been modified in the meantime.
+     *
+     * @param input the input
+     */
+    public static Result<IFormula> load(String input) {
+        Entry entry = getEntry(input);
+        return entry != null ? entry.getFormula() : parse(input);
+    }
+
+    /**
+     * {@return the boolean representation computed for the given input by the given pipeline, if kept in memory}
+     *
+     * @param input the input
+     * @param pipeline the identifier of the pipeline that computed the boolean representation
+     */
+    public static Result<Pair<BooleanClauseList, VariableMap>> getBooleanRepresentation(String input, String pipeline) {
+        Entry entry = getEntry(input);
+        return entry != null ? Result.ofNullable(entry.booleanRepresentations.get(pipeline)) : Result.empty();
+    }
+
+    /**
+     * Keeps the boolean representation computed for the given input by the given pipeline in memory.
+     * Does nothing if this cache is disabled.
+     *
+     * @param input the input
+     * @param pipeline the identifier of the pipeline that computed the boolean representation
+     * @param booleanRepresentation the boolean representation
+     */
+    public static void putBooleanRepresentation(
+            String input, String pipeline, Pair<BooleanClauseList, VariableMap> booleanRepresentation) {
+        Entry entry = getEntry(input);
+        if (entry != null) {
+            entry.booleanRepresentations.put(pipeline, booleanRepresentation);
+        }
+    }
+
+    private static Entry getEntry(String input) {
+        if (!enabled) {
+            return null;
+        }
+        Path path = getPath(input);
+        if (path == null) {
+            return null;
+        }
+        try {
+            long lastModifiedTime = Files.getLastModifiedTime(path).toMillis();
+            long fileSize = Files.size(path);
+            // only creates the entry while holding the lock of the map, the formula is parsed afterwards
+            Entry entry = entries.compute(
+                    input,
+                    (key, oldEntry) -> oldEntry != null && oldEntry.lastModifiedTime == lastModifiedTime
+                            ? oldEntry
+                            : new Entry(input, lastModifiedTime, fileSize));
+            entry.touch();
+            if (entry.getFormula().isEmpty()) {
+                // failures are not kept, so that the next request parses the input again
+                entries.remove(input, entry);
+            }
+            return entry;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static Result<IFormula> parse(String input) {
+        return Commands.loadFile(input, FeatJAR.extensionPoint(FormulaFormats.class));
+    }
+
+    private static Path getPath(String input) {
+        try {
+            Path path = Paths.get(input);
+            return Files.isRegularFile(path) ? path : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.ddnnf;
+
+import de.featjar.base.computation.AComputation;
+import de.featjar.base.computation.Dependency;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Result;
+import de.featjar.base.tree.structure.ITree;
+import de.featjar.cli.transformer.AuxiliaryVariables;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.BooleanAssignment;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Computes the commonality of each variable in a {@link DDNNF}, that is, the number of solutions that contain it
+ * under an assumed assignment, see {@link DDNNF#countSolutionsWithEachVariable(int...)}.
+ * Prints one CSV line per variable with its name, its number of solutions, and its share of all solutions.
+ * Auxiliary variables are omitted.
+ */
+public class ComputeCommonalityOfDDNNF extends AComputation<String> {
+    protected static final Dependency<DDNNF> CIRCUIT = Dependency.newDependency(DDNNF.class);
+    protected static final Dependency<BooleanAssignment> ASSUMED_ASSIGNMENT =
+            Dependency.newDependency(BooleanAssignment.class);
+
+    public ComputeCommonalityOfDDNNF(IComputation<DDNNF> ddnnf, IComputation<BooleanAssignment> assumedAssignment) {
+        super(ddnnf, assumedAssignment);
+    }
+
+    protected ComputeCommonalityOfDDNNF(ComputeCommonalityOfDDNNF other) {
+        super(other);
+    }
+
+    @Override
+    public Result<String> compute(List<Object> dependencyList, Progress progress) {
+        DDNNF ddnnf = CIRCUIT.get(dependencyList);
+        VariableMap variableMap = ddnnf.getVariableMap();
+        BigInteger[] counts = ddnnf.countSolutionsWithEachVariable(ASSUMED_ASSIGNMENT.get(dependencyList).get());
+        BigDecimal solutionCount = new BigDecimal(counts[0]);
+        String lines = IntStream.rangeClosed(1, AuxiliaryVariables.getOriginalVariableCount(variableMap))
+                .mapToObj(variable -> quote(variableMap.get(variable).get()) + "," + counts[variable] + ","
+                        + (counts[0].signum() == 0
+                                ? 0.0
+                                : new BigDecimal(counts[variable])
+                                        .divide(solutionCount, MathContext.DECIMAL64)
+                                        .doubleValue()))
+                .collect(Collectors.joining("\n"));
+        return Result.of("feature,count,probability\n" + lines);
+    }
+
+    private static String quote(String value) {
+        return value.contains(",") || value.contains("\"") ? "\"" + value.replace("\"", "\"\"") + "\"" : value;
+    }
+
+    @Override
+    public ITree<IComputation<?>> cloneNode() {
+        return new ComputeCommonalityOfDDNNF(this);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.ddnnf;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.computation.AComputation;
+import de.featjar.base.computation.Dependency;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Pair;
+import de.featjar.base.data.Result;
+import de.featjar.base.tree.structure.ITree;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.BooleanClause;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Compiles a boolean representation and assumed clauses into a {@link DDNNF} with a {@link DDNNFCompiler}.
+ */
+public class ComputeDDNNF extends AComputation<DDNNF> {
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    protected static final Dependency<Pair<BooleanClauseList, VariableMap>> BOOLEAN_REPRESENTATION =
+            (Dependency) Dependency.newDependency(Pair.class);
+
+    protected static final Dependency<BooleanClauseList> ASSUMED_CLAUSE_LIST =
+            Dependency.newDependency(BooleanClauseList.class);
+    protected static final Dependency<Duration> TIMEOUT = Dependency.newDependency(Duration.class);
+
+    public ComputeDDNNF(
+            IComputation<Pair<BooleanClauseList, VariableMap>> booleanRepresentation,
+            IComputation<BooleanClauseList> assumedClauseList,
+            IComputation<Duration> timeout) {
+        super(booleanRepresentation, assumedClauseList, timeout);
+    }
+
+    protected ComputeDDNNF(ComputeDDNNF other) {
+        super(other);
+    }
+
+    @Override
+    public Result<DDNNF> compute(List<Object> dependencyList, Progress progress) {
+        Pair<BooleanClauseList, VariableMap> booleanRepresentation = BOOLEAN_REPRESENTATION.get(dependencyList);
+        BooleanClauseList clauseList = booleanRepresentation.getKey();
+        BooleanClauseList assumedClauseList = ASSUMED_CLAUSE_LIST.get(dependencyList);
+        VariableMap variableMap = booleanRepresentation.getValue();
+        int variableCount = Math.max(
+                variableMap.getVariableCount(),
+                Math.max(clauseList.getVariableCount(), assumedClauseList.getVariableCount()));
+        List<BooleanClause> clauses = new ArrayList<>(clauseList.size() + assumedClauseList.size());
+        clauses.addAll(clauseList.getAll());
+        clauses.addAll(assumedClauseList.getAll());
+        Duration timeout = TIMEOUT.get(dependencyList);
+        long deadline = timeout.isZero() ? Long.MAX_VALUE : System.nanoTime() + timeout.toNanos();
+        DDNNFCompiler compiler = new DDNNFCompiler(variableCount, deadline);
+        try {
+            DDNNF ddnnf = compiler.compile(new BooleanClauseList(clauses, variableCount), variableMap);
+            FeatJAR.log()
+                    .info("compiled d-DNNF with " + ddnnf.getNodeCount() + " nodes and " + ddnnf.getEdgeCount()
+                            + " edges after " + compiler.getDecisionCount() + " decisions");
+            return Result.of(ddnnf);
+        } catch (TimeoutException e) {
+            FeatJAR.log().warning("d-DNNF compilation timed out after " + compiler.getDecisionCount() + " decisions");
+            return Result.empty(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.empty(e);
+        } catch (StackOverflowError e) {
+            return Result.empty(new IllegalStateException("formula is too deep to compile into d-DNNF", e));
+        }
+    }
+
+    @Override
+    public ITree<IComputation<?>> cloneNode() {
+        return new ComputeDDNNF(this);
+    }
+}
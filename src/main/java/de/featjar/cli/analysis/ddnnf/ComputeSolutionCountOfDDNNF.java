@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.ddnnf;
+
+import de.featjar.base.computation.AComputation;
+import de.featjar.base.computation.Dependency;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Result;
+import de.featjar.base.tree.structure.ITree;
+import de.featjar.formula.analysis.bool.BooleanAssignment;
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * Counts the solutions of a {@link DDNNF} under an assumed assignment, in time linear in the size of the d-DNNF.
+ */
+public class ComputeSolutionCountOfDDNNF extends AComputation<BigInteger> {
+    protected static final Dependency<DDNNF> CIRCUIT = Dependency.newDependency(DDNNF.class);
+    protected static final Dependency<BooleanAssignment> ASSUMED_ASSIGNMENT =
+            Dependency.newDependency(BooleanAssignment.class);
+
+    public ComputeSolutionCountOfDDNNF(IComputation<DDNNF> ddnnf, IComputation<BooleanAssignment> assumedAssignment) {
+        super(ddnnf, assumedAssignment);
+    }
+
+    protected ComputeSolutionCountOfDDNNF(ComputeSolutionCountOfDDNNF other) {
+        super(other);
+    }
+
+    @Override
+    public Result<BigInteger> compute(List<Object> dependencyList, Progress progress) {
+        return Result.of(CIRCUIT.get(dependencyList).countSolutions(ASSUMED_ASSIGNMENT.get(dependencyList).get()));
+    }
+
+    @Override
+    public ITree<IComputation<?>> cloneNode() {
+        return new ComputeSolutionCountOfDDNNF(this);
+    }
+}
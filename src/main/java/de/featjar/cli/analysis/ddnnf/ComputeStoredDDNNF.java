@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.ddnnf;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.computation.AComputation;
+import de.featjar.base.computation.Dependency;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Result;
+import de.featjar.base.tree.structure.ITree;
+import de.featjar.cli.cache.DiskCache;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Passes through a {@link DDNNF} and stores it in a {@link DiskCache} and, optionally, in a given file, so that
+ * subsequent runs can skip its compilation.
+ */
+public class ComputeStoredDDNNF extends AComputation<DDNNF> {
+    protected static final Dependency<DDNNF> CIRCUIT = Dependency.newDependency(DDNNF.class);
+
+    protected final DiskCache diskCache;
+    protected final String key;
+    protected final Path file;
+
+    /**
+     * Creates a computation that stores a d-DNNF.
+     *
+     * @param ddnnf the d-DNNF
+     * @param diskCache the disk cache, or null
+     * @param key the key of the d-DNNF, see {@link DDNNFSerializer}
+     * @param file the file, or null
+     */
+    public ComputeStoredDDNNF(IComputation<DDNNF> ddnnf, DiskCache diskCache, String key, Path file) {
+        super(ddnnf);
+        this.diskCache = diskCache;
+        this.key = key;
+        this.file = file;
+    }
+
+    protected ComputeStoredDDNNF(ComputeStoredDDNNF other) {
+        super(other);
+        this.diskCache = other.diskCache;
+        this.key = other.key;
+        this.file = other.file;
+    }
+
+    @Override
+    public Result<DDNNF> compute(List<Object> dependencyList, Progress progress) {
+        DDNNF ddnnf = CIRCUIT.get(dependencyList);
+        if (diskCache != null) {
+            diskCache.store(key, ddnnf, (value, out) -> DDNNFSerializer.write(value, key, out));
+        }
+        if (file != null) {
+            try {
+                DDNNFSerializer.write(ddnnf, key, file);
+                FeatJAR.log().info("stored d-DNNF in " + file);
+            } catch (IOException e) {
+                FeatJAR.log().warning("could not store d-DNNF in " + file + ": " + e.getMessage());
+            }
+        }
+        return Result.of(ddnnf);
+    }
+
+    @Override
+    public ITree<IComputation<?>> cloneNode() {
+        return new ComputeStoredDDNNF(this);
+    }
+}
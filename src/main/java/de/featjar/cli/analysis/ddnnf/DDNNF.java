@@ -0,0 +1,386 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.ddnnf;
+
+import de.featjar.formula.analysis.VariableMap;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Boolean circuit in smooth deterministic decomposable negation normal form (sd-DNNF).
+ * Conjunctions have children over disjoint variables, disjunctions have mutually exclusive children over the same
+ * variables, and the root mentions every variable.
+ * Thus, the number of solutions under any assumed literals can be counted in time linear in the size of the circuit.
+ * <p>
+ * Nodes are numbered in topological order, children before their parents, and the root is the last node.
+ * Instances are immutable and created with a {@link Builder}.
+ */
+public class DDNNF {
+    public static final byte TRUE = 0, FALSE = 1, LITERAL = 2, AND = 3, OR = 4;
+
+    private final VariableMap variableMap;
+    private final int variableCount;
+    private final byte[] types;
+    private final int[] offsets;
+    private final int[] children;
+
+    /**
+     * Creates a circuit from its nodes.
+     *
+     * @param variableMap the variable map
+     * @param variableCount the number of variables
+     * @param types the type of each node
+     * @param offsets for each node, the index of its first child (or its literal) in {@code children}, followed by
+     *                the total number of children
+     * @param children the children of all nodes, literals for literal nodes
+     */
+    public DDNNF(VariableMap variableMap, int variableCount, byte[] types, int[] offsets, int[] children) {
+        this.variableMap = variableMap;
+        this.variableCount = variableCount;
+        this.types = types;
+        this.offsets = offsets;
+        this.children = children;
+    }
+
+    public VariableMap getVariableMap() {
+        return variableMap;
+    }
+
+    public int getVariableCount() {
+        return variableCount;
+    }
+
+    public int getNodeCount() {
+        return types.length;
+    }
+
+    public int getEdgeCount() {
+        return children.length;
+    }
+
+    public byte getType(int node) {
+        return types[node];
+    }
+
+    /**
+     * {@return the children of the given node, or its literal for a literal node}
+     *
+     * @param node the node
+     */
+    public int[] getChildren(int node) {
+        return Arrays.copyOfRange(children, offsets[node], offsets[node + 1]);
+    }
+
+    int[] getOffsets() {
+        return offsets;
+    }
+
+    int[] getChildren() {
+        return children;
+    }
+
+    /**
+     * {@return the number of solutions that contain all given literals}
+     *
+     * @param assumptions the assumed literals
+     */
+    public BigInteger countSolutions(int... assumptions) {
+        int[] values = getValues(assumptions);
+        return values == null ? BigInteger.ZERO : count(values)[types.length - 1];
+    }
+
+    /**
+     * {@return for each variable, the number of solutions that contain it and all given literals}
+     * The number of solutions that contain all given literals is stored at index 0.
+     * All numbers are computed in two passes over the circuit, as the number of solutions that contain a variable is
+     * the partial derivative of the root's count with respect to the variable's literal.
+     *
+     * @param assumptions the assumed literals
+     */
+    public BigInteger[] countSolutionsWithEachVariable(int... assumptions) {
+        BigInteger[] variableCounts = new BigInteger[variableCount + 1];
+        Arrays.fill(variableCounts, BigInteger.ZERO);
+        int[] values = getValues(assumptions);
+        if (values == null) {
+            return variableCounts;
+        }
+        BigInteger[] counts = count(values);
+        BigInteger[] derivatives = new BigInteger[types.length];
+        Arrays.fill(derivatives, BigInteger.ZERO);
+        int root = types.length - 1;
+        derivatives[root] = BigInteger.ONE;
+        variableCounts[0] = counts[root];
+        for (int node = root; node >= 0; node--) {
+            BigInteger derivative = derivatives[node];
+            if (derivative.signum() == 0) {
+                continue;
+            }
+            int start = offsets[node], end = offsets[node + 1];
+            switch (types[node]) {
+                case LITERAL:
+                    if (children[start] > 0) {
+                        variableCounts[children[start]] =
+                                variableCounts[children[start]].add(derivative.multiply(counts[node]));
+                    }
+                    break;
+                case AND:
+                    BigInteger[] suffixProducts = new BigInteger[end - start + 1];
+                    suffixProducts[end - start] = BigInteger.ONE;
+                    for (int i = end - 1; i >= start; i--) {
+                        suffixProducts[i - start] = suffixProducts[i - start + 1].multiply(counts[children[i]]);
+                    }
+                    BigInteger prefixProduct = derivative;
+                    for (int i = start; i < end; i++) {
+                        derivatives[children[i]] =
+                                derivatives[children[i]].add(prefixProduct.multiply(suffixProducts[i - start + 1]));
+                        prefixProduct = prefixProduct.multiply(counts[children[i]]);
+                    }
+                    break;
+                case OR:
+                    for (int i = start; i < end; i++) {
+                        derivatives[children[i]] = derivatives[children[i]].add(derivative);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return variableCounts;
+    }
+
+    /**
+     * {@return for each node, the number of solutions of its subcircuit under the given assumptions}
+     *
+     * @param values the assumed value of each variable, 0 if unassumed
+     */
+    BigInteger[] count(int[] values) {
+        BigInteger[] counts = new BigInteger[types.length];
+        for (int node = 0; node < types.length; node++) {
+            switch (types[node]) {
+                case TRUE:
+                    counts[node] = BigInteger.ONE;
+                    break;
+                case FALSE:
+                    counts[node] = BigInteger.ZERO;
+                    break;
+                case LITERAL:
+                    int literal = children[offsets[node]];
+                    counts[node] = values[Math.abs(literal)] == -Integer.signum(literal)
+                            ? BigInteger.ZERO
+                            : BigInteger.ONE;
+                    break;
+                case AND:
+                    BigInteger product = BigInteger.ONE;
+                    for (int i = offsets[node]; i < offsets[node + 1] && product.signum() != 0; i++) {
+                        product = product.multiply(counts[children[i]]);
+                    }
+                    counts[node] = product;
+                    break;
+                case OR:
+                    BigInteger sum = BigInteger.ZERO;
+                    for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+                        sum = sum.add(counts[children[i]]);
+                    }
+                    counts[node] = sum;
+                    break;
+                default:
+                    throw new IllegalStateException("unknown node type " + types[node]);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * {@return the assumed value of each variable, or null if the assumptions are contradictory}
+     */
+    int[] getValues(int... assumptions) {
+        int[] values = new int[variableCount + 1];
+        for (int literal : assumptions) {
+            if (values[Math.abs(literal)] == -Integer.signum(literal)) {
+                return null;
+            }
+            values[Math.abs(literal)] = Integer.signum(literal);
+        }
+        return values;
+    }
+
+    /**
+     * Creates a {@link DDNNF} node by node.
+     * Nodes are simplified and identical nodes are only created once.
+     * The caller is responsible for determinism, decomposability, and smoothness.
+     */
+    public static class Builder {
+        private final Map<Node, Integer> nodes = new HashMap<>();
+        private byte[] types = new byte[1024];
+        private int[] offsets = new int[1025];
+        private int[] children = new int[4096];
+        private int nodeCount;
+        private int edgeCount;
+
+        /**
+         * {@return the node that is always true}
+         */
+        public int newTrue() {
+            return newNode(TRUE);
+        }
+
+        /**
+         * {@return the node that is always false}
+         */
+        public int newFalse() {
+            return newNode(FALSE);
+        }
+
+        /**
+         * {@return the node for the given literal}
+         *
+         * @param literal the literal
+         */
+        public int newLiteral(int literal) {
+            return newNode(LITERAL, literal);
+        }
+
+        /**
+         * {@return the conjunction of the given nodes, which must not share variables}
+         *
+         * @param nodes the nodes
+         */
+        public int newAnd(int... nodes) {
+            int[] operands = Arrays.stream(nodes)
+                    .filter(node -> types[node] != TRUE)
+                    .sorted()
+                    .distinct()
+                    .toArray();
+            for (int node : operands) {
+                if (types[node] == FALSE) {
+                    return node;
+                }
+            }
+            return operands.length == 0 ? newTrue() : operands.length == 1 ? operands[0] : newNode(AND, operands);
+        }
+
+        /**
+         * {@return the disjunction of the given nodes, which must be mutually exclusive and mention the same
+         * variables}
+         *
+         * @param nodes the nodes
+         */
+        public int newOr(int... nodes) {
+            int[] operands = Arrays.stream(nodes)
+                    .filter(node -> types[node] != FALSE)
+                    .sorted()
+                    .toArray();
+            return operands.length == 0 ? newFalse() : operands.length == 1 ? operands[0] : newNode(OR, operands);
+        }
+
+        /**
+         * {@return the literal of the given literal node}
+         *
+         * @param node the node
+         */
+        public int getLiteral(int node) {
+            return children[offsets[node]];
+        }
+
+        /**
+         * {@return the circuit with the given root}
+         * Nodes that are not reachable from the root are omitted.
+         *
+         * @param variableMap the variable map
+         * @param variableCount the number of variables
+         * @param root the root
+         */
+        public DDNNF build(VariableMap variableMap, int variableCount, int root) {
+            boolean[] reachable = new boolean[root + 1];
+            reachable[root] = true;
+            for (int node = root; node >= 0; node--) {
+                if (reachable[node] && (types[node] == AND || types[node] == OR)) {
+                    for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+                        reachable[children[i]] = true;
+                    }
+                }
+            }
+            int[] newIds = new int[root + 1];
+            int newNodeCount = 0, newEdgeCount = 0;
+            for (int node = 0; node <= root; node++) {
+                if (reachable[node]) {
+                    newIds[node] = newNodeCount++;
+                    newEdgeCount += offsets[node + 1] - offsets[node];
+                }
+            }
+            byte[] newTypes = new byte[newNodeCount];
+            int[] newOffsets = new int[newNodeCount + 1];
+            int[] newChildren = new int[newEdgeCount];
+            for (int node = 0, edge = 0; node <= root; node++) {
+                if (reachable[node]) {
+                    int newId = newIds[node];
+                    newTypes[newId] = types[node];
+                    for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+                        newChildren[edge++] = types[node] == LITERAL ? children[i] : newIds[children[i]];
+                    }
+                    newOffsets[newId + 1] = edge;
+                }
+            }
+            return new DDNNF(variableMap, variableCount, newTypes, newOffsets, newChildren);
+        }
+
+        private int newNode(byte type, int... nodeChildren) {
+            return nodes.computeIfAbsent(new Node(type, nodeChildren), node -> {
+                if (nodeCount == types.length) {
+                    types = Arrays.copyOf(types, 2 * nodeCount);
+                    offsets = Arrays.copyOf(offsets, 2 * nodeCount + 1);
+                }
+                while (edgeCount + nodeChildren.length > children.length) {
+                    children = Arrays.copyOf(children, 2 * children.length);
+                }
+                types[nodeCount] = type;
+                System.arraycopy(nodeChildren, 0, children, edgeCount, nodeChildren.length);
+                edgeCount += nodeChildren.length;
+                offsets[nodeCount + 1] = edgeCount;
+                return nodeCount++;
+            });
+        }
+
+        private static class Node {
+            private final byte type;
+            private final int[] children;
+            private final int hashCode;
+
+            private Node(byte type, int[] children) {
+                this.type = type;
+                this.children = children;
+                this.hashCode = 31 * type + Arrays.hashCode(children);
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                return o instanceof Node && type == ((Node) o).type && Arrays.equals(children, ((Node) o).children);
+            }
+
+            @Override
+            public int hashCode() {
+                return hashCode;
+            }
+        }
+    }
+}
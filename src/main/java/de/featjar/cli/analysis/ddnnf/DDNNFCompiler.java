@@ -0,0 +1,358 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.ddnnf;
+
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.BooleanClause;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Compiles a clause list into a {@link DDNNF} by exhaustive DPLL search, as done by top-down knowledge compilers.
+ * Each decision on a variable becomes a disjunction of both branches, unit propagation yields literal nodes, and
+ * clauses that share no variables are compiled independently and conjoined.
+ * Compiled components are cached by their clauses, so that each distinct subproblem is compiled only once.
+ * Variables that no longer occur in any clause are added as {@code (x | -x)} to keep the result smooth.
+ * <p>
+ * Unlike dedicated compilers, there is no clause learning, so this is only suitable for formulas whose components
+ * stay small, such as most feature models.
+ */
+public class DDNNFCompiler {
+    /**
+     * Stack size of the compiler thread, as compilation recurses once per decision.
+     */
+    public static final long STACK_SIZE = 512L * 1024 * 1024;
+
+    private final DDNNF.Builder builder = new DDNNF.Builder();
+    private final Map<Component, Integer> cache = new HashMap<>();
+    private final int variableCount;
+    private final int[] freeNodes;
+    private final int[] parents;
+    private final int[] occurrences;
+    private final long deadline;
+    private int decisionCount;
+
+    /**
+     * Creates a compiler.
+     *
+     * @param variableCount the number of variables
+     * @param deadline the value of {@link System#nanoTime()} after which compilation is aborted, or
+     *                 {@link Long#MAX_VALUE}
+     */
+    public DDNNFCompiler(int variableCount, long deadline) {
+        this.variableCount = variableCount;
+        this.deadline = deadline;
+        freeNodes = new int[variableCount + 1];
+        Arrays.fill(freeNodes, -1);
+        parents = new int[variableCount + 1];
+        occurrences = new int[2 * variableCount + 2];
+    }
+
+    /**
+     * {@return the compiled clause list}
+     * Runs on its own thread with a stack of {@link #STACK_SIZE}.
+     *
+     * @param clauseList the clause list
+     * @param variableMap the variable map
+     * @throws TimeoutException if the deadline has passed
+     * @throws InterruptedException if interrupted while compiling
+     */
+    public DDNNF compile(BooleanClauseList clauseList, VariableMap variableMap)
+            throws TimeoutException, InterruptedException {
+        List<int[]> clauses = new ArrayList<>(clauseList.size());
+        for (BooleanClause clause : clauseList.getAll()) {
+            int[] literals = Arrays.stream(clause.get())
+                    .boxed()
+                    .sorted(Comparator.comparingInt(literal -> Math.abs(literal)))
+                    .mapToInt(Integer::intValue)
+                    .distinct()
+                    .toArray();
+            boolean tautology = false;
+            for (int i = 1; i < literals.length; i++) {
+                tautology |= literals[i] == -literals[i - 1];
+            }
+            if (!tautology) {
+                clauses.add(literals);
+            }
+        }
+        int[] variables = new int[variableCount];
+        Arrays.setAll(variables, i -> i + 1);
+        Object[] result = new Object[1];
+        Thread thread = new Thread(
+                null,
+                () -> {
+                    try {
+                        result[0] = compile(clauses, variables);
+                    } catch (TimeoutException | RuntimeException | StackOverflowError e) {
+                        result[0] = e;
+                    }
+                },
+                "ddnnf-compiler",
+                STACK_SIZE);
+        thread.start();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            thread.interrupt();
+            throw e;
+        }
+        if (result[0] instanceof TimeoutException) {
+            throw (TimeoutException) result[0];
+        } else if (result[0] instanceof RuntimeException) {
+            throw (RuntimeException) result[0];
+        } else if (result[0] instanceof StackOverflowError) {
+            throw (StackOverflowError) result[0];
+        }
+        return builder.build(variableMap, variableCount, (Integer) result[0]);
+    }
+
+    public int getDecisionCount() {
+        return decisionCount;
+    }
+
+    public int getCachedComponentCount() {
+        return cache.size();
+    }
+
+    /**
+     * {@return a node for the given clauses that mentions exactly the given variables}
+     */
+    private int compile(List<int[]> clauses, int[] variables) throws TimeoutException {
+        List<Integer> children = new ArrayList<>();
+        List<int[]> remaining = clauses;
+        int unit;
+        while ((unit = findUnit(remaining)) != 0) {
+            if (unit == Integer.MIN_VALUE) {
+                return builder.newFalse();
+            }
+            children.add(builder.newLiteral(unit));
+            remaining = condition(remaining, unit);
+        }
+        boolean[] mentioned = new boolean[variables.length];
+        for (int[] clause : remaining) {
+            for (int literal : clause) {
+                int index = Arrays.binarySearch(variables, Math.abs(literal));
+                mentioned[index] = true;
+            }
+        }
+        for (int child : children) {
+            int literal = builder.getLiteral(child);
+            mentioned[Arrays.binarySearch(variables, Math.abs(literal))] = true;
+        }
+        for (int i = 0; i < variables.length; i++) {
+            if (!mentioned[i]) {
+                children.add(newFree(variables[i]));
+            }
+        }
+        for (List<int[]> component : split(remaining)) {
+            children.add(compileComponent(component));
+        }
+        return builder.newAnd(children.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * {@return a node for the given clauses, which are connected, contain no unit clause, and mention exactly the
+     * variables of the node}
+     */
+    private int compileComponent(List<int[]> clauses) throws TimeoutException {
+        clauses.sort(Arrays::compare);
+        Component component = new Component(clauses);
+        Integer node = cache.get(component);
+        if (node != null) {
+            return node;
+        }
+        if (++decisionCount % 1024 == 0 && (System.nanoTime() > deadline || Thread.interrupted())) {
+            throw new TimeoutException("d-DNNF compilation exceeded its time limit");
+        }
+        int[] variables = clauses.stream()
+                .flatMapToInt(Arrays::stream)
+                .map(Math::abs)
+                .sorted()
+                .distinct()
+                .toArray();
+        int variable = selectVariable(clauses);
+        int[] remainingVariables =
+                Arrays.stream(variables).filter(other -> other != variable).toArray();
+        int positive = builder.newAnd(
+                builder.newLiteral(variable), compile(condition(clauses, variable), remainingVariables));
+        int negative = builder.newAnd(
+                builder.newLiteral(-variable), compile(condition(clauses, -variable), remainingVariables));
+        node = builder.newOr(positive, negative);
+        cache.put(component, node);
+        return node;
+    }
+
+    /**
+     * {@return the node for {@code (x | -x)}, which adds a free variable without changing the circuit otherwise}
+     */
+    private int newFree(int variable) {
+        if (freeNodes[variable] < 0) {
+            freeNodes[variable] = builder.newOr(builder.newLiteral(variable), builder.newLiteral(-variable));
+        }
+        return freeNodes[variable];
+    }
+
+    /**
+     * {@return the literal of a unit clause, {@link Integer#MIN_VALUE} if there is an empty clause, or 0 if there
+     * is neither}
+     */
+    private static int findUnit(List<int[]> clauses) {
+        int unit = 0;
+        for (int[] clause : clauses) {
+            if (clause.length == 0) {
+                return Integer.MIN_VALUE;
+            }
+            if (clause.length == 1 && unit == 0) {
+                unit = clause[0];
+            }
+        }
+        return unit;
+    }
+
+    /**
+     * {@return the given clauses with the given literal assumed to be true}
+     */
+    private static List<int[]> condition(List<int[]> clauses, int literal) {
+        List<int[]> conditioned = new ArrayList<>(clauses.size());
+        for (int[] clause : clauses) {
+            int index = indexOf(clause, literal);
+            if (index >= 0) {
+                continue;
+            }
+            index = indexOf(clause, -literal);
+            if (index < 0) {
+                conditioned.add(clause);
+            } else {
+                int[] shortened = new int[clause.length - 1];
+                System.arraycopy(clause, 0, shortened, 0, index);
+                System.arraycopy(clause, index + 1, shortened, index, shortened.length - index);
+                conditioned.add(shortened);
+            }
+        }
+        return conditioned;
+    }
+
+    private static int indexOf(int[] clause, int literal) {
+        for (int i = 0; i < clause.length; i++) {
+            if (clause[i] == literal) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * {@return the variable that occurs most often, preferring variables that occur in both polarities}
+     */
+    private int selectVariable(List<int[]> clauses) {
+        List<Integer> touched = new ArrayList<>();
+        for (int[] clause : clauses) {
+            for (int literal : clause) {
+                int index = literal > 0 ? 2 * literal : -2 * literal + 1;
+                if (occurrences[index]++ == 0) {
+                    touched.add(index);
+                }
+            }
+        }
+        int bestVariable = 0;
+        long bestScore = -1;
+        for (int index : touched) {
+            int variable = index / 2;
+            long positive = occurrences[2 * variable], negative = occurrences[2 * variable + 1];
+            long score = (positive + 1) * (negative + 1);
+            if (score > bestScore) {
+                bestScore = score;
+                bestVariable = variable;
+            }
+        }
+        for (int index : touched) {
+            occurrences[index] = 0;
+        }
+        return bestVariable;
+    }
+
+    /**
+     * {@return the given clauses grouped into components that share no variables}
+     */
+    private List<List<int[]>> split(List<int[]> clauses) {
+        if (clauses.isEmpty()) {
+            return List.of();
+        }
+        for (int[] clause : clauses) {
+            for (int literal : clause) {
+                parents[Math.abs(literal)] = Math.abs(literal);
+            }
+        }
+        for (int[] clause : clauses) {
+            int root = find(Math.abs(clause[0]));
+            for (int literal : clause) {
+                int other = find(Math.abs(literal));
+                if (other != root) {
+                    parents[other] = root;
+                }
+            }
+        }
+        Map<Integer, List<int[]>> components = new HashMap<>();
+        for (int[] clause : clauses) {
+            components
+                    .computeIfAbsent(find(Math.abs(clause[0])), root -> new ArrayList<>())
+                    .add(clause);
+        }
+        return new ArrayList<>(components.values());
+    }
+
+    private int find(int variable) {
+        while (parents[variable] != variable) {
+            parents[variable] = parents[parents[variable]];
+            variable = parents[variable];
+        }
+        return variable;
+    }
+
+    /**
+     * Cache key for a component, i.e., its sorted clauses.
+     */
+    private static class Component {
+        private final int[][] clauses;
+        private final int hashCode;
+
+        private Component(List<int[]> clauses) {
+            this.clauses = clauses.toArray(new int[0][]);
+            this.hashCode = Arrays.deepHashCode(this.clauses);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Component && Arrays.deepEquals(clauses, ((Component) o).clauses);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.ddnnf;
+
+import static de.featjar.cli.cache.BooleanRepresentationSerializer.readVarInt;
+import static de.featjar.cli.cache.BooleanRepresentationSerializer.writeVarInt;
+
+import de.featjar.formula.analysis.VariableMap;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact binary serialization of a {@link DDNNF} together with its {@link VariableMap}.
+ * The header holds a key that identifies the formula and options the d-DNNF was compiled from, and reading fails
+ * unless the expected key is given, so that a d-DNNF is never used for another formula.
+ * Children are stored as variable-length distances to their parent, which are small for most edges, and literals
+ * additionally in zigzag encoding.
+ */
+public class DDNNFSerializer {
+    private static final int MAGIC = 0x464a4444; // FJDD
+    private static final int VERSION = 2;
+
+    private DDNNFSerializer() {}
+
+    public static void write(DDNNF ddnnf, String key, DataOutputStream out) throws IOException {
+        VariableMap variableMap = ddnnf.getVariableMap();
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(key);
+        int variableCount = variableMap.getVariableCount();
+        writeVarInt(out, variableCount);
+        for (int i = 1; i <= variableCount; i++) {
+            out.writeUTF(variableMap.get(i).get());
+        }
+        writeVarInt(out, ddnnf.getVariableCount());
+        writeVarInt(out, ddnnf.getNodeCount());
+        int[] offsets = ddnnf.getOffsets();
+        int[] children = ddnnf.getChildren();
+        for (int node = 0; node < ddnnf.getNodeCount(); node++) {
+            byte type = ddnnf.getType(node);
+            out.writeByte(type);
+            if (type == DDNNF.LITERAL) {
+                int literal = children[offsets[node]];
+                writeVarInt(out, (literal << 1) ^ (literal >> 31));
+            } else if (type == DDNNF.AND || type == DDNNF.OR) {
+                writeVarInt(out, offsets[node + 1] - offsets[node]);
+                for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+                    writeVarInt(out, node - children[i]);
+                }
+            }
+        }
+    }
+
+    public static DDNNF read(DataInputStream in, String key) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("unknown d-DNNF format");
+        }
+        if (!in.readUTF().equals(key)) {
+            throw new IOException("d-DNNF was compiled from another formula, other clauses, or other options");
+        }
+        int variableCount = readVarInt(in);
+        List<String> variableNames = new ArrayList<>(variableCount);
+        for (int i = 0; i < variableCount; i++) {
+            variableNames.add(in.readUTF());
+        }
+        int ddnnfVariableCount = readVarInt(in);
+        int nodeCount = readVarInt(in);
+        if (nodeCount == 0) {
+            throw new IOException("d-DNNF has no root");
+        }
+        byte[] types = new byte[nodeCount];
+        int[] offsets = new int[nodeCount + 1];
+        int[] children = new int[Math.max(16, nodeCount)];
+        int edgeCount = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            types[node] = in.readByte();
+            int childCount;
+            switch (types[node]) {
+                case DDNNF.TRUE:
+                case DDNNF.FALSE:
+                    childCount = 0;
+                    break;
+                case DDNNF.LITERAL:
+                    childCount = 1;
+                    break;
+                case DDNNF.AND:
+                case DDNNF.OR:
+                    childCount = readVarInt(in);
+                    break;
+                default:
+                    throw new IOException("unknown node type " + types[node]);
+            }
+            while (edgeCount + childCount > children.length) {
+                children = Arrays.copyOf(children, 2 * children.length);
+            }
+            if (types[node] == DDNNF.LITERAL) {
+                int value = readVarInt(in);
+                int literal = (value >>> 1) ^ -(value & 1);
+                if (literal == 0 || Math.abs(literal) > ddnnfVariableCount) {
+                    throw new IOException("invalid literal " + literal);
+                }
+                children[edgeCount++] = literal;
+            } else {
+                for (int i = 0; i < childCount; i++) {
+                    int distance = readVarInt(in);
+                    if (distance <= 0 || distance > node) {
+                        throw new IOException("invalid child of node " + node);
+                    }
+                    children[edgeCount++] = node - distance;
+                }
+            }
+            offsets[node + 1] = edgeCount;
+        }
+        return new DDNNF(
+                new VariableMap(variableNames), ddnnfVariableCount, types, offsets, Arrays.copyOf(children, edgeCount));
+    }
+
+    /**
+     * {@return the d-DNNF stored in the given file}
+     *
+     * @param file the file
+     * @param key the key the d-DNNF must have been stored with
+     * @throws IOException if the file cannot be read, has an unknown format, or has been stored with another key
+     */
+    public static DDNNF read(Path file, String key) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            return read(in, key);
+        }
+    }
+
+    /**
+     * Stores the given d-DNNF in the given file.
+     *
+     * @param ddnnf the d-DNNF
+     * @param key the key that identifies the formula and options the d-DNNF was compiled from
+     * @param file the file
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(DDNNF ddnnf, String key, Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            write(ddnnf, key, out);
+        }
+    }
+}
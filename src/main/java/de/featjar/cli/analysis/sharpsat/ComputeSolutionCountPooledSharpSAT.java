@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.sharpsat;
+
+import de.featjar.base.computation.AComputation;
+import de.featjar.base.computation.Dependency;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Pair;
+import de.featjar.base.data.Result;
+import de.featjar.base.tree.structure.ITree;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Counts the solutions of a boolean representation with a process of a {@link SharpSATPool}.
+ * Variables of the variable map that occur in no clause are counted as unconstrained.
+ */
+public class ComputeSolutionCountPooledSharpSAT extends AComputation<BigInteger> {
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    protected static final Dependency<Pair<BooleanClauseList, VariableMap>> BOOLEAN_REPRESENTATION =
+            (Dependency) Dependency.newDependency(Pair.class);
+
+    protected static final Dependency<Duration> TIMEOUT = Dependency.newDependency(Duration.class);
+
+    protected final SharpSATPool pool;
+
+    public ComputeSolutionCountPooledSharpSAT(
+            IComputation<Pair<BooleanClauseList, VariableMap>> booleanRepresentation,
+            IComputation<Duration> timeout,
+            SharpSATPool pool) {
+        super(booleanRepresentation, timeout);
+        this.pool = pool;
+    }
+
+    protected ComputeSolutionCountPooledSharpSAT(ComputeSolutionCountPooledSharpSAT other) {
+        super(other);
+        this.pool = other.pool;
+    }
+
+    @Override
+    public Result<BigInteger> compute(List<Object> dependencyList, Progress progress) {
+        Pair<BooleanClauseList, VariableMap> booleanRepresentation = BOOLEAN_REPRESENTATION.get(dependencyList);
+        BooleanClauseList clauseList = booleanRepresentation.getKey();
+        int variableCount =
+                Math.max(clauseList.getVariableCount(), booleanRepresentation.getValue().getVariableCount());
+        return pool.count(new BooleanClauseList(clauseList.getAll(), variableCount), TIMEOUT.get(dependencyList));
+    }
+
+    @Override
+    public ITree<IComputation<?>> cloneNode() {
+        return new ComputeSolutionCountPooledSharpSAT(this);
+    }
+}
@@ -0,0 +1,440 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.sharpsat;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.data.Result;
+import de.featjar.formula.analysis.bool.BooleanClause;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Pool of sharpSAT processes that count the solutions of clause lists passed over a pipe.
+ * sharpSAT counts a single formula per process and then exits, so a process cannot serve several queries.
+ * Instead, processes are started ahead of time and wait for their formula on standard input.
+ * A query takes such a warm process and the pool starts its replacement while sharpSAT is counting, so that the
+ * next query does not wait for a process to start.
+ * At most {@link #getSize()} queries are counted at the same time and at most {@link #getQueueCapacity()} further
+ * queries wait for a free process; callers that submit even more queries block until a query has finished.
+ * If the platform has no {@code /dev/stdin}, formulas are passed as temporary files, on tmpfs if available.
+ * A pool that keeps no processes ready instead starts a new process for each query, which is still killed when the
+ * query is interrupted.
+ */
+public class SharpSATPool implements AutoCloseable {
+    /**
+     * Binary that is preferred over a sharpSAT binary on the {@code PATH}, if it exists.
+     */
+    public static final Path FEATJAR_BINARY = Paths.get(System.getProperty("user.home"), ".featjar", "bin", "sharpSAT");
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 64;
+
+    private static final Path STDIN = Paths.get("/dev/stdin");
+    private static final Path TMPFS = Paths.get("/dev/shm");
+    private static final String SOLUTIONS = "# solutions";
+    private static final List<String> BINARY_NAMES = List.of("sharpSAT", "sharpsat", "sharpSAT.exe");
+
+    private static final Map<List<Object>, SharpSATPool> sharedPools = new HashMap<>();
+    private static boolean shutdownHookAdded;
+
+    private final String binary;
+    private final int size;
+    private final int queueCapacity;
+    private final boolean warm;
+    private final boolean usePipe;
+    private final ExecutorService executor;
+    private final ExecutorService outputReaders;
+    private final Semaphore permits;
+    private final BlockingQueue<Process> warmProcesses = new LinkedBlockingQueue<>();
+    private final Set<Process> processes = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    /**
+     * Creates a pool.
+     *
+     * @param binary the sharpSAT binary
+     * @param size the maximum number of queries counted at the same time
+     * @param queueCapacity the maximum number of queries waiting for a free process
+     */
+    public SharpSATPool(String binary, int size, int queueCapacity) {
+        this(binary, size, queueCapacity, true);
+    }
+
+    /**
+     * Creates a pool.
+     *
+     * @param binary the sharpSAT binary
+     * @param size the maximum number of queries counted at the same time
+     * @param queueCapacity the maximum number of queries waiting for a free process
+     * @param warm whether to keep processes ready, otherwise each query starts a new process
+     */
+    public SharpSATPool(String binary, int size, int queueCapacity, boolean warm) {
+        if (size <= 0 || queueCapacity < 0) {
+            throw new IllegalArgumentException("invalid pool size " + size + " or queue capacity " + queueCapacity);
+        }
+        this.binary = binary;
+        this.size = size;
+        this.queueCapacity = queueCapacity;
+        this.warm = warm;
+        usePipe = Files.exists(STDIN);
+        executor = Executors.newFixedThreadPool(size, runnable -> {
+            Thread thread = new Thread(runnable, "sharpSAT pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+        outputReaders = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "sharpSAT output");
+            thread.setDaemon(true);
+            return thread;
+        });
+        permits = new Semaphore(size + queueCapacity);
+    }
+
+    /**
+     * {@return the pool shared by all computations in this process with the given configuration}
+     * Pools with different configurations are kept side by side, so that a query never kills the processes of
+     * concurrent queries with another configuration. All shared pools are closed when the process exits.
+     *
+     * @param binary the sharpSAT binary
+     * @param size the maximum number of queries counted at the same time
+     * @param queueCapacity the maximum number of queries waiting for a free process
+     */
+    public static synchronized SharpSATPool getShared(String binary, int size, int queueCapacity) {
+        if (!shutdownHookAdded) {
+            Runtime.getRuntime().addShutdownHook(new Thread(SharpSATPool::closeShared));
+            shutdownHookAdded = true;
+        }
+        return sharedPools.computeIfAbsent(
+                List.of(binary, size, queueCapacity), key -> new SharpSATPool(binary, size, queueCapacity));
+    }
+
+    private static synchronized void closeShared() {
+        sharedPools.values().forEach(SharpSATPool::close);
+        sharedPools.clear();
+    }
+
+    /**
+     * {@return the sharpSAT binary in {@link #FEATJAR_BINARY} if it exists, otherwise the first one on the PATH}
+     * Returns an empty result if there is no sharpSAT binary.
+     */
+    public static Result<String> findBinary() {
+        if (Files.isExecutable(FEATJAR_BINARY)) {
+            return Result.of(FEATJAR_BINARY.toString());
+        }
+        String path = System.getenv("PATH");
+        if (path != null) {
+            for (String directory : path.split(File.pathSeparator)) {
+                for (String name : BINARY_NAMES) {
+                    Path binary = Paths.get(directory, name);
+                    if (Files.isExecutable(binary)) {
+                        return Result.of(binary.toString());
+                    }
+                }
+            }
+        }
+        return Result.empty();
+    }
+
+    public String getBinary() {
+        return binary;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * {@return the number of solutions of the given clause list}
+     * Variables of the clause list that occur in no clause are counted as unconstrained.
+     * If the calling thread is interrupted, the sharpSAT process of this query is killed.
+     *
+     * @param clauseList the clause list
+     * @param timeout the timeout, zero for none
+     */
+    public Result<BigInteger> count(BooleanClauseList clauseList, Duration timeout) {
+        Query query = new Query(clauseList, timeout);
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.empty(e);
+        }
+        Future<Result<BigInteger>> future;
+        try {
+            if (closed) {
+                throw new RejectedExecutionException("sharpSAT pool is closed");
+            }
+            future = executor.submit(() -> {
+                try {
+                    return query.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            return Result.empty(e);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            query.cancel();
+            return Result.empty(e);
+        } catch (CancellationException e) {
+            return Result.empty(e);
+        } catch (ExecutionException e) {
+            return Result.empty(e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+        }
+    }
+
+    /**
+     * Kills all processes of this pool, including those of running queries.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Runnable task : executor.shutdownNow()) {
+            if (task instanceof Future) {
+                ((Future<?>) task).cancel(false);
+            }
+        }
+        warmProcesses.clear();
+        processes.forEach(Process::destroyForcibly);
+        processes.clear();
+        outputReaders.shutdown();
+    }
+
+    private Process takeWarmProcess() throws IOException {
+        if (!warm) {
+            return startProcess(STDIN.toString());
+        }
+        Process process;
+        while ((process = warmProcesses.poll()) != null) {
+            if (process.isAlive()) {
+                return process;
+            }
+            processes.remove(process);
+        }
+        return startProcess(STDIN.toString());
+    }
+
+    private void addWarmProcess() {
+        if (!warm || closed || warmProcesses.size() >= size) {
+            return;
+        }
+        try {
+            warmProcesses.add(startProcess(STDIN.toString()));
+        } catch (IOException e) {
+            FeatJAR.log().warning("could not start sharpSAT: " + e.getMessage());
+        }
+    }
+
+    private Process startProcess(String input) throws IOException {
+        Process process = new ProcessBuilder(binary, input).redirectErrorStream(true).start();
+        processes.add(process);
+        if (closed) {
+            process.destroyForcibly();
+            processes.remove(process);
+            throw new IOException("sharpSAT pool is closed");
+        }
+        return process;
+    }
+
+    private class Query {
+        private final BooleanClauseList clauseList;
+        private final Duration timeout;
+        private Process process;
+        private boolean cancelled;
+
+        private Query(BooleanClauseList clauseList, Duration timeout) {
+            this.clauseList = clauseList;
+            this.timeout = timeout;
+        }
+
+        private synchronized void setProcess(Process process) {
+            this.process = process;
+            if (cancelled) {
+                process.destroyForcibly();
+            }
+        }
+
+        private synchronized void cancel() {
+            cancelled = true;
+            if (process != null) {
+                process.destroyForcibly();
+            }
+        }
+
+        private synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        private Result<BigInteger> run() throws IOException, InterruptedException {
+            if (isCancelled()) {
+                return Result.empty();
+            }
+            int variableCount = clauseList.getVariableCount();
+            int[] variables = new int[variableCount + 1];
+            int occurringVariableCount = 0;
+            for (BooleanClause clause : clauseList.getAll()) {
+                if (clause.get().length == 0) {
+                    return Result.of(BigInteger.ZERO);
+                }
+                for (int literal : clause.get()) {
+                    if (variables[Math.abs(literal)] == 0) {
+                        variables[Math.abs(literal)] = ++occurringVariableCount;
+                    }
+                }
+            }
+            if (occurringVariableCount == 0) {
+                return Result.of(BigInteger.ONE.shiftLeft(variableCount));
+            }
+            int freeVariableCount = variableCount - occurringVariableCount;
+            Path file = null;
+            Process process;
+            Future<byte[]> output;
+            try {
+                if (usePipe) {
+                    process = takeWarmProcess();
+                    setProcess(process);
+                    output = readOutput(process);
+                    try (OutputStream out = process.getOutputStream()) {
+                        writeDIMACS(out, variables, occurringVariableCount);
+                    }
+                    addWarmProcess();
+                } else {
+                    file = Files.createTempFile(Files.isDirectory(TMPFS) ? TMPFS : null, "featjar", ".dimacs");
+                    try (OutputStream out = Files.newOutputStream(file)) {
+                        writeDIMACS(out, variables, occurringVariableCount);
+                    }
+                    process = startProcess(file.toString());
+                    setProcess(process);
+                    output = readOutput(process);
+                    process.getOutputStream().close();
+                }
+                return waitFor(process, output).map(count -> count.shiftLeft(freeVariableCount));
+            } finally {
+                if (file != null) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+
+        private void writeDIMACS(OutputStream out, int[] variables, int occurringVariableCount) throws IOException {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII), 1 << 16);
+            writer.write("p cnf " + occurringVariableCount + " " + clauseList.size() + "\n");
+            StringBuilder line = new StringBuilder();
+            for (BooleanClause clause : clauseList.getAll()) {
+                line.setLength(0);
+                for (int literal : clause.get()) {
+                    line.append(literal > 0 ? variables[literal] : -variables[-literal]).append(' ');
+                }
+                line.append("0\n");
+                writer.append(line);
+            }
+            writer.flush();
+        }
+
+        /**
+         * Reads the output of the given process while it is running, so that sharpSAT never blocks on a full pipe.
+         */
+        private Future<byte[]> readOutput(Process process) throws IOException {
+            try {
+                return outputReaders.submit(() -> process.getInputStream().readAllBytes());
+            } catch (RejectedExecutionException e) {
+                process.destroyForcibly();
+                throw new IOException("sharpSAT pool is closed", e);
+            }
+        }
+
+        private Result<BigInteger> waitFor(Process process, Future<byte[]> output)
+                throws IOException, InterruptedException {
+            try {
+                if (timeout == null || timeout.isZero() || timeout.isNegative()) {
+                    process.waitFor();
+                } else if (!process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    process.destroyForcibly();
+                    FeatJAR.log().info("sharpSAT timed out after " + timeout);
+                    return Result.empty();
+                }
+                if (isCancelled()) {
+                    return Result.empty();
+                }
+                return parseCount(output.get());
+            } catch (ExecutionException e) {
+                throw new IOException("could not read output of sharpSAT", e.getCause());
+            } finally {
+                processes.remove(process);
+            }
+        }
+    }
+
+    /**
+     * {@return the number of solutions in the given output of sharpSAT}
+     * sharpSAT prints the number in the line following {@link #SOLUTIONS}.
+     */
+    private static Result<BigInteger> parseCount(byte[] output) {
+        List<String> lines = new String(output, StandardCharsets.UTF_8)
+                .lines()
+                .collect(Collectors.toList());
+        for (int i = 0; i < lines.size() - 1; i++) {
+            if (lines.get(i).trim().equals(SOLUTIONS)) {
+                try {
+                    return Result.of(new BigInteger(lines.get(i + 1).trim()));
+                } catch (NumberFormatException e) {
+                    break;
+                }
+            }
+        }
+        return Result.empty(new IOException("unexpected output of sharpSAT: " + String.join("\n", lines)));
+    }
+}
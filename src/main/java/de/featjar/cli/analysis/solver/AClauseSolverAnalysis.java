@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.solver;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.computation.AComputation;
+import de.featjar.base.computation.Dependency;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.data.Result;
+import de.featjar.formula.analysis.bool.BooleanAssignment;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+/**
+ * Analysis of a {@link BooleanClauseList} that is implemented on top of {@link ClauseSolver}.
+ * Takes the same inputs as the analyses in {@code de.featjar.formula.analysis.sat4j}, but allows to create several
+ * solvers for the same clause list, e.g., to distribute work over multiple threads.
+ *
+ * @param <T> the type of the analysis result
+ */
+public abstract class AClauseSolverAnalysis<T> extends AComputation<T> {
+    protected static final Dependency<BooleanClauseList> BOOLEAN_CLAUSE_LIST =
+            Dependency.newDependency(BooleanClauseList.class);
+    protected static final Dependency<BooleanAssignment> ASSUMED_ASSIGNMENT =
+            Dependency.newDependency(BooleanAssignment.class);
+    protected static final Dependency<BooleanClauseList> ASSUMED_CLAUSE_LIST =
+            Dependency.newDependency(BooleanClauseList.class);
+    protected static final Dependency<Duration> TIMEOUT = Dependency.newDependency(Duration.class);
+
+    /**
+     * Creates an analysis.
+     *
+     * @param <T> the type of the analysis result
+     */
+    @FunctionalInterface
+    public interface Factory<T> {
+        AClauseSolverAnalysis<T> create(
+                IComputation<BooleanClauseList> booleanClauseList,
+                IComputation<BooleanAssignment> assumedAssignment,
+                IComputation<BooleanClauseList> assumedClauseList,
+                IComputation<Duration> timeout);
+    }
+
+    protected AClauseSolverAnalysis(
+            IComputation<BooleanClauseList> booleanClauseList,
+            IComputation<BooleanAssignment> assumedAssignment,
+            IComputation<BooleanClauseList> assumedClauseList,
+            IComputation<Duration> timeout) {
+        super(booleanClauseList, assumedAssignment, assumedClauseList, timeout);
+    }
+
+    protected AClauseSolverAnalysis(AClauseSolverAnalysis<T> other) {
+        super(other);
+    }
+
+    /**
+     * {@return a new solver for the clause list and the assumed clause list}
+     *
+     * @param dependencyList the dependency list
+     */
+    protected ClauseSolver newSolver(List<Object> dependencyList) {
+        ClauseSolver solver = new ClauseSolver(BOOLEAN_CLAUSE_LIST.get(dependencyList), TIMEOUT.get(dependencyList));
+        solver.addClauses(ASSUMED_CLAUSE_LIST.get(dependencyList));
+        return solver;
+    }
+
+    /**
+     * {@return a new solver that has found a solution under the assumed assignment}
+     * Returns an empty result if there is no such solution or the solver timed out.
+     *
+     * @param dependencyList the dependency list
+     */
+    protected Result<ClauseSolver> newSatisfiedSolver(List<Object> dependencyList) {
+        ClauseSolver solver = newSolver(dependencyList);
+        Result<Boolean> hasSolution = solver.hasSolution(getAssumptions(dependencyList));
+        if (hasSolution.isEmpty()) {
+            return Result.empty();
+        }
+        if (!hasSolution.get()) {
+            FeatJAR.log().warning("formula is unsatisfiable under the given assumptions");
+            return Result.empty();
+        }
+        return Result.of(solver);
+    }
+
+    /**
+     * {@return the literals of the assumed assignment}
+     *
+     * @param dependencyList the dependency list
+     */
+    protected int[] getAssumptions(List<Object> dependencyList) {
+        return ASSUMED_ASSIGNMENT.get(dependencyList).get();
+    }
+
+    /**
+     * {@return the number of worker threads to use for the given requested number}
+     *
+     * @param threadCount the requested number of threads, 0 for one per available processor
+     */
+    protected static int getThreadCount(int threadCount) {
+        return threadCount > 0 ? threadCount : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Runs the given number of workers on their own threads and waits for all of them to finish.
+     *
+     * @param threadCount the number of workers
+     * @param worker creates the worker with the given index
+     * @param <R> the type of the workers' results
+     * @return the results of the workers, ordered by index
+     * @throws ExecutionException if a worker throws an exception
+     * @throws InterruptedException if interrupted while waiting
+     */
+    protected static <R> List<R> runInParallel(int threadCount, IntFunction<Callable<R>> worker)
+            throws ExecutionException, InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<R>> futures = new ArrayList<>(threadCount);
+            for (int i = 0; i < threadCount; i++) {
+                futures.add(executor.submit(worker.apply(i)));
+            }
+            List<R> results = new ArrayList<>(threadCount);
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.solver;
+
+import de.featjar.base.data.Result;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Searches for the atomic sets of the variables that are neither core nor dead with several solvers in parallel.
+ * All signs are relative to a reference solution, so that a variable and the negation of another variable can form
+ * an atomic set as well.
+ * Every solution found by any worker is folded into a signature per variable, recording whether the variable has
+ * the same value as in the reference solution, so that variables which are not equivalent relative to the reference
+ * solution in some solution end up with different signatures.
+ * Only variables with equal signatures are candidates for the same atomic set and tested pairwise by the workers.
+ * As each solution is folded into all {@link Signatures} at once, different signatures always prove that two variables
+ * are not equivalent, no matter which solutions other workers are folding in meanwhile.
+ */
+class AtomicSetSearch {
+    private AtomicSetSearch() {}
+
+    /**
+     * {@return a listener that folds each solution into the given signatures}
+     * Solutions from other analyses on the same clause list can be passed to the listener to avoid queries.
+     *
+     * @param reference the reference solution
+     * @param signatures the signatures, one per variable
+     */
+    static Consumer<int[]> newSignatureRefiner(int[] reference, Signatures signatures) {
+        return solution -> signatures.refine(reference, solution, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * {@return the literals of each atomic set, ordered by their smallest variable, or an empty result if a solver
+     * timed out}
+     * Each literal is signed as in the reference solution, like the atomic sets computed by
+     * {@link de.featjar.formula.analysis.sat4j.ComputeAtomicSetsSAT4J}.
+     *
+     * @param assumptions the assumed literals
+     * @param reference the reference solution the signatures are relative to
+     * @param coreDeadLiterals the core and dead literals, which are not part of any atomic set
+     * @param signatures the signatures refined by all solutions found so far
+     * @param solvers supplies a solver for each worker
+     * @param workerCount the number of workers
+     * @throws ExecutionException if a worker throws an exception
+     * @throws InterruptedException if interrupted while waiting
+     */
+    static Result<List<int[]>> search(
+            int[] assumptions,
+            int[] reference,
+            int[] coreDeadLiterals,
+            Signatures signatures,
+            Supplier<ClauseSolver> solvers,
+            int workerCount)
+            throws ExecutionException, InterruptedException {
+        int variableCount = signatures.getVariableCount();
+        Consumer<int[]> refineSignatures = newSignatureRefiner(reference, signatures);
+        boolean[] coreDead = new boolean[variableCount];
+        for (int literal : coreDeadLiterals) {
+            coreDead[Math.abs(literal) - 1] = true;
+        }
+        List<Integer> variables = new ArrayList<>();
+        for (int i = 0; i < variableCount; i++) {
+            if (!coreDead[i]) {
+                variables.add(i);
+            }
+        }
+
+        Queue<int[]> atomicSets = new ConcurrentLinkedQueue<>();
+        BlockingQueue<List<Integer>> candidateGroups = new LinkedBlockingQueue<>();
+        AtomicInteger pendingGroups = new AtomicInteger();
+        AtomicBoolean timeout = new AtomicBoolean();
+        split(variables, reference, signatures, atomicSets, candidateGroups, pendingGroups);
+        AClauseSolverAnalysis.runInParallel(workerCount, index -> () -> {
+            ClauseSolver solver = solvers.get();
+            int[] query = new int[assumptions.length + 2];
+            System.arraycopy(assumptions, 0, query, 0, assumptions.length);
+            while (!timeout.get() && pendingGroups.get() > 0) {
+                List<Integer> group = candidateGroups.poll(10, TimeUnit.MILLISECONDS);
+                if (group == null) {
+                    continue;
+                }
+                try {
+                    int representative = group.get(0);
+                    List<Integer> atomicSet = new ArrayList<>();
+                    List<Integer> remaining = new ArrayList<>();
+                    atomicSet.add(representative);
+                    for (int variable : group.subList(1, group.size())) {
+                        if (!signatures.isEqual(variable, representative)) {
+                            remaining.add(variable);
+                            continue;
+                        }
+                        Result<Boolean> equivalent = isEquivalent(
+                                solver, query, reference[representative], reference[variable], refineSignatures);
+                        if (equivalent.isEmpty()) {
+                            timeout.set(true);
+                            break;
+                        }
+                        (equivalent.get() ? atomicSet : remaining).add(variable);
+                    }
+                    atomicSets.add(atomicSet.stream().mapToInt(i -> reference[i]).toArray());
+                    split(remaining, reference, signatures, atomicSets, candidateGroups, pendingGroups);
+                } finally {
+                    pendingGroups.decrementAndGet();
+                }
+            }
+            return null;
+        });
+        if (timeout.get()) {
+            return Result.empty();
+        }
+
+        List<int[]> sortedAtomicSets = new ArrayList<>();
+        for (int[] atomicSet : atomicSets) {
+            sortedAtomicSets.add(Arrays.stream(atomicSet)
+                    .boxed()
+                    .sorted(Comparator.comparingInt(Math::abs))
+                    .mapToInt(Integer::intValue)
+                    .toArray());
+        }
+        sortedAtomicSets.sort(Comparator.comparingInt(atomicSet -> Math.abs(atomicSet[0])));
+        return Result.of(sortedAtomicSets);
+    }
+
+    /**
+     * {@return whether the given literals have the same value in all solutions}
+     * Returns an empty result if the solver timed out.
+     */
+    private static Result<Boolean> isEquivalent(
+            ClauseSolver solver, int[] query, int literal1, int literal2, Consumer<int[]> solutionListener) {
+        int length = query.length;
+        for (int sign : new int[] {1, -1}) {
+            query[length - 2] = sign * literal1;
+            query[length - 1] = -sign * literal2;
+            Result<Boolean> hasSolution = solver.hasSolution(query);
+            if (hasSolution.isEmpty() || hasSolution.get()) {
+                if (hasSolution.isPresent()) {
+                    solutionListener.accept(solver.getSolution());
+                }
+                return hasSolution.map(solution -> Boolean.FALSE);
+            }
+        }
+        return Result.of(Boolean.TRUE);
+    }
+
+    /**
+     * Groups the given variables by their current signature.
+     * Single variables are atomic sets, larger groups are queued for testing.
+     */
+    private static void split(
+            List<Integer> variables,
+            int[] reference,
+            Signatures signatures,
+            Queue<int[]> atomicSets,
+            Queue<List<Integer>> candidateGroups,
+            AtomicInteger pendingGroups) {
+        long[] variableSignatures = signatures.get(variables);
+        Map<Long, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < variables.size(); i++) {
+            groups.computeIfAbsent(variableSignatures[i], signature -> new ArrayList<>())
+                    .add(variables.get(i));
+        }
+        for (List<Integer> group : groups.values()) {
+            if (group.size() == 1) {
+                atomicSets.add(new int[] {reference[group.get(0)]});
+            } else {
+                pendingGroups.incrementAndGet();
+                candidateGroups.add(Collections.unmodifiableList(group));
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.solver;
+
+import de.featjar.base.data.Result;
+import de.featjar.formula.analysis.bool.BooleanClause;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import java.time.Duration;
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.TimeoutException;
+
+/**
+ * Incremental SAT4J solver for a {@link BooleanClauseList}.
+ * Unlike the solvers used by the analyses in {@code de.featjar.formula.analysis.sat4j}, this solver is meant to be
+ * kept alive and queried many times under different assumptions, e.g., by several worker threads that each own
+ * one instance for the same clause list.
+ * Instances are not thread-safe.
+ */
+public class ClauseSolver {
+    private final ISolver solver;
+    private int variableCount;
+    private boolean contradiction;
+    private long deadline = Long.MAX_VALUE;
+
+    public ClauseSolver(BooleanClauseList clauseList) {
+        this(clauseList, Duration.ZERO);
+    }
+
+    public ClauseSolver(BooleanClauseList clauseList, Duration timeout) {
+        variableCount = clauseList.getVariableCount();
+        solver = SolverFactory.newDefault();
+        solver.newVar(variableCount);
+        solver.setExpectedNumberOfClauses(clauseList.size());
+        solver.setDBSimplificationAllowed(true);
+        setTimeout(timeout);
+        addClauses(clauseList);
+    }
+
+    public int getVariableCount() {
+        return variableCount;
+    }
+
+    /**
+     * Adds new variables to this solver, e.g., auxiliary variables for encoding additional constraints.
+     *
+     * @param count the number of new variables
+     * @return the index of the first new variable
+     */
+    public int newVariables(int count) {
+        int firstVariable = variableCount + 1;
+        variableCount += count;
+        solver.newVar(variableCount);
+        return firstVariable;
+    }
+
+    /**
+     * Sets the timeout for all subsequent queries together, starting now.
+     * Each query may only use the time that is left until then, so that, like {@link EnumerationProgress}, the
+     * timeout bounds the entire computation instead of each query.
+     * A zero or negative duration disables the timeout.
+     *
+     * @param timeout the timeout
+     */
+    public void setTimeout(Duration timeout) {
+        deadline = timeout == null || timeout.isZero() || timeout.isNegative()
+                ? Long.MAX_VALUE
+                : System.nanoTime() + timeout.toNanos();
+        solver.setTimeout(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Permanently adds the given clauses to this solver.
+     *
+     * @param clauseList the clauses
+     * @return whether the clauses are consistent with this solver's previous clauses
+     */
+    public boolean addClauses(BooleanClauseList clauseList) {
+        for (BooleanClause clause : clauseList.getAll()) {
+            addClause(clause.get());
+        }
+        return !contradiction;
+    }
+
+    /**
+     * Permanently adds the given clause to this solver.
+     *
+     * @param literals the literals of the clause
+     * @return whether the clause is consistent with this solver's previous clauses
+     */
+    public boolean addClause(int... literals) {
+        if (!contradiction) {
+            try {
+                solver.addClause(new VecInt(literals));
+            } catch (ContradictionException e) {
+                contradiction = true;
+            }
+        }
+        return !contradiction;
+    }
+
+    /**
+     * Permanently adds each of the given literals as a unit clause to this solver.
+     *
+     * @param literals the literals
+     * @return whether the literals are consistent with this solver's previous clauses
+     */
+    public boolean addUnitClauses(int... literals) {
+        for (int literal : literals) {
+            addClause(literal);
+        }
+        return !contradiction;
+    }
+
+    /**
+     * {@return whether there is a solution under the given assumptions}
+     * Returns an empty result if the timeout is reached.
+     * If there is a solution, it can be queried with {@link #getSolution()}.
+     *
+     * @param assumptions the assumed literals
+     */
+    public Result<Boolean> hasSolution(int... assumptions) {
+        if (contradiction) {
+            return Result.of(Boolean.FALSE);
+        }
+        if (deadline != Long.MAX_VALUE) {
+            long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+            if (remainingMillis <= 0) {
+                return Result.empty();
+            }
+            solver.setTimeoutMs(remainingMillis);
+        }
+        try {
+            return Result.of(solver.isSatisfiable(new VecInt(assumptions), false));
+        } catch (TimeoutException e) {
+            return Result.empty();
+        }
+    }
+
+    /**
+     * {@return the solution found by the last successful call to {@link #hasSolution(int...)}}
+     * The solution contains one literal for each variable, ordered by variable index.
+     */
+    public int[] getSolution() {
+        int[] model = solver.model();
+        if (model.length == variableCount) {
+            return model;
+        }
+        int[] solution = new int[variableCount];
+        for (int i = 0; i < variableCount; i++) {
+            solution[i] = -(i + 1);
+        }
+        for (int literal : model) {
+            solution[Math.abs(literal) - 1] = literal;
+        }
+        return solution;
+    }
+
+    /**
+     * Interrupts a running query from another thread.
+     */
+    public void interrupt() {
+        solver.expireTimeout();
+    }
+}
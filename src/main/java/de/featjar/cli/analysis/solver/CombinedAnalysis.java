@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.solver;
+
+/**
+ * Analysis that can be run by {@link ComputeCombinedAnalyses}.
+ * Analyses are run in the order of declaration, so that later analyses can reuse the solutions of earlier ones.
+ */
+public enum CombinedAnalysis {
+    /**
+     * Computes one solution.
+     */
+    SOLUTION,
+    /**
+     * Computes all core and dead variables.
+     */
+    CORE_DEAD,
+    /**
+     * Computes all atomic sets of the variables that are neither core nor dead.
+     */
+    ATOMIC_SETS,
+    /**
+     * Computes the number of solutions by enumeration.
+     */
+    COUNT;
+
+    public static CombinedAnalysis parse(String name) {
+        return valueOf(name.toUpperCase().replace('-', '_'));
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase().replace('_', '-');
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.solver;
+
+import de.featjar.base.data.Result;
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * Results of {@link ComputeCombinedAnalyses}.
+ * All literals refer to the analyzed clause list, results of analyses that were not requested are empty.
+ * If there is no solution, only the number of solutions is present (if requested).
+ */
+public class CombinedAnalysisResult {
+    private final boolean satisfiable;
+    private final int[] solution;
+    private final int[] coreDeadLiterals;
+    private final List<int[]> atomicSets;
+    private final BigInteger solutionCount;
+
+    public CombinedAnalysisResult(
+            int[] solution, int[] coreDeadLiterals, List<int[]> atomicSets, BigInteger solutionCount) {
+        this(true, solution, coreDeadLiterals, atomicSets, solutionCount);
+    }
+
+    private CombinedAnalysisResult(
+            boolean satisfiable,
+            int[] solution,
+            int[] coreDeadLiterals,
+            List<int[]> atomicSets,
+            BigInteger solutionCount) {
+        this.satisfiable = satisfiable;
+        this.solution = solution;
+        this.coreDeadLiterals = coreDeadLiterals;
+        this.atomicSets = atomicSets;
+        this.solutionCount = solutionCount;
+    }
+
+    /**
+     * {@return the result for a clause list without solutions}
+     *
+     * @param counted whether the number of solutions was requested
+     */
+    public static CombinedAnalysisResult unsatisfiable(boolean counted) {
+        return new CombinedAnalysisResult(false, null, null, null, counted ? BigInteger.ZERO : null);
+    }
+
+    /**
+     * {@return whether the clause list has a solution}
+     */
+    public boolean isSatisfiable() {
+        return satisfiable;
+    }
+
+    /**
+     * {@return a solution, see {@link CombinedAnalysis#SOLUTION}}
+     */
+    public Result<int[]> getSolution() {
+        return Result.ofNullable(solution);
+    }
+
+    /**
+     * {@return the core (positive) and dead (negative) literals, see {@link CombinedAnalysis#CORE_DEAD}}
+     */
+    public Result<int[]> getCoreDeadLiterals() {
+        return Result.ofNullable(coreDeadLiterals);
+    }
+
+    /**
+     * {@return the (positive) literals of each atomic set, see {@link CombinedAnalysis#ATOMIC_SETS}}
+     */
+    public Result<List<int[]>> getAtomicSets() {
+        return Result.ofNullable(atomicSets);
+    }
+
+    /**
+     * {@return the number of solutions, see {@link CombinedAnalysis#COUNT}}
+     */
+    public Result<BigInteger> getSolutionCount() {
+        return Result.ofNullable(solutionCount);
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.solver;
+
+import de.featjar.base.data.Result;
+import de.featjar.formula.analysis.bool.BooleanClause;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Splits a {@link BooleanClauseList} into connected components, that is, into clause lists that do not share any
+ * variables.
+ * The solutions of a clause list are exactly the combinations of the solutions of its components, so components can
+ * be solved independently and their results be combined afterwards.
+ */
+public class ComponentDecomposition {
+    /**
+     * A connected component, whose variables are renumbered from 1 to the number of its variables.
+     */
+    public static class Component {
+        private final int[] variables;
+        private final BooleanClauseList clauseList;
+
+        protected Component(int[] variables, BooleanClauseList clauseList) {
+            this.variables = variables;
+            this.clauseList = clauseList;
+        }
+
+        /**
+         * {@return the original variable of each variable of this component, in order}
+         */
+        public int[] getVariables() {
+            return variables;
+        }
+
+        /**
+         * {@return the clauses of this component, in terms of the renumbered variables}
+         */
+        public BooleanClauseList getClauseList() {
+            return clauseList;
+        }
+
+        public int getVariableCount() {
+            return variables.length;
+        }
+
+        /**
+         * {@return whether this component has no clauses, so that all its variables can be chosen freely}
+         */
+        public boolean isUnconstrained() {
+            return clauseList.size() == 0;
+        }
+
+        /**
+         * Writes the given solution of this component into a solution of the original clause list.
+         *
+         * @param solution the solution of this component
+         * @param originalSolution the solution of the original clause list, indexed by variable
+         */
+        public void toOriginal(int[] solution, int[] originalSolution) {
+            for (int i = 0; i < variables.length; i++) {
+                originalSolution[variables[i] - 1] = solution[i] > 0 ? variables[i] : -variables[i];
+            }
+        }
+    }
+
+    /**
+     * {@return the connected components of the given clause list, largest first}
+     * The assumed clauses and literals are added to the components they belong to.
+     * Each variable that does not occur in any clause forms an unconstrained component of its own.
+     * If the clause list contains an empty clause, it is not decomposed at all.
+     *
+     * @param clauseList the clause list
+     * @param assumedClauseList the assumed clauses
+     * @param assumptions the assumed literals
+     */
+    public static List<Component> decompose(
+            BooleanClauseList clauseList, BooleanClauseList assumedClauseList, int... assumptions) {
+        int variableCount = clauseList.getVariableCount();
+        List<int[]> clauses = new ArrayList<>(clauseList.size() + assumedClauseList.size() + assumptions.length);
+        for (BooleanClause clause : clauseList.getAll()) {
+            clauses.add(clause.get());
+        }
+        for (BooleanClause clause : assumedClauseList.getAll()) {
+            clauses.add(clause.get());
+        }
+        for (int literal : assumptions) {
+            clauses.add(new int[] {literal});
+        }
+
+        int[] parent = new int[variableCount + 1];
+        for (int variable = 1; variable <= variableCount; variable++) {
+            parent[variable] = variable;
+        }
+        for (int[] clause : clauses) {
+            if (clause.length == 0) {
+                return List.of(newComponent(variableCount, clauses));
+            }
+            int root = find(parent, Math.abs(clause[0]));
+            for (int i = 1; i < clause.length; i++) {
+                int otherRoot = find(parent, Math.abs(clause[i]));
+                if (otherRoot != root) {
+                    parent[otherRoot] = root;
+                }
+            }
+        }
+
+        // number the variables of each component consecutively, ordered by their original index
+        int[] componentOfRoot = new int[variableCount + 1];
+        Arrays.fill(componentOfRoot, -1);
+        int[] componentOf = new int[variableCount + 1];
+        int[] localVariable = new int[variableCount + 1];
+        List<List<Integer>> componentVariables = new ArrayList<>();
+        for (int variable = 1; variable <= variableCount; variable++) {
+            int root = find(parent, variable);
+            if (componentOfRoot[root] < 0) {
+                componentOfRoot[root] = componentVariables.size();
+                componentVariables.add(new ArrayList<>());
+            }
+            componentOf[variable] = componentOfRoot[root];
+            List<Integer> variables = componentVariables.get(componentOf[variable]);
+            variables.add(variable);
+            localVariable[variable] = variables.size();
+        }
+        List<List<BooleanClause>> componentClauses = new ArrayList<>(componentVariables.size());
+        for (int i = 0; i < componentVariables.size(); i++) {
+            componentClauses.add(new ArrayList<>());
+        }
+        for (int[] clause : clauses) {
+            int[] localClause = new int[clause.length];
+            for (int i = 0; i < clause.length; i++) {
+                int variable = Math.abs(clause[i]);
+                localClause[i] = clause[i] > 0 ? localVariable[variable] : -localVariable[variable];
+            }
+            componentClauses.get(componentOf[Math.abs(clause[0])]).add(new BooleanClause(localClause));
+        }
+
+        List<Component> components = new ArrayList<>(componentVariables.size());
+        for (int i = 0; i < componentVariables.size(); i++) {
+            List<Integer> variables = componentVariables.get(i);
+            components.add(new Component(
+                    variables.stream().mapToInt(Integer::intValue).toArray(),
+                    new BooleanClauseList(componentClauses.get(i), variables.size())));
+        }
+        components.sort(Comparator.comparingInt(Component::getVariableCount).reversed());
+        return components;
+    }
+
+    /**
+     * Solves each of the given components, with several components being solved in parallel.
+     *
+     * @param components the components
+     * @param threadCount the number of threads, 0 for one per available processor
+     * @param solver solves a component, returns an empty result if it timed out
+     * @param <R> the type of the result for each component
+     * @return the results in the order of the components, or an empty result if any component timed out
+     * @throws ExecutionException if the solver throws an exception
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public static <R> Result<List<R>> solve(
+            List<Component> components, int threadCount, Function<Component, Result<R>> solver)
+            throws ExecutionException, InterruptedException {
+        List<R> results = new ArrayList<>(components.size());
+        for (int i = 0; i < components.size(); i++) {
+            results.add(null);
+        }
+        AtomicInteger nextComponent = new AtomicInteger();
+        AtomicBoolean timedOut = new AtomicBoolean();
+        int workerCount = Math.max(1, Math.min(AClauseSolverAnalysis.getThreadCount(threadCount), components.size()));
+        AClauseSolverAnalysis.runInParallel(workerCount, worker -> () -> {
+            int index;
+            while (!timedOut.get() && (index = nextComponent.getAndIncrement()) < components.size()) {
+                Result<R> result = solver.apply(components.get(index));
+                if (result.isEmpty()) {
+                    timedOut.set(true);
+                } else {
+                    synchronized (results) {
+                        results.set(index, result.get());
+                    }
+                }
+            }
+            return null;
+        });
+        return timedOut.get() ? Result.empty() : Result.of(results);
+    }
+
+    /**
+     * {@return a new solver for the given component}
+     *
+     * @param component the component
+     * @param timeout the timeout
+     */
+    public static ClauseSolver newSolver(Component component, Duration timeout) {
+        return new ClauseSolver(component.getClauseList(), timeout);
+    }
+
+    private static Component newComponent(int variableCount, List<int[]> clauses) {
+        int[] variables = new int[variableCount];
+        for (int i = 0; i < variableCount; i++) {
+            variables[i] = i + 1;
+        }
+        List<BooleanClause> clauseList = new ArrayList<>(clauses.size());
+        for (int[] clause : clauses) {
+            clauseList.add(new BooleanClause(clause));
+        }
+        return new Component(variables, new BooleanClauseList(clauseList, variableCount));
+    }
+
+    private static int find(int[] parent, int variable) {
+        while (parent[variable] != variable) {
+            parent[variable] = parent[parent[variable]];
+            variable = parent[variable];
+        }
+        return variable;
+    }
+}
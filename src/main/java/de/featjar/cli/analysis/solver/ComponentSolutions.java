@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.solver;
+
+import de.featjar.base.data.Result;
+import de.featjar.cli.analysis.solver.ComponentDecomposition.Component;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Predicate;
+
+/**
+ * The solutions of each component of a clause list.
+ * The solutions of the clause list itself are only formed on demand, as they are the cross product of the components'
+ * solutions and thus can be exponentially more.
+ */
+public class ComponentSolutions {
+    private final int variableCount;
+    private final List<Component> components;
+    private final List<List<int[]>> solutions;
+
+    protected ComponentSolutions(int variableCount, List<Component> components, List<List<int[]>> solutions) {
+        this.variableCount = variableCount;
+        this.components = components;
+        this.solutions = solutions;
+    }
+
+    /**
+     * Enumerates the solutions of each of the given components.
+     *
+     * @param variableCount the number of variables of the original clause list
+     * @param components the components
+     * @param timeout the timeout for each component
+     * @param threadCount the number of threads, 0 for one per available processor
+     * @param enumerationProgress the progress, which records whether all solutions of all components have been
+     *     enumerated
+     * @return the solutions found, which only cover some solutions of a component if the enumeration was stopped or
+     *     timed out
+     * @throws ExecutionException if a solver throws an exception
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public static Result<ComponentSolutions> enumerate(
+            int variableCount,
+            List<Component> components,
+            Duration timeout,
+            int threadCount,
+            EnumerationProgress enumerationProgress)
+            throws ExecutionException, InterruptedException {
+        return ComponentDecomposition.<List<int[]>>solve(components, threadCount, component -> {
+                    List<int[]> componentSolutions = new ArrayList<>();
+                    Result<Boolean> complete = new SolutionEnumerator(
+                                    ComponentDecomposition.newSolver(component, timeout))
+                            .enumerate(solution -> {
+                                componentSolutions.add(solution.clone());
+                                return !enumerationProgress.isStopped();
+                            });
+                    if (complete.isEmpty() || !complete.get()) {
+                        enumerationProgress.setComplete(false);
+                    }
+                    return Result.of(componentSolutions);
+                })
+                .map(solutions -> new ComponentSolutions(variableCount, components, solutions));
+    }
+
+    /**
+     * {@return the number of solutions of the original clause list}
+     */
+    public BigInteger getSolutionCount() {
+        BigInteger count = BigInteger.ONE;
+        for (List<int[]> componentSolutions : solutions) {
+            count = count.multiply(BigInteger.valueOf(componentSolutions.size()));
+        }
+        return count;
+    }
+
+    /**
+     * Passes each solution of the original clause list to the given consumer.
+     * The passed array is reused for subsequent solutions, so the consumer must copy it to retain it.
+     *
+     * @param consumer the consumer, which returns {@code false} to stop the enumeration
+     * @return {@code true} if all solutions have been passed, {@code false} if stopped by the consumer
+     */
+    public boolean forEach(Predicate<int[]> consumer) {
+        for (List<int[]> componentSolutions : solutions) {
+            if (componentSolutions.isEmpty()) {
+                return true;
+            }
+        }
+        int[] solution = new int[variableCount];
+        int[] indices = new int[components.size()];
+        for (int i = 0; i < components.size(); i++) {
+            components.get(i).toOriginal(solutions.get(i).get(0), solution);
+        }
+        while (true) {
+            if (!consumer.test(solution)) {
+                return false;
+            }
+            // advance like an odometer, the last component changes fastest
+            int i = components.size() - 1;
+            while (i >= 0 && indices[i] == solutions.get(i).size() - 1) {
+                indices[i] = 0;
+                components.get(i).toOriginal(solutions.get(i).get(0), solution);
+                i--;
+            }
+            if (i < 0) {
+                return true;
+            }
+            indices[i]++;
+            components.get(i).toOriginal(solutions.get(i).get(indices[i]), solution);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.solver;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Result;
+import de.featjar.base.tree.structure.ITree;
+import de.featjar.formula.analysis.bool.BooleanAssignment;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Approximates the number of solutions by hashing, following ApproxMC.
+ * Each iteration conjoins the formula with an increasing number of random XOR constraints, which partition the
+ * solutions into cells of roughly equal size, until a cell has fewer solutions than a threshold.
+ * The number of solutions in that cell, multiplied by the number of cells, estimates the number of solutions.
+ * The median over all iterations lies within a factor of {@code 1 + epsilon} of the exact number with a probability
+ * of at least {@code 1 - delta}.
+ * Iterations are independent and run in parallel, each on its own solver.
+ */
+public class ComputeApproximateSolutionCount extends AClauseSolverAnalysis<BigInteger> {
+    protected final double epsilon;
+    protected final double delta;
+    protected final int threadCount;
+    protected final long seed;
+
+    public ComputeApproximateSolutionCount(
+            IComputation<BooleanClauseList> booleanClauseList,
+            IComputation<BooleanAssignment> assumedAssignment,
+            IComputation<BooleanClauseList> assumedClauseList,
+            IComputation<Duration> timeout,
+            double epsilon,
+            double delta,
+            int threadCount,
+            long seed) {
+        super(booleanClauseList, assumedAssignment, assumedClauseList, timeout);
+        this.epsilon = epsilon;
+        this.delta = delta;
+        this.threadCount = threadCount;
+        this.seed = seed;
+    }
+
+    protected ComputeApproximateSolutionCount(ComputeApproximateSolutionCount other) {
+        super(other);
+        this.epsilon = other.epsilon;
+        this.delta = other.delta;
+        this.threadCount = other.threadCount;
+        this.seed = other.seed;
+    }
+
+    /**
+     * {@return the number of solutions in a cell below which the cell is counted exactly}
+     */
+    protected int getThreshold() {
+        return (int) Math.ceil(1 + 9.84 * (1 + epsilon / (1 + epsilon)) * (1 + 1 / epsilon) * (1 + 1 / epsilon));
+    }
+
+    /**
+     * {@return the number of iterations whose median is returned}
+     */
+    protected int getIterationCount() {
+        int iterationCount = (int) Math.ceil(17 * Math.log(3 / delta) / Math.log(2));
+        return iterationCount % 2 == 0 ? iterationCount + 1 : iterationCount;
+    }
+
+    @Override
+    public Result<BigInteger> compute(List<Object> dependencyList, Progress progress) {
+        if (epsilon <= 0 || delta <= 0 || delta >= 1) {
+            return Result.empty(new IllegalArgumentException("requires epsilon > 0 and 0 < delta < 1"));
+        }
+        int variableCount = BOOLEAN_CLAUSE_LIST.get(dependencyList).getVariableCount();
+        int[] assumptions = getAssumptions(dependencyList);
+        int threshold = getThreshold();
+        Result<Integer> count = new Cells(newSolver(dependencyList), variableCount, assumptions, new Random(seed))
+                .count(0, threshold);
+        if (count.isEmpty()) {
+            return Result.empty();
+        }
+        if (count.get() < threshold) {
+            FeatJAR.log().info("counted " + count.get() + " solutions exactly");
+            return Result.of(BigInteger.valueOf(count.get()));
+        }
+        int iterationCount = getIterationCount();
+        FeatJAR.log().info("running " + iterationCount + " iterations with a threshold of " + threshold);
+        List<Callable<Result<BigInteger>>> iterations = new ArrayList<>(iterationCount);
+        for (int i = 0; i < iterationCount; i++) {
+            Random random = new Random(seed + i + 1);
+            iterations.add(() -> new Cells(newSolver(dependencyList), variableCount, assumptions, random)
+                    .estimate(threshold));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(
+                threadCount > 0 ? threadCount : Runtime.getRuntime().availableProcessors());
+        try {
+            List<BigInteger> estimates = new ArrayList<>(iterationCount);
+            for (Future<Result<BigInteger>> future : executor.invokeAll(iterations)) {
+                Result<BigInteger> estimate = future.get();
+                if (estimate.isEmpty()) {
+                    return Result.empty();
+                }
+                estimates.add(estimate.get());
+            }
+            estimates.sort(null);
+            return Result.of(estimates.get(estimates.size() / 2));
+        } catch (ExecutionException e) {
+            return Result.empty(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.empty(e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Counts the solutions in the cells of a random hash function that consists of XOR constraints.
+     * The constraints are created on demand, and a cell of {@code m} constraints is a subset of its cell of
+     * {@code m - 1} constraints, so that the cell size decreases monotonically with {@code m}.
+     */
+    private static class Cells {
+        private final ClauseSolver solver;
+        private final int variableCount;
+        private final int[] assumptions;
+        private final Random random;
+        private final List<Integer> parityLiterals = new ArrayList<>();
+
+        private Cells(ClauseSolver solver, int variableCount, int[] assumptions, Random random) {
+            this.solver = solver;
+            this.variableCount = variableCount;
+            this.assumptions = assumptions;
+            this.random = random;
+        }
+
+        /**
+         * {@return the number of solutions times the number of cells, for the fewest constraints whose cell has
+         * fewer solutions than the threshold}
+         * The number of constraints is found by doubling and then bisecting.
+         */
+        private Result<BigInteger> estimate(int threshold) {
+            int lower = 0;
+            int upper = 1;
+            Result<Integer> count;
+            while (true) {
+                count = count(upper, threshold);
+                if (count.isEmpty()) {
+                    return Result.empty();
+                }
+                if (count.get() < threshold) {
+                    break;
+                }
+                if (upper >= variableCount) {
+                    return Result.empty(new IllegalStateException("no cell is small enough"));
+                }
+                lower = upper;
+                upper = Math.min(2 * upper, variableCount);
+            }
+            int upperCount = count.get();
+            while (upper - lower > 1) {
+                int middle = (lower + upper) / 2;
+                count = count(middle, threshold);
+                if (count.isEmpty()) {
+                    return Result.empty();
+                }
+                if (count.get() < threshold) {
+                    upper = middle;
+                    upperCount = count.get();
+                } else {
+                    lower = middle;
+                }
+            }
+            return Result.of(BigInteger.valueOf(upperCount).shiftLeft(upper));
+        }
+
+        /**
+         * {@return the number of solutions in the cell of the first given number of constraints, counting at most
+         * up to the threshold}
+         */
+        private Result<Integer> count(int constraintCount, int threshold) {
+            while (parityLiterals.size() < constraintCount) {
+                parityLiterals.add(newConstraint());
+            }
+            int[] query = Arrays.copyOf(assumptions, assumptions.length + constraintCount);
+            for (int i = 0; i < constraintCount; i++) {
+                query[assumptions.length + i] = parityLiterals.get(i);
+            }
+            int[] count = {0};
+            Result<Boolean> complete = SolutionEnumerator.projected(solver, variableCount, query)
+                    .enumerate(solution -> ++count[0] < threshold);
+            return complete.map(c -> count[0]);
+        }
+
+        /**
+         * {@return a literal that is true if and only if the parity of a random subset of the variables matches a
+         * random parity}
+         * The constraint is encoded as a chain of auxiliary variables, each of which is the parity of the variables
+         * up to it.
+         */
+        private int newConstraint() {
+            int parity = random.nextBoolean() ? 1 : -1;
+            int previous = 0;
+            for (int variable = 1; variable <= variableCount; variable++) {
+                if (!random.nextBoolean()) {
+                    continue;
+                }
+                if (previous == 0) {
+                    previous = variable;
+                    continue;
+                }
+                int next = solver.newVariables(1);
+                solver.addClause(-next, previous, variable);
+                solver.addClause(-next, -previous, -variable);
+                solver.addClause(next, -previous, variable);
+                solver.addClause(next, previous, -variable);
+                previous = next;
+            }
+            if (previous == 0) {
+                previous = solver.newVariables(1);
+                solver.addClause(-previous);
+            }
+            return parity * previous;
+        }
+    }
+
+    @Override
+    public ITree<IComputation<?>> cloneNode() {
+        return new ComputeApproximateSolutionCount(this);
+    }
+}
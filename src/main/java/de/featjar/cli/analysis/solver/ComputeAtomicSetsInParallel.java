@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.solver;
+
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Result;
+import de.featjar.base.tree.structure.ITree;
+import de.featjar.formula.analysis.bool.BooleanAssignment;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import de.featjar.formula.analysis.bool.BooleanSolution;
+import de.featjar.formula.analysis.bool.BooleanSolutionList;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Computes atomic sets with several solvers in parallel.
+ * An atomic set is a maximal set of variables that have the same value in every solution.
+ * The first element of the result contains the core and dead literals, each further element the literals of one
+ * atomic set of the remaining variables, ordered by their smallest variable.
+ * Like in {@link de.featjar.formula.analysis.sat4j.ComputeAtomicSetsSAT4J}, literals are signed as in the first
+ * solution found, so that an atomic set may contain a variable and the negation of another one.
+ * The result does not depend on the number of threads.
+ * <p>
+ * Core and dead variables are found with {@link CoreDeadSearch}, whose solutions already separate many variables for
+ * the subsequent {@link AtomicSetSearch}.
+ */
+public class ComputeAtomicSetsInParallel extends AClauseSolverAnalysis<BooleanSolutionList> {
+    protected final int threadCount;
+
+    public ComputeAtomicSetsInParallel(
+            IComputation<BooleanClauseList> booleanClauseList,
+            IComputation<BooleanAssignment> assumedAssignment,
+            IComputation<BooleanClauseList> assumedClauseList,
+            IComputation<Duration> timeout,
+            int threadCount) {
+        super(booleanClauseList, assumedAssignment, assumedClauseList, timeout);
+        this.threadCount = threadCount;
+    }
+
+    protected ComputeAtomicSetsInParallel(ComputeAtomicSetsInParallel other) {
+        super(other);
+        this.threadCount = other.threadCount;
+    }
+
+    @Override
+    public Result<BooleanSolutionList> compute(List<Object> dependencyList, Progress progress) {
+        Result<ClauseSolver> initialSolver = newSatisfiedSolver(dependencyList);
+        if (initialSolver.isEmpty()) {
+            return Result.empty();
+        }
+        int[] assumptions = getAssumptions(dependencyList);
+        int variableCount = initialSolver.get().getVariableCount();
+        int workerCount = getThreadCount(threadCount);
+        int[] reference = initialSolver.get().getSolution().clone();
+        Signatures signatures = new Signatures(variableCount);
+        Queue<ClauseSolver> solvers = new ConcurrentLinkedQueue<>();
+        solvers.add(initialSolver.get());
+        try {
+            Result<int[]> coreDeadLiterals = CoreDeadSearch.search(
+                    assumptions,
+                    initialSolver.get(),
+                    () -> {
+                        ClauseSolver solver = newSolver(dependencyList);
+                        solvers.add(solver);
+                        return solver;
+                    },
+                    workerCount,
+                    AtomicSetSearch.newSignatureRefiner(reference, signatures));
+            if (coreDeadLiterals.isEmpty()) {
+                return Result.empty();
+            }
+            Result<List<int[]>> atomicSets = AtomicSetSearch.search(
+                    assumptions,
+                    reference,
+                    coreDeadLiterals.get(),
+                    signatures,
+                    () -> {
+                        ClauseSolver solver = solvers.poll();
+                        return solver != null ? solver : newSolver(dependencyList);
+                    },
+                    workerCount);
+            if (atomicSets.isEmpty()) {
+                return Result.empty();
+            }
+            List<BooleanSolution> result = new ArrayList<>(atomicSets.get().size() + 1);
+            result.add(new BooleanSolution(coreDeadLiterals.get()));
+            for (int[] atomicSet : atomicSets.get()) {
+                result.add(new BooleanSolution(atomicSet));
+            }
+            return Result.of(new BooleanSolutionList(result, variableCount));
+        } catch (ExecutionException e) {
+            return Result.empty(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.empty(e);
+        }
+    }
+
+    @Override
+    public ITree<IComputation<?>> cloneNode() {
+        return new ComputeAtomicSetsInParallel(this);
+    }
+}
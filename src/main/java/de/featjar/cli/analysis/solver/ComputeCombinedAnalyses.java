@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.solver;
+
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Result;
+import de.featjar.base.tree.structure.ITree;
+import de.featjar.formula.analysis.bool.BooleanAssignment;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.IntStream;
+
+/**
+ * Runs several analyses on the same clause list with a single incremental solver.
+ * The analyses are run in the order of {@link CombinedAnalysis}, and each reuses the work of the previous ones: the
+ * solution is the initial solution of the core/dead search, all solutions found by the core/dead search separate
+ * candidates for atomic sets, and core and dead literals are assumed during the enumeration for counting.
+ * Atomic sets require core and dead variables, which are computed even if not requested.
+ */
+public class ComputeCombinedAnalyses extends AClauseSolverAnalysis<CombinedAnalysisResult> {
+    protected final Set<CombinedAnalysis> analyses;
+
+    public ComputeCombinedAnalyses(
+            IComputation<BooleanClauseList> booleanClauseList,
+            IComputation<BooleanAssignment> assumedAssignment,
+            IComputation<BooleanClauseList> assumedClauseList,
+            IComputation<Duration> timeout,
+            Set<CombinedAnalysis> analyses) {
+        super(booleanClauseList, assumedAssignment, assumedClauseList, timeout);
+        this.analyses = EnumSet.copyOf(analyses);
+    }
+
+    protected ComputeCombinedAnalyses(ComputeCombinedAnalyses other) {
+        super(other);
+        this.analyses = other.analyses;
+    }
+
+    @Override
+    public Result<CombinedAnalysisResult> compute(List<Object> dependencyList, Progress progress) {
+        try {
+            return analyze(newSolver(dependencyList), getAssumptions(dependencyList), analyses);
+        } catch (ExecutionException e) {
+            return Result.empty(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.empty(e);
+        }
+    }
+
+    /**
+     * {@return the results of the given analyses under the given assumptions, or an empty result if the solver timed
+     * out}
+     * The solver can be reused for further calls, e.g., with other assumptions.
+     *
+     * @param solver the solver
+     * @param assumptions the assumed literals
+     * @param analyses the analyses
+     * @throws ExecutionException if the search throws an exception
+     * @throws InterruptedException if interrupted while searching
+     */
+    public static Result<CombinedAnalysisResult> analyze(
+            ClauseSolver solver, int[] assumptions, Set<CombinedAnalysis> analyses)
+            throws ExecutionException, InterruptedException {
+        Result<Boolean> hasSolution = solver.hasSolution(assumptions);
+        if (hasSolution.isEmpty()) {
+            return Result.empty();
+        }
+        if (!hasSolution.get()) {
+            return Result.of(CombinedAnalysisResult.unsatisfiable(analyses.contains(CombinedAnalysis.COUNT)));
+        }
+        int[] solution = solver.getSolution().clone();
+        Signatures signatures = new Signatures(solver.getVariableCount());
+        int[] coreDeadLiterals = null;
+        if (analyses.contains(CombinedAnalysis.CORE_DEAD) || analyses.contains(CombinedAnalysis.ATOMIC_SETS)) {
+            Result<int[]> coreDeadSearch = CoreDeadSearch.search(
+                    assumptions, solver, () -> solver, 1, AtomicSetSearch.newSignatureRefiner(solution, signatures));
+            if (coreDeadSearch.isEmpty()) {
+                return Result.empty();
+            }
+            coreDeadLiterals = coreDeadSearch.get();
+        }
+        List<int[]> atomicSets = null;
+        if (analyses.contains(CombinedAnalysis.ATOMIC_SETS)) {
+            Result<List<int[]>> atomicSetSearch =
+                    AtomicSetSearch.search(assumptions, solution, coreDeadLiterals, signatures, () -> solver, 1);
+            if (atomicSetSearch.isEmpty()) {
+                return Result.empty();
+            }
+            atomicSets = atomicSetSearch.get();
+        }
+        BigInteger solutionCount = null;
+        if (analyses.contains(CombinedAnalysis.COUNT)) {
+            int[] countAssumptions = coreDeadLiterals == null
+                    ? assumptions
+                    : IntStream.concat(IntStream.of(assumptions), IntStream.of(coreDeadLiterals))
+                            .toArray();
+            long[] count = {0};
+            Result<Boolean> complete = new SolutionEnumerator(solver, countAssumptions).enumerate(s -> {
+                count[0]++;
+                return true;
+            });
+            if (complete.isEmpty()) {
+                return Result.empty();
+            }
+            solutionCount = BigInteger.valueOf(count[0]);
+        }
+        return Result.of(new CombinedAnalysisResult(
+                analyses.contains(CombinedAnalysis.SOLUTION) ? solution : null,
+                analyses.contains(CombinedAnalysis.CORE_DEAD) ? coreDeadLiterals : null,
+                atomicSets,
+                solutionCount));
+    }
+
+    @Override
+    public ITree<IComputation<?>> cloneNode() {
+        return new ComputeCombinedAnalyses(this);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.solver;
+
+import de.featjar.base.computation.AComputation;
+import de.featjar.base.computation.Dependency;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Result;
+import de.featjar.base.tree.structure.ITree;
+import de.featjar.cli.transformer.AuxiliaryVariables;
+import de.featjar.formula.analysis.VariableMap;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Prints the results of {@link ComputeCombinedAnalyses} by variable names, one analysis per section.
+ * Auxiliary variables are omitted.
+ */
+public class ComputeCombinedAnalysisReport extends AComputation<String> {
+    protected static final Dependency<CombinedAnalysisResult> RESULT =
+            Dependency.newDependency(CombinedAnalysisResult.class);
+    protected static final Dependency<VariableMap> VARIABLE_MAP = Dependency.newDependency(VariableMap.class);
+
+    public ComputeCombinedAnalysisReport(
+            IComputation<CombinedAnalysisResult> result, IComputation<VariableMap> variableMap) {
+        super(result, variableMap);
+    }
+
+    protected ComputeCombinedAnalysisReport(ComputeCombinedAnalysisReport other) {
+        super(other);
+    }
+
+    @Override
+    public Result<String> compute(List<Object> dependencyList, Progress progress) {
+        CombinedAnalysisResult result = RESULT.get(dependencyList);
+        VariableMap variableMap = VARIABLE_MAP.get(dependencyList);
+        LiteralPrinter literalPrinter = new LiteralPrinter(variableMap);
+        int originalVariableCount = AuxiliaryVariables.getOriginalVariableCount(variableMap);
+        StringBuilder sb = new StringBuilder();
+        if (!result.isSatisfiable()) {
+            sb.append("unsatisfiable\n");
+        }
+        result.getSolution().ifPresent(solution -> literalPrinter
+                .print(sb.append(CombinedAnalysis.SOLUTION).append(": "), solution, originalVariableCount)
+                .append('\n'));
+        result.getCoreDeadLiterals().ifPresent(coreDeadLiterals -> {
+            int[] literals = AuxiliaryVariables.removeAuxiliaryLiterals(coreDeadLiterals, originalVariableCount);
+            literalPrinter
+                    .print(sb.append("core: "), Arrays.stream(literals).filter(l -> l > 0).toArray())
+                    .append('\n');
+            literalPrinter
+                    .print(sb.append("dead: "), Arrays.stream(literals).filter(l -> l < 0).toArray())
+                    .append('\n');
+        });
+        result.getAtomicSets().ifPresent(atomicSets -> {
+            sb.append(CombinedAnalysis.ATOMIC_SETS).append(":\n");
+            for (int[] atomicSet : atomicSets) {
+                int[] literals = AuxiliaryVariables.removeAuxiliaryLiterals(atomicSet, originalVariableCount);
+                if (literals.length > 0) {
+                    literalPrinter.print(sb.append("  {"), literals).append("}\n");
+                }
+            }
+        });
+        result.getSolutionCount()
+                .ifPresent(count -> sb.append(CombinedAnalysis.COUNT).append(": ").append(count).append('\n'));
+        return Result.of(sb.toString().trim());
+    }
+
+    @Override
+    public ITree<IComputation<?>> cloneNode() {
+        return new ComputeCombinedAnalysisReport(this);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.solver;
+
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Result;
+import de.featjar.base.tree.structure.ITree;
+import de.featjar.formula.analysis.bool.BooleanAssignment;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Computes core and dead variables with several solvers in parallel.
+ * Each worker owns a solver for the same clause list, and every solution found by one worker rules out candidates
+ * for all other workers.
+ */
+public class ComputeCoreDeadVariablesInParallel extends AClauseSolverAnalysis<BooleanAssignment> {
+    protected final int threadCount;
+
+    public ComputeCoreDeadVariablesInParallel(
+            IComputation<BooleanClauseList> booleanClauseList,
+            IComputation<BooleanAssignment> assumedAssignment,
+            IComputation<BooleanClauseList> assumedClauseList,
+            IComputation<Duration> timeout,
+            int threadCount) {
+        super(booleanClauseList, assumedAssignment, assumedClauseList, timeout);
+        this.threadCount = threadCount;
+    }
+
+    protected ComputeCoreDeadVariablesInParallel(ComputeCoreDeadVariablesInParallel other) {
+        super(other);
+        this.threadCount = other.threadCount;
+    }
+
+    @Override
+    public Result<BooleanAssignment> compute(List<Object> dependencyList, Progress progress) {
+        Result<ClauseSolver> initialSolver = newSatisfiedSolver(dependencyList);
+        if (initialSolver.isEmpty()) {
+            return Result.empty();
+        }
+        try {
+            return CoreDeadSearch.search(
+                            getAssumptions(dependencyList),
+                            initialSolver.get(),
+                            () -> newSolver(dependencyList),
+                            getThreadCount(threadCount),
+                            solution -> {})
+                    .map(BooleanAssignment::new);
+        } catch (ExecutionException e) {
+            return Result.empty(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.empty(e);
+        }
+    }
+
+    @Override
+    public ITree<IComputation<?>> cloneNode() {
+        return new ComputeCoreDeadVariablesInParallel(this);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.solver;
+
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Result;
+import de.featjar.base.tree.structure.ITree;
+import de.featjar.formula.analysis.bool.BooleanAssignment;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Counts solutions by enumerating them, yielding a lower bound if the enumeration is stopped.
+ * Whether the result is exact is recorded in the given {@link EnumerationProgress}.
+ */
+public class ComputeSolutionCountAnytime extends AClauseSolverAnalysis<BigInteger> {
+    protected final EnumerationProgress enumerationProgress;
+
+    public ComputeSolutionCountAnytime(
+            IComputation<BooleanClauseList> booleanClauseList,
+            IComputation<BooleanAssignment> assumedAssignment,
+            IComputation<BooleanClauseList> assumedClauseList,
+            IComputation<Duration> timeout,
+            EnumerationProgress enumerationProgress) {
+        super(booleanClauseList, assumedAssignment, assumedClauseList, timeout);
+        this.enumerationProgress = enumerationProgress;
+    }
+
+    protected ComputeSolutionCountAnytime(ComputeSolutionCountAnytime other) {
+        super(other);
+        this.enumerationProgress = other.enumerationProgress;
+    }
+
+    @Override
+    public Result<BigInteger> compute(List<Object> dependencyList, Progress progress) {
+        long[] count = {0};
+        Result<Boolean> complete = new SolutionEnumerator(newSolver(dependencyList), getAssumptions(dependencyList))
+                .enumerate(solution -> {
+                    count[0]++;
+                    return enumerationProgress.addSolution();
+                });
+        enumerationProgress.setComplete(complete.isPresent() && complete.get());
+        return Result.of(BigInteger.valueOf(count[0]));
+    }
+
+    @Override
+    public ITree<IComputation<?>> cloneNode() {
+        return new ComputeSolutionCountAnytime(this);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.solver;
+
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Result;
+import de.featjar.base.tree.structure.ITree;
+import de.featjar.cli.analysis.solver.ComponentDecomposition.Component;
+import de.featjar.formula.analysis.bool.BooleanAssignment;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Counts solutions by counting the solutions of each connected component and multiplying them.
+ * Components are counted in parallel, and unconstrained variables are not passed to a solver at all.
+ * If the enumeration is stopped, the product of the solutions counted so far is returned, which is a lower bound.
+ * Whether the result is complete is recorded in the given {@link EnumerationProgress}.
+ */
+public class ComputeSolutionCountByComponents extends AClauseSolverAnalysis<BigInteger> {
+    protected final int threadCount;
+    protected final EnumerationProgress enumerationProgress;
+
+    public ComputeSolutionCountByComponents(
+            IComputation<BooleanClauseList> booleanClauseList,
+            IComputation<BooleanAssignment> assumedAssignment,
+            IComputation<BooleanClauseList> assumedClauseList,
+            IComputation<Duration> timeout,
+            int threadCount,
+            EnumerationProgress enumerationProgress) {
+        super(booleanClauseList, assumedAssignment, assumedClauseList, timeout);
+        this.threadCount = threadCount;
+        this.enumerationProgress = enumerationProgress;
+    }
+
+    protected ComputeSolutionCountByComponents(ComputeSolutionCountByComponents other) {
+        super(other);
+        this.threadCount = other.threadCount;
+        this.enumerationProgress = other.enumerationProgress;
+    }
+
+    @Override
+    public Result<BigInteger> compute(List<Object> dependencyList, Progress progress) {
+        List<Component> components = ComponentDecomposition.decompose(
+                BOOLEAN_CLAUSE_LIST.get(dependencyList),
+                ASSUMED_CLAUSE_LIST.get(dependencyList),
+                getAssumptions(dependencyList));
+        Duration timeout = TIMEOUT.get(dependencyList);
+        try {
+            return ComponentDecomposition.<BigInteger>solve(components, threadCount, component -> {
+                        if (component.isUnconstrained()) {
+                            return Result.of(BigInteger.ONE.shiftLeft(component.getVariableCount()));
+                        }
+                        long[] count = {0};
+                        Result<Boolean> complete = new SolutionEnumerator(
+                                        ComponentDecomposition.newSolver(component, timeout))
+                                .enumerate(solution -> {
+                                    count[0]++;
+                                    return !enumerationProgress.isStopped();
+                                });
+                        if (complete.isEmpty() || !complete.get()) {
+                            enumerationProgress.setComplete(false);
+                        }
+                        return Result.of(BigInteger.valueOf(count[0]));
+                    })
+                    .map(counts -> {
+                        BigInteger solutionCount = counts.stream().reduce(BigInteger.ONE, BigInteger::multiply);
+                        enumerationProgress.addSolutions(
+                                solutionCount.min(BigInteger.valueOf(Long.MAX_VALUE)).longValue());
+                        return solutionCount;
+                    });
+        } catch (ExecutionException e) {
+            return Result.empty(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.empty(e);
+        }
+    }
+
+    @Override
+    public ITree<IComputation<?>> cloneNode() {
+        return new ComputeSolutionCountByComponents(this);
+    }
+}
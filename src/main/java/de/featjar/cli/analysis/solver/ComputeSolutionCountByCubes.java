@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.solver;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Result;
+import de.featjar.base.tree.structure.ITree;
+import de.featjar.formula.analysis.bool.BooleanAssignment;
+import de.featjar.formula.analysis.bool.BooleanClause;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Counts solutions in parallel by splitting the search space into cubes, that is, partial assignments of the
+ * variables that occur in the most clauses.
+ * Each cube is counted by enumeration on the solver of the worker that runs it.
+ * A cube whose enumeration exceeds a given number of solutions is abandoned and split into two cubes on the next
+ * variable, which idle workers then steal from the {@link ForkJoinPool}.
+ * Yields a lower bound if the enumeration is stopped, which is recorded in the given {@link EnumerationProgress}.
+ */
+public class ComputeSolutionCountByCubes extends AClauseSolverAnalysis<BigInteger> {
+    /**
+     * Default number of solutions after which a cube is split.
+     */
+    public static final int DEFAULT_CUBE_SIZE = 10_000;
+
+    protected final int threadCount;
+    protected final int cubeSize;
+    protected final EnumerationProgress enumerationProgress;
+
+    public ComputeSolutionCountByCubes(
+            IComputation<BooleanClauseList> booleanClauseList,
+            IComputation<BooleanAssignment> assumedAssignment,
+            IComputation<BooleanClauseList> assumedClauseList,
+            IComputation<Duration> timeout,
+            int threadCount,
+            int cubeSize,
+            EnumerationProgress enumerationProgress) {
+        super(booleanClauseList, assumedAssignment, assumedClauseList, timeout);
+        this.threadCount = threadCount;
+        this.cubeSize = cubeSize;
+        this.enumerationProgress = enumerationProgress;
+    }
+
+    protected ComputeSolutionCountByCubes(ComputeSolutionCountByCubes other) {
+        super(other);
+        this.threadCount = other.threadCount;
+        this.cubeSize = other.cubeSize;
+        this.enumerationProgress = other.enumerationProgress;
+    }
+
+    @Override
+    public Result<BigInteger> compute(List<Object> dependencyList, Progress progress) {
+        int[] assumptions = getAssumptions(dependencyList);
+        int[] splitOrder = getSplitOrder(BOOLEAN_CLAUSE_LIST.get(dependencyList), assumptions);
+        ThreadLocal<ClauseSolver> solvers = ThreadLocal.withInitial(() -> newSolver(dependencyList));
+        AtomicBoolean timedOut = new AtomicBoolean();
+        AtomicBoolean stopped = new AtomicBoolean();
+        AtomicInteger cubeCount = new AtomicInteger();
+        ForkJoinPool pool = new ForkJoinPool(
+                threadCount > 0 ? threadCount : Runtime.getRuntime().availableProcessors());
+        try {
+            BigInteger count = pool.invoke(
+                    new CubeTask(assumptions, 0, splitOrder, solvers, timedOut, stopped, cubeCount));
+            FeatJAR.log().debug("counted " + cubeCount.get() + " cubes");
+            if (timedOut.get()) {
+                return Result.empty();
+            }
+            enumerationProgress.setComplete(!stopped.get());
+            return Result.of(count);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * {@return the unassumed variables in the order in which cubes are split on them}
+     * Variables that occur in more clauses are split on first, as they constrain the remaining search the most.
+     */
+    private static int[] getSplitOrder(BooleanClauseList clauseList, int[] assumptions) {
+        int variableCount = clauseList.getVariableCount();
+        int[] occurrences = new int[variableCount + 1];
+        for (BooleanClause clause : clauseList.getAll()) {
+            for (int literal : clause.get()) {
+                occurrences[Math.abs(literal)]++;
+            }
+        }
+        for (int literal : assumptions) {
+            occurrences[Math.abs(literal)] = -1;
+        }
+        return IntStream.rangeClosed(1, variableCount)
+                .filter(variable -> occurrences[variable] >= 0)
+                .boxed()
+                .sorted(Comparator.comparingInt(variable -> -occurrences[variable]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private class CubeTask extends RecursiveTask<BigInteger> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] cube;
+        private final int splitIndex;
+        private final int[] splitOrder;
+        private final transient ThreadLocal<ClauseSolver> solvers;
+        private final AtomicBoolean timedOut;
+        private final AtomicBoolean stopped;
+        private final AtomicInteger cubeCount;
+
+        private CubeTask(
+                int[] cube,
+                int splitIndex,
+                int[] splitOrder,
+                ThreadLocal<ClauseSolver> solvers,
+                AtomicBoolean timedOut,
+                AtomicBoolean stopped,
+                AtomicInteger cubeCount) {
+            this.cube = cube;
+            this.splitIndex = splitIndex;
+            this.splitOrder = splitOrder;
+            this.solvers = solvers;
+            this.timedOut = timedOut;
+            this.stopped = stopped;
+            this.cubeCount = cubeCount;
+        }
+
+        @Override
+        protected BigInteger compute() {
+            if (timedOut.get() || stopped.get()) {
+                return BigInteger.ZERO;
+            }
+            boolean splittable = splitIndex < splitOrder.length;
+            long[] count = {0};
+            Result<Boolean> complete = new SolutionEnumerator(solvers.get(), cube).enumerate(solution -> {
+                count[0]++;
+                return (!splittable || count[0] < cubeSize) && !enumerationProgress.isStopped();
+            });
+            if (complete.isEmpty()) {
+                timedOut.set(true);
+                return BigInteger.ZERO;
+            }
+            if (complete.get() || !splittable || enumerationProgress.isStopped()) {
+                cubeCount.incrementAndGet();
+                if (!complete.get()) {
+                    stopped.set(true);
+                }
+                enumerationProgress.addSolutions(count[0]);
+                return BigInteger.valueOf(count[0]);
+            }
+            int variable = splitOrder[splitIndex];
+            int[] positiveCube = Arrays.copyOf(cube, cube.length + 1);
+            int[] negativeCube = Arrays.copyOf(cube, cube.length + 1);
+            positiveCube[cube.length] = variable;
+            negativeCube[cube.length] = -variable;
+            CubeTask negativeTask =
+                    new CubeTask(negativeCube, splitIndex + 1, splitOrder, solvers, timedOut, stopped, cubeCount);
+            negativeTask.fork();
+            BigInteger positiveCount =
+                    new CubeTask(positiveCube, splitIndex + 1, splitOrder, solvers, timedOut, stopped, cubeCount)
+                            .compute();
+            return positiveCount.add(negativeTask.join());
+        }
+    }
+
+    @Override
+    public ITree<IComputation<?>> cloneNode() {
+        return new ComputeSolutionCountByCubes(this);
+    }
+}
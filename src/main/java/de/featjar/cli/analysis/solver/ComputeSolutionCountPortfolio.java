@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.solver;
+
+import static de.featjar.base.computation.Computations.async;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Result;
+import de.featjar.base.tree.structure.ITree;
+import de.featjar.cli.analysis.sharpsat.SharpSATPool;
+import de.featjar.formula.analysis.bool.BooleanAssignment;
+import de.featjar.formula.analysis.bool.BooleanClause;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import de.featjar.formula.analysis.sat4j.ComputeSolutionCountSAT4J;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Counts solutions by racing the SAT4J counting analysis against sharpSAT on the same clause list.
+ * The first engine to return a count wins, the other one is cancelled.
+ * sharpSAT counts with a process of the given {@link SharpSATPool}, or else with a new process of the given binary,
+ * which is killed if SAT4J wins, without affecting sharpSAT processes of other computations.
+ * If SAT4J loses, its thread is interrupted and it stops at the latest when reaching the timeout.
+ * Without a pool and binary, SAT4J counts alone.
+ * If a statistics file is given, each race is appended to it, so that the choice of engine can be tuned later.
+ */
+public class ComputeSolutionCountPortfolio extends AClauseSolverAnalysis<BigInteger> {
+    public static final String SAT4J = "sat4j";
+    public static final String SHARPSAT = "sharpsat";
+
+    protected final Path statisticsFile;
+    protected final SharpSATPool pool;
+    protected final String sharpSATBinary;
+
+    public ComputeSolutionCountPortfolio(
+            IComputation<BooleanClauseList> booleanClauseList,
+            IComputation<BooleanAssignment> assumedAssignment,
+            IComputation<BooleanClauseList> assumedClauseList,
+            IComputation<Duration> timeout,
+            Path statisticsFile,
+            SharpSATPool pool,
+            String sharpSATBinary) {
+        super(booleanClauseList, assumedAssignment, assumedClauseList, timeout);
+        this.statisticsFile = statisticsFile;
+        this.pool = pool;
+        this.sharpSATBinary = sharpSATBinary;
+    }
+
+    protected ComputeSolutionCountPortfolio(ComputeSolutionCountPortfolio other) {
+        super(other);
+        this.statisticsFile = other.statisticsFile;
+        this.pool = other.pool;
+        this.sharpSATBinary = other.sharpSATBinary;
+    }
+
+    @Override
+    public Result<BigInteger> compute(List<Object> dependencyList, Progress progress) {
+        BooleanClauseList clauseList = BOOLEAN_CLAUSE_LIST.get(dependencyList);
+        BooleanAssignment assumedAssignment = ASSUMED_ASSIGNMENT.get(dependencyList);
+        BooleanClauseList assumedClauseList = ASSUMED_CLAUSE_LIST.get(dependencyList);
+        Duration timeout = TIMEOUT.get(dependencyList);
+
+        Callable<BigInteger> sat4j = () -> {
+            ComputeSolutionCountSAT4J analysis = new ComputeSolutionCountSAT4J(async(clauseList));
+            analysis.setAssumedAssignment(async(assumedAssignment));
+            analysis.setAssumedClauseList(async(assumedClauseList));
+            analysis.setTimeout(async(timeout));
+            Result<BigInteger> count = analysis.get();
+            // a count with problems is only a lower bound, e.g., after reaching the timeout
+            return count.isPresent() && !count.hasProblems() ? count.get() : null;
+        };
+        SharpSATPool racePool = pool == null && sharpSATBinary != null
+                ? new SharpSATPool(sharpSATBinary, 1, 0, false)
+                : pool;
+        List<String> engines = new ArrayList<>(List.of(SAT4J));
+        if (racePool != null) {
+            engines.add(SHARPSAT);
+        } else {
+            FeatJAR.log().warning("no sharpSAT binary found, counting with SAT4J only");
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(engines.size());
+        CompletionService<BigInteger> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<BigInteger>> futures = new ArrayList<>();
+        futures.add(completionService.submit(sat4j));
+        if (racePool != null) {
+            BooleanClauseList raceClauseList = toClauseList(clauseList, assumedClauseList, assumedAssignment.get());
+            futures.add(completionService.submit(() -> racePool.count(raceClauseList, timeout).orElse(null)));
+        }
+        final long localTime = System.nanoTime();
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                Future<BigInteger> future = completionService.take();
+                BigInteger count;
+                try {
+                    count = future.get();
+                } catch (ExecutionException e) {
+                    FeatJAR.log().warning("portfolio engine failed: " + e.getCause());
+                    continue;
+                }
+                if (count != null) {
+                    String winner = engines.get(futures.indexOf(future));
+                    recordWinner(clauseList, winner, System.nanoTime() - localTime);
+                    return Result.of(count);
+                }
+            }
+            return Result.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.empty(e);
+        } finally {
+            for (Future<BigInteger> future : futures) {
+                // interrupting a sharpSAT query kills only the sharpSAT process of this race
+                future.cancel(true);
+            }
+            executor.shutdown();
+            if (racePool != null && racePool != pool) {
+                racePool.close();
+            }
+        }
+    }
+
+    protected void recordWinner(BooleanClauseList clauseList, String winner, long timeNeeded) {
+        FeatJAR.log().info("portfolio winner: " + winner);
+        if (statisticsFile == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(statisticsFile.toAbsolutePath().getParent());
+            boolean header = !Files.exists(statisticsFile);
+            String line = String.format(
+                    "%s%s,%d,%d,%s,%.3f%n",
+                    header ? "time,variables,clauses,winner,seconds\n" : "",
+                    Instant.now(),
+                    clauseList.getVariableCount(),
+                    clauseList.size(),
+                    winner,
+                    timeNeeded / 1e9);
+            Files.writeString(
+                    statisticsFile, line, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            FeatJAR.log().warning("could not record portfolio statistics: " + e.getMessage());
+        }
+    }
+
+    private static BooleanClauseList toClauseList(
+            BooleanClauseList clauseList, BooleanClauseList assumedClauseList, int[] assumptions) {
+        List<BooleanClause> clauses = new ArrayList<>(clauseList.getAll());
+        clauses.addAll(assumedClauseList.getAll());
+        for (int literal : assumptions) {
+            clauses.add(new BooleanClause(literal));
+        }
+        return new BooleanClauseList(clauses, clauseList.getVariableCount());
+    }
+
+    @Override
+    public ITree<IComputation<?>> cloneNode() {
+        return new ComputeSolutionCountPortfolio(this);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.solver;
+
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Result;
+import de.featjar.base.tree.structure.ITree;
+import de.featjar.formula.analysis.bool.BooleanAssignment;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import de.featjar.formula.analysis.bool.BooleanSolution;
+import de.featjar.formula.analysis.bool.BooleanSolutionList;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Computes all solutions, or as many as found until the enumeration is stopped.
+ * Whether the result is complete is recorded in the given {@link EnumerationProgress}.
+ */
+public class ComputeSolutionsAnytime extends AClauseSolverAnalysis<BooleanSolutionList> {
+    protected final EnumerationProgress enumerationProgress;
+
+    public ComputeSolutionsAnytime(
+            IComputation<BooleanClauseList> booleanClauseList,
+            IComputation<BooleanAssignment> assumedAssignment,
+            IComputation<BooleanClauseList> assumedClauseList,
+            IComputation<Duration> timeout,
+            EnumerationProgress enumerationProgress) {
+        super(booleanClauseList, assumedAssignment, assumedClauseList, timeout);
+        this.enumerationProgress = enumerationProgress;
+    }
+
+    protected ComputeSolutionsAnytime(ComputeSolutionsAnytime other) {
+        super(other);
+        this.enumerationProgress = other.enumerationProgress;
+    }
+
+    @Override
+    public Result<BooleanSolutionList> compute(List<Object> dependencyList, Progress progress) {
+        List<BooleanSolution> solutions = new ArrayList<>();
+        Result<Boolean> complete = new SolutionEnumerator(newSolver(dependencyList), getAssumptions(dependencyList))
+                .enumerate(solution -> {
+                    solutions.add(new BooleanSolution(solution.clone()));
+                    return enumerationProgress.addSolution();
+                });
+        enumerationProgress.setComplete(complete.isPresent() && complete.get());
+        return Result.of(new BooleanSolutionList(
+                solutions, BOOLEAN_CLAUSE_LIST.get(dependencyList).getVariableCount()));
+    }
+
+    @Override
+    public ITree<IComputation<?>> cloneNode() {
+        return new ComputeSolutionsAnytime(this);
+    }
+}
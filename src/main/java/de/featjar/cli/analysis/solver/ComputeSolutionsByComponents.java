@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.solver;
+
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Result;
+import de.featjar.base.tree.structure.ITree;
+import de.featjar.cli.analysis.solver.ComponentDecomposition.Component;
+import de.featjar.formula.analysis.bool.BooleanAssignment;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import de.featjar.formula.analysis.bool.BooleanSolution;
+import de.featjar.formula.analysis.bool.BooleanSolutionList;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Computes all solutions by enumerating the solutions of each connected component in parallel and combining them.
+ * If the enumeration is stopped, the solutions combined so far are returned.
+ * Whether the result is complete is recorded in the given {@link EnumerationProgress}.
+ */
+public class ComputeSolutionsByComponents extends AClauseSolverAnalysis<BooleanSolutionList> {
+    protected final int threadCount;
+    protected final EnumerationProgress enumerationProgress;
+
+    public ComputeSolutionsByComponents(
+            IComputation<BooleanClauseList> booleanClauseList,
+            IComputation<BooleanAssignment> assumedAssignment,
+            IComputation<BooleanClauseList> assumedClauseList,
+            IComputation<Duration> timeout,
+            int threadCount,
+            EnumerationProgress enumerationProgress) {
+        super(booleanClauseList, assumedAssignment, assumedClauseList, timeout);
+        this.threadCount = threadCount;
+        this.enumerationProgress = enumerationProgress;
+    }
+
+    protected ComputeSolutionsByComponents(ComputeSolutionsByComponents other) {
+        super(other);
+        this.threadCount = other.threadCount;
+        this.enumerationProgress = other.enumerationProgress;
+    }
+
+    @Override
+    public Result<BooleanSolutionList> compute(List<Object> dependencyList, Progress progress) {
+        BooleanClauseList clauseList = BOOLEAN_CLAUSE_LIST.get(dependencyList);
+        try {
+            List<Component> components = ComponentDecomposition.decompose(
+                    clauseList, ASSUMED_CLAUSE_LIST.get(dependencyList), getAssumptions(dependencyList));
+            return ComponentSolutions.enumerate(
+                            clauseList.getVariableCount(),
+                            components,
+                            TIMEOUT.get(dependencyList),
+                            threadCount,
+                            enumerationProgress)
+                    .map(componentSolutions -> {
+                        List<BooleanSolution> solutions = new ArrayList<>();
+                        boolean combined = componentSolutions.forEach(solution -> {
+                            solutions.add(new BooleanSolution(solution.clone()));
+                            return enumerationProgress.addSolution();
+                        });
+                        if (!combined) {
+                            enumerationProgress.setComplete(false);
+                        }
+                        return new BooleanSolutionList(solutions, clauseList.getVariableCount());
+                    });
+        } catch (ExecutionException e) {
+            return Result.empty(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.empty(e);
+        }
+    }
+
+    @Override
+    public ITree<IComputation<?>> cloneNode() {
+        return new ComputeSolutionsByComponents(this);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.solver;
+
+import de.featjar.base.data.Result;
+import de.featjar.formula.analysis.VariableMap;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs the same {@link CombinedAnalysis analyses} under many sets of assumptions, reusing a few warm solvers instead
+ * of creating one per set.
+ * Each worker owns one solver and takes the next set of assumptions from a shared counter.
+ */
+public class ConditionalQueries {
+    private final List<int[]> assumptionSets;
+    private final Set<CombinedAnalysis> analyses;
+
+    /**
+     * Creates conditional queries.
+     *
+     * @param assumptionSets the sets of assumed literals
+     * @param analyses the analyses to run under each set
+     */
+    public ConditionalQueries(List<int[]> assumptionSets, Set<CombinedAnalysis> analyses) {
+        this.assumptionSets = assumptionSets;
+        this.analyses = analyses;
+    }
+
+    /**
+     * {@return the sets of assumed literals in the given file}
+     * Each line contains one set as comma-separated variable names, each optionally preceded by {@code -} to
+     * assume that the variable is deselected, e.g., {@code A, -B}.
+     * Blank lines and lines starting with {@code #} are ignored.
+     *
+     * @param file the file
+     * @param variableMap the variable map
+     */
+    public static Result<List<int[]>> loadAssumptionSets(Path file, VariableMap variableMap) {
+        Map<String, Integer> variables = new HashMap<>();
+        for (int variable = 1; variable <= variableMap.getVariableCount(); variable++) {
+            variables.put(variableMap.get(variable).get(), variable);
+        }
+        List<int[]> assumptionSets = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] names = line.split(",");
+                int[] assumptions = new int[names.length];
+                for (int i = 0; i < names.length; i++) {
+                    String name = names[i].trim();
+                    boolean negative = name.startsWith("-");
+                    Integer variable = variables.get(negative ? name.substring(1).trim() : name);
+                    if (variable == null) {
+                        return Result.empty(new IllegalArgumentException(
+                                "unknown variable " + name + " in line " + lineNumber + " of " + file));
+                    }
+                    assumptions[i] = negative ? -variable : variable;
+                }
+                assumptionSets.add(assumptions);
+            }
+        } catch (IOException e) {
+            return Result.empty(e);
+        }
+        return Result.of(assumptionSets);
+    }
+
+    /**
+     * Runs the analyses under each set of assumptions and passes the results to the given consumer in the order of
+     * the sets, as soon as all previous results are available.
+     * A result is empty if the solver timed out for its set.
+     *
+     * @param newSolver creates a solver for each worker
+     * @param threadCount the number of workers
+     * @param consumer the consumer, called with the index of each set and its result
+     * @throws ExecutionException if a worker throws an exception
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void run(
+            Supplier<ClauseSolver> newSolver,
+            int threadCount,
+            BiConsumer<Integer, Result<CombinedAnalysisResult>> consumer)
+            throws ExecutionException, InterruptedException {
+        int setCount = assumptionSets.size();
+        @SuppressWarnings("unchecked")
+        Result<CombinedAnalysisResult>[] results = new Result[setCount];
+        AtomicInteger nextSet = new AtomicInteger();
+        int[] nextResult = {0};
+        AClauseSolverAnalysis.runInParallel(
+                Math.max(1, Math.min(AClauseSolverAnalysis.getThreadCount(threadCount), setCount)),
+                index -> () -> {
+                    ClauseSolver solver = newSolver.get();
+                    int set;
+                    while ((set = nextSet.getAndIncrement()) < setCount) {
+                        Result<CombinedAnalysisResult> result =
+                                ComputeCombinedAnalyses.analyze(solver, assumptionSets.get(set), analyses);
+                        synchronized (results) {
+                            results[set] = result;
+                            while (nextResult[0] < setCount && results[nextResult[0]] != null) {
+                                consumer.accept(nextResult[0], results[nextResult[0]]);
+                                results[nextResult[0]++] = null;
+                            }
+                        }
+                    }
+                    return null;
+                });
+    }
+}
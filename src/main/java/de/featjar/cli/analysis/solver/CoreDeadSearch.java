@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.solver;
+
+import de.featjar.base.data.Result;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Searches for core and dead variables with several solvers in parallel.
+ * Each worker owns a solver for the same clause list and takes the next untested variable from a shared counter.
+ * A variable is core (dead) if it cannot be deselected (selected), which is tested by assuming the opposite of its
+ * value in an initial solution.
+ * Every solution found by a worker rules out all variables whose value differs from the initial solution, which the
+ * other workers then skip.
+ */
+class CoreDeadSearch {
+    private static final int UNTESTED = 0, RULED_OUT = 1, CORE_OR_DEAD = 2;
+
+    private CoreDeadSearch() {}
+
+    /**
+     * {@return the core and dead literals, ordered by variable, or an empty result if a solver timed out}
+     *
+     * @param assumptions the assumed literals
+     * @param initialSolver a solver that has just found the initial solution
+     * @param newSolver creates further solvers for the same clause list
+     * @param workerCount the number of workers
+     * @param solutionListener notified of every solution found, possibly concurrently
+     * @throws ExecutionException if a worker throws an exception
+     * @throws InterruptedException if interrupted while waiting
+     */
+    static Result<int[]> search(
+            int[] assumptions,
+            ClauseSolver initialSolver,
+            Supplier<ClauseSolver> newSolver,
+            int workerCount,
+            Consumer<int[]> solutionListener)
+            throws ExecutionException, InterruptedException {
+        int[] initialSolution = initialSolver.getSolution().clone();
+        int variableCount = initialSolution.length;
+        solutionListener.accept(initialSolution);
+        AtomicIntegerArray states = new AtomicIntegerArray(variableCount);
+        AtomicInteger nextVariable = new AtomicInteger();
+        AtomicBoolean timeout = new AtomicBoolean();
+        AClauseSolverAnalysis.runInParallel(Math.min(workerCount, Math.max(1, variableCount)), index -> () -> {
+            ClauseSolver solver = index == 0 ? initialSolver : newSolver.get();
+            int[] query = Arrays.copyOf(assumptions, assumptions.length + 1);
+            int variable;
+            while (!timeout.get() && (variable = nextVariable.getAndIncrement()) < variableCount) {
+                if (states.get(variable) != UNTESTED) {
+                    continue;
+                }
+                query[assumptions.length] = -initialSolution[variable];
+                Result<Boolean> result = solver.hasSolution(query);
+                if (result.isEmpty()) {
+                    timeout.set(true);
+                } else if (result.get()) {
+                    int[] solution = solver.getSolution();
+                    solutionListener.accept(solution);
+                    for (int i = variable; i < variableCount; i++) {
+                        if (solution[i] != initialSolution[i]) {
+                            states.compareAndSet(i, UNTESTED, RULED_OUT);
+                        }
+                    }
+                } else {
+                    states.set(variable, CORE_OR_DEAD);
+                }
+            }
+            return null;
+        });
+        if (timeout.get()) {
+            return Result.empty();
+        }
+        return Result.of(IntStream.range(0, variableCount)
+                .filter(i -> states.get(i) == CORE_OR_DEAD)
+                .map(i -> initialSolution[i])
+                .toArray());
+    }
+}
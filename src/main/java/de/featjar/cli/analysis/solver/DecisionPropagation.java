@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.solver;
+
+import de.featjar.base.data.Result;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Tracks the literals implied by a sequence of decisions on a warm {@link ClauseSolver}, e.g., for an interactive
+ * configurator.
+ * A variable is implied if it has the same value in all solutions under the current decisions.
+ * Solutions found by earlier queries are cached and serve as witnesses that a variable is not implied, so that after
+ * a decision only variables without such a witness are queried.
+ * Undoing a decision does not query the solver at all.
+ * Instances are not thread-safe.
+ */
+public class DecisionPropagation {
+    /**
+     * Number of solutions kept as witnesses, older solutions are discarded first.
+     */
+    public static final int MAXIMUM_CACHED_SOLUTIONS = 256;
+
+    private final ClauseSolver solver;
+    private final int[] assumptions;
+    private final int variableCount;
+    private final int[] values;
+    private final List<Integer> decisions = new ArrayList<>();
+    private final List<Integer> trail = new ArrayList<>();
+    private final List<Integer> levels = new ArrayList<>();
+    private final Deque<int[]> solutions = new ArrayDeque<>();
+
+    /**
+     * Creates a decision propagation.
+     *
+     * @param solver the solver
+     * @param assumptions the literals assumed in addition to all decisions
+     */
+    public DecisionPropagation(ClauseSolver solver, int... assumptions) {
+        this.solver = solver;
+        this.assumptions = assumptions;
+        variableCount = solver.getVariableCount();
+        values = new int[variableCount + 1];
+    }
+
+    /**
+     * Computes the literals implied without any decision, i.e., the core and dead literals.
+     * Must be called once before any decision.
+     *
+     * @return the implied literals, or an empty result if the solver timed out or there is no solution
+     */
+    public Result<int[]> initialize() {
+        return propagate();
+    }
+
+    /**
+     * Decides the given literal and computes the literals it implies.
+     * If the literal is already implied, nothing new is implied, but the decision can still be undone.
+     * If the solver times out, the decision is undone.
+     *
+     * @param literal the literal
+     * @return the newly implied literals, or an empty result if the literal contradicts the current decisions or
+     * the solver timed out
+     */
+    public Result<int[]> decide(int literal) {
+        int variable = Math.abs(literal);
+        if (values[variable] == -Integer.signum(literal)) {
+            return Result.empty(new IllegalArgumentException("contradicts current decisions"));
+        }
+        levels.add(trail.size());
+        decisions.add(literal);
+        if (values[variable] != 0) {
+            return Result.of(new int[0]);
+        }
+        assign(literal);
+        Result<int[]> implied = propagate();
+        if (implied.isEmpty()) {
+            undo();
+        }
+        return implied;
+    }
+
+    /**
+     * Undoes the last decision and all literals it implied.
+     *
+     * @return the undone decision, or an empty result if there is no decision
+     */
+    public Result<Integer> undo() {
+        if (decisions.isEmpty()) {
+            return Result.empty();
+        }
+        int levelStart = levels.remove(levels.size() - 1);
+        for (int i = trail.size() - 1; i >= levelStart; i--) {
+            values[Math.abs(trail.remove(i))] = 0;
+        }
+        return Result.of(decisions.remove(decisions.size() - 1));
+    }
+
+    /**
+     * {@return the current decisions, in the order they were made}
+     */
+    public int[] getDecisions() {
+        return decisions.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * {@return all decided and implied literals, ordered by variable}
+     */
+    public int[] getAssignedLiterals() {
+        return IntStream.rangeClosed(1, variableCount)
+                .filter(variable -> values[variable] != 0)
+                .map(variable -> values[variable] * variable)
+                .toArray();
+    }
+
+    private void assign(int literal) {
+        values[Math.abs(literal)] = Integer.signum(literal);
+        trail.add(literal);
+    }
+
+    private Result<int[]> propagate() {
+        int[] query = IntStream.concat(IntStream.of(assumptions), decisions.stream().mapToInt(Integer::intValue))
+                .toArray();
+        Result<Boolean> hasSolution = solver.hasSolution(query);
+        if (hasSolution.isEmpty()) {
+            return Result.empty();
+        }
+        if (!hasSolution.get()) {
+            return Result.empty(new IllegalStateException("no solution under current decisions"));
+        }
+        addSolution(solver.getSolution().clone());
+        boolean[] positive = new boolean[variableCount + 1];
+        boolean[] negative = new boolean[variableCount + 1];
+        for (int[] solution : solutions) {
+            if (isCompatible(solution)) {
+                addWitness(solution, positive, negative);
+            }
+        }
+        query = Arrays.copyOf(query, query.length + 1);
+        List<Integer> implied = new ArrayList<>();
+        for (int variable = 1; variable <= variableCount; variable++) {
+            if (values[variable] != 0 || (positive[variable] && negative[variable])) {
+                continue;
+            }
+            int literal = positive[variable] ? variable : -variable;
+            query[query.length - 1] = -literal;
+            hasSolution = solver.hasSolution(query);
+            if (hasSolution.isEmpty()) {
+                return Result.empty();
+            }
+            if (hasSolution.get()) {
+                int[] solution = solver.getSolution().clone();
+                addSolution(solution);
+                addWitness(solution, positive, negative);
+            } else {
+                implied.add(literal);
+            }
+        }
+        for (int literal : implied) {
+            assign(literal);
+        }
+        return Result.of(implied.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    private boolean isCompatible(int[] solution) {
+        for (int decision : decisions) {
+            if (solution[Math.abs(decision) - 1] != decision) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void addWitness(int[] solution, boolean[] positive, boolean[] negative) {
+        for (int literal : solution) {
+            if (literal > 0) {
+                positive[literal] = true;
+            } else {
+                negative[-literal] = true;
+            }
+        }
+    }
+
+    private void addSolution(int[] solution) {
+        if (solutions.size() >= MAXIMUM_CACHED_SOLUTIONS) {
+            solutions.removeLast();
+        }
+        solutions.addFirst(solution);
+    }
+}
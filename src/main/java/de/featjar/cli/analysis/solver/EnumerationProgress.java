@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.solver;
+
+import de.featjar.base.FeatJAR;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks a running enumeration of solutions, so that it can be stopped at any time and still yield a partial result.
+ * The enumeration stops when its time limit is reached or when it is cancelled, e.g., by pressing Ctrl-C while
+ * {@link #start() started}.
+ * Thread-safe.
+ */
+public class EnumerationProgress {
+    /**
+     * Time the JVM waits on Ctrl-C for the partial result to be printed.
+     */
+    public static final Duration SHUTDOWN_GRACE_PERIOD = Duration.ofSeconds(10);
+
+    private final long deadline;
+    private final Duration reportInterval;
+    private final long startTime = System.nanoTime();
+    private final AtomicLong solutionCount = new AtomicLong();
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private volatile boolean cancelled;
+    private volatile boolean complete = true;
+    private ScheduledExecutorService reporter;
+    private Thread shutdownHook;
+
+    /**
+     * Creates a progress tracker.
+     *
+     * @param timeLimit the time after which the enumeration stops, zero or negative for no limit
+     * @param reportInterval the interval in which progress is logged, zero or negative to not log progress
+     */
+    public EnumerationProgress(Duration timeLimit, Duration reportInterval) {
+        deadline = timeLimit == null || timeLimit.isZero() || timeLimit.isNegative()
+                ? Long.MAX_VALUE
+                : startTime + timeLimit.toNanos();
+        this.reportInterval = reportInterval;
+    }
+
+    /**
+     * Starts logging progress and stops the enumeration on Ctrl-C.
+     * Must be followed by {@link #stop()} once the (partial) result has been processed.
+     */
+    public synchronized void start() {
+        if (reportInterval != null && !reportInterval.isZero() && !reportInterval.isNegative()) {
+            reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "enumeration-progress");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = reportInterval.toMillis();
+            reporter.scheduleAtFixedRate(this::report, interval, interval, TimeUnit.MILLISECONDS);
+        }
+        shutdownHook = new Thread(() -> {
+            FeatJAR.log().info("interrupted, stopping enumeration");
+            cancel();
+            try {
+                finished.await(SHUTDOWN_GRACE_PERIOD.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Stops logging progress and lets a pending Ctrl-C terminate the JVM.
+     */
+    public synchronized void stop() {
+        if (reporter != null) {
+            reporter.shutdownNow();
+            reporter = null;
+        }
+        finished.countDown();
+        if (shutdownHook != null) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // already shutting down
+            }
+            shutdownHook = null;
+        }
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * {@return whether the enumeration should stop}
+     */
+    public boolean isStopped() {
+        return cancelled || System.nanoTime() > deadline;
+    }
+
+    /**
+     * Counts a found solution.
+     *
+     * @return whether the enumeration should continue
+     */
+    public boolean addSolution() {
+        solutionCount.incrementAndGet();
+        return !isStopped();
+    }
+
+    /**
+     * Counts several found solutions at once, e.g., for a part of the search space that has been counted separately.
+     *
+     * @param count the number of solutions
+     * @return whether the enumeration should continue
+     */
+    public boolean addSolutions(long count) {
+        solutionCount.addAndGet(count);
+        return !isStopped();
+    }
+
+    public long getSolutionCount() {
+        return solutionCount.get();
+    }
+
+    /**
+     * {@return whether all solutions have been enumerated}
+     * Initially true, until the enumeration reports otherwise.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public void setComplete(boolean complete) {
+        this.complete = complete;
+    }
+
+    /**
+     * Logs the number of solutions found so far and the rate at which they are found.
+     */
+    public void report() {
+        long count = solutionCount.get();
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        FeatJAR.log()
+                .info(String.format(
+                        "found %d solutions in %.1fs (%.1f solutions/s)",
+                        count, seconds, seconds > 0 ? count / seconds : 0.0));
+    }
+}
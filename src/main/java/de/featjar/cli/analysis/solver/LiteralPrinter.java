@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.solver;
+
+import de.featjar.formula.analysis.VariableMap;
+
+/**
+ * Prints literals by the names of their variables, e.g., {@code A, -B, C}.
+ * Variable names are looked up once, so that printing many assignments does not query the {@link VariableMap}.
+ */
+public class LiteralPrinter {
+    private final String[] names;
+
+    public LiteralPrinter(VariableMap variableMap) {
+        int variableCount = variableMap.getVariableCount();
+        names = new String[variableCount + 1];
+        for (int i = 1; i <= variableCount; i++) {
+            names[i] = variableMap.get(i).get();
+        }
+    }
+
+    public String getName(int literal) {
+        return names[Math.abs(literal)];
+    }
+
+    public StringBuilder print(StringBuilder sb, int... literals) {
+        return print(sb, literals, literals.length);
+    }
+
+    public StringBuilder print(StringBuilder sb, int[] literals, int length) {
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            if (literals[i] < 0) {
+                sb.append('-');
+            }
+            sb.append(names[Math.abs(literals[i])]);
+        }
+        return sb;
+    }
+
+    public String print(int... literals) {
+        return print(new StringBuilder(), literals).toString();
+    }
+}
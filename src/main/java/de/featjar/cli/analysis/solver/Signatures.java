@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.solver;
+
+import java.util.List;
+
+/**
+ * A signature per variable, into which solutions are folded to tell variables apart that are not equivalent relative
+ * to a reference solution.
+ * Each solution is folded in atomically, so that two equivalent variables always have equal signatures, even while
+ * other threads fold in further solutions.
+ * Thread-safe.
+ */
+class Signatures {
+    private final long[] signatures;
+
+    Signatures(int variableCount) {
+        signatures = new long[variableCount];
+    }
+
+    /**
+     * Folds the given solution into the signatures of all variables whose value differs from the reference solution.
+     *
+     * @param reference the reference solution
+     * @param solution the solution
+     * @param random a random value identifying the solution
+     */
+    synchronized void refine(int[] reference, int[] solution, long random) {
+        for (int i = 0; i < signatures.length; i++) {
+            if (solution[i] != reference[i]) {
+                signatures[i] ^= random;
+            }
+        }
+    }
+
+    /**
+     * {@return whether the given variables have equal signatures}
+     *
+     * @param variable1 the index of the first variable
+     * @param variable2 the index of the second variable
+     */
+    synchronized boolean isEqual(int variable1, int variable2) {
+        return signatures[variable1] == signatures[variable2];
+    }
+
+    /**
+     * {@return the signatures of the given variables, all taken between the same two solutions}
+     *
+     * @param variables the indices of the variables
+     */
+    synchronized long[] get(List<Integer> variables) {
+        long[] result = new long[variables.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = signatures[variables.get(i)];
+        }
+        return result;
+    }
+
+    int getVariableCount() {
+        return signatures.length;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.solver;
+
+import de.featjar.base.data.Result;
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * Enumerates all solutions of a {@link ClauseSolver} without adding blocking clauses.
+ * The solution space is traversed depth-first by flipping one variable of the last solution at a time, so memory
+ * usage only depends on the number of variables and not on the number of solutions.
+ */
+public class SolutionEnumerator {
+    private final ClauseSolver solver;
+    private final int variableCount;
+    private final int[] assumptions;
+
+    /**
+     * Creates a solution enumerator.
+     *
+     * @param solver the solver
+     * @param assumptions the literals assumed in every query
+     */
+    public SolutionEnumerator(ClauseSolver solver, int... assumptions) {
+        this(solver, solver.getVariableCount(), assumptions);
+    }
+
+    private SolutionEnumerator(ClauseSolver solver, int variableCount, int[] assumptions) {
+        this.solver = solver;
+        this.variableCount = variableCount;
+        this.assumptions = assumptions;
+    }
+
+    /**
+     * {@return a solution enumerator that only distinguishes solutions by the first variables of the solver}
+     * Each assignment of these variables that can be extended to a solution is enumerated exactly once, which is
+     * needed if the solver has auxiliary variables that are not determined by the other variables.
+     *
+     * @param solver the solver
+     * @param variableCount the number of variables to enumerate assignments of
+     * @param assumptions the literals assumed in every query
+     */
+    public static SolutionEnumerator projected(ClauseSolver solver, int variableCount, int... assumptions) {
+        return new SolutionEnumerator(solver, variableCount, assumptions);
+    }
+
+    /**
+     * Passes each solution to the given consumer, in the order they are found.
+     * The passed array is reused for subsequent solutions, so the consumer must copy it to retain it.
+     *
+     * @param consumer the consumer, which returns {@code false} to stop the enumeration
+     * @return {@code true} if all solutions have been enumerated, {@code false} if the enumeration was stopped by
+     * the consumer, or an empty result if the solver timed out
+     */
+    public Result<Boolean> enumerate(Predicate<int[]> consumer) {
+        int base = assumptions.length;
+        int[] query = Arrays.copyOf(assumptions, base + variableCount);
+        Result<Boolean> hasSolution = solver.hasSolution(assumptions);
+        if (hasSolution.isEmpty()) {
+            return Result.empty();
+        }
+        if (!hasSolution.get()) {
+            return Result.of(Boolean.TRUE);
+        }
+        int[] solution = Arrays.copyOf(solver.getSolution(), variableCount);
+        if (!consumer.test(solution)) {
+            return Result.of(Boolean.FALSE);
+        }
+        // for each depth, all variables up to prefix[depth] are fixed and next[depth] is the next variable to flip
+        int[] prefix = new int[variableCount + 1];
+        int[] next = new int[variableCount + 1];
+        int depth = 0;
+        next[0] = variableCount;
+        while (depth >= 0) {
+            int variable = next[depth];
+            if (variable <= prefix[depth]) {
+                depth--;
+                continue;
+            }
+            next[depth] = variable - 1;
+            System.arraycopy(solution, 0, query, base, variable - 1);
+            query[base + variable - 1] = -solution[variable - 1];
+            hasSolution = solver.hasSolution(Arrays.copyOf(query, base + variable));
+            if (hasSolution.isEmpty()) {
+                return Result.empty();
+            }
+            if (hasSolution.get()) {
+                int[] newSolution = solver.getSolution();
+                System.arraycopy(newSolution, variable - 1, solution, variable - 1, variableCount - variable + 1);
+                if (!consumer.test(solution)) {
+                    return Result.of(Boolean.FALSE);
+                }
+                depth++;
+                prefix[depth] = variable;
+                next[depth] = variableCount;
+            }
+        }
+        return Result.of(Boolean.TRUE);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.batch;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.cli.Commands;
+import de.featjar.base.cli.ICommand;
+import de.featjar.base.cli.IOptionInput;
+import de.featjar.base.cli.Option;
+import de.featjar.base.data.Result;
+import de.featjar.cli.analysis.AAnalysisCommand;
+import de.featjar.cli.analysis.FormulaCache;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the commands listed in a batch script in a single process.
+ * Each line of the script is a {@link BatchEntry}.
+ * Formulas are parsed once per input file and shared between all entries, so that entries on the same input also
+ * share the computations cached in {@link FeatJAR#cache()}.
+ */
+public class BatchCommand implements ICommand {
+    @Override
+    public List<Option<?>> getOptions() {
+        return List.of(INPUT_OPTION);
+    }
+
+    @Override
+    public String getDescription() {
+        return "Runs all commands in a batch script in a single process";
+    }
+
+    @Override
+    public void run(IOptionInput optionParser) {
+        String input = optionParser.get(INPUT_OPTION).get();
+        List<BatchEntry> entries = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(input))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                BatchEntry entry = BatchEntry.parse(line);
+                if (entry != null) {
+                    entries.add(entry);
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            FeatJAR.log().error(e);
+            return;
+        }
+
+        boolean formulaCacheEnabled = FormulaCache.isEnabled();
+        FormulaCache.setEnabled(true);
+        StringBuilder summary = new StringBuilder("entry\tcommand\tinput\ttime\tstatus\n");
+        try {
+            for (int i = 0; i < entries.size(); i++) {
+                BatchEntry entry = entries.get(i);
+                FeatJAR.log().info("running entry " + (i + 1) + " of " + entries.size() + ": " + entry.getCommand());
+                final long localTime = System.nanoTime();
+                String status = runEntry(entry);
+                final long timeNeeded = System.nanoTime() - localTime;
+                summary.append(i + 1)
+                        .append('\t')
+                        .append(entry.getCommand())
+                        .append('\t')
+                        .append(entry.getInput())
+                        .append('\t')
+                        .append((timeNeeded / 1_000_000) / 1000.0)
+                        .append('\t')
+                        .append(status)
+                        .append('\n');
+            }
+        } finally {
+            FormulaCache.setEnabled(formulaCacheEnabled);
+        }
+        System.err.print(summary);
+    }
+
+    private String runEntry(BatchEntry entry) {
+        Result<ICommand> command = newCommand(entry.getCommand());
+        if (command.isEmpty()) {
+            FeatJAR.log().error("unknown command " + entry.getCommand());
+            return "unknown command";
+        }
+        try {
+            command.get().run(entry.getOptions());
+            if (command.get() instanceof AAnalysisCommand && ((AAnalysisCommand<?>) command.get()).hasFailed()) {
+                return "failed";
+            }
+            return "done";
+        } catch (Exception e) {
+            FeatJAR.log().error(e);
+            return "failed: " + e.getMessage();
+        }
+    }
+
+    /**
+     * {@return a new instance of the command with the given name}
+     * A command is identified by its extension identifier or by its simple class name, ignoring case.
+     * A new instance is created, as commands may keep state while running.
+     *
+     * @param name the name of the command
+     */
+    public static Result<ICommand> newCommand(String name) {
+        for (ICommand command : FeatJAR.extensionPoint(Commands.class).getExtensions()) {
+            if (command.getIdentifier().equals(name)
+                    || command.getClass().getSimpleName().equalsIgnoreCase(name)) {
+                try {
+                    return Result.of(command.getClass().getDeclaredConstructor().newInstance());
+                } catch (ReflectiveOperationException e) {
+                    return Result.of(command);
+                }
+            }
+        }
+        return Result.empty();
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.batch;
+
+import de.featjar.base.cli.ICommand;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A single command invocation in a batch script.
+ * An entry is either given as a command name followed by command-line style options, e.g.,
+ * {@code ComputeCoreDeadVariablesSAT4J --input model.xml --timeout 10},
+ * or as a JSON object, e.g.,
+ * {@code {"command": "ComputeCoreDeadVariablesSAT4J", "input": "model.xml", "options": {"timeout": 10}}}.
+ */
+public class BatchEntry {
+    private final String command;
+    private final OptionMap options;
+
+    public BatchEntry(String command, OptionMap options) {
+        this.command = command;
+        this.options = options;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    public OptionMap getOptions() {
+        return options;
+    }
+
+    public String getInput() {
+        return options.getValues().getOrDefault(ICommand.INPUT_OPTION.getName(), "");
+    }
+
+    /**
+     * {@return the entry in the given line, or null if the line is blank or a comment}
+     *
+     * @param line the line
+     */
+    public static BatchEntry parse(String line) {
+        line = line.trim();
+        if (line.isEmpty() || line.startsWith("#")) {
+            return null;
+        }
+        return line.startsWith("{") ? parseJson(line) : parseArguments(line);
+    }
+
+    private static BatchEntry parseArguments(String line) {
+        List<String> arguments = tokenize(line);
+        return new BatchEntry(arguments.get(0), OptionMap.parse(arguments.subList(1, arguments.size())));
+    }
+
+    private static List<String> tokenize(String line) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        boolean quoted = false, inToken = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+                inToken = true;
+            } else if (Character.isWhitespace(c) && !quoted) {
+                if (inToken) {
+                    tokens.add(token.toString());
+                    token.setLength(0);
+                    inToken = false;
+                }
+            } else {
+                token.append(c);
+                inToken = true;
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quote in " + line);
+        }
+        if (inToken) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    private static BatchEntry parseJson(String line) {
+        Object value = new JsonParser(line).parse();
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException("expected JSON object, but got " + line);
+        }
+        Map<?, ?> object = (Map<?, ?>) value;
+        Object command = object.get("command");
+        if (command == null) {
+            throw new IllegalArgumentException("missing command in " + line);
+        }
+        Map<String, String> options = new LinkedHashMap<>();
+        if (object.get("input") != null) {
+            options.put(ICommand.INPUT_OPTION.getName(), object.get("input").toString());
+        }
+        if (object.get("options") instanceof Map) {
+            ((Map<?, ?>) object.get("options"))
+                    .forEach((name, option) -> options.put(name.toString(), option.toString()));
+        }
+        return new BatchEntry(command.toString(), new OptionMap(options));
+    }
+
+    /**
+     * Parses the subset of JSON needed for batch entries: objects, strings, numbers, and literals.
+     */
+    private static class JsonParser {
+        private final String json;
+        private int position;
+
+        private JsonParser(String json) {
+            this.json = json;
+        }
+
+        private Object parse() {
+            Object value = parseValue();
+            skipWhitespace();
+            if (position != json.length()) {
+                throw error("unexpected trailing characters");
+            }
+            return value;
+        }
+
+        private Object parseValue() {
+            skipWhitespace();
+            if (position >= json.length()) {
+                throw error("unexpected end");
+            }
+            char c = json.charAt(position);
+            if (c == '{') {
+                return parseObject();
+            } else if (c == '"') {
+                return parseString();
+            } else {
+                int start = position;
+                while (position < json.length() && ",}] \t".indexOf(json.charAt(position)) < 0) {
+                    position++;
+                }
+                String literal = json.substring(start, position);
+                if (literal.isEmpty()) {
+                    throw error("expected value");
+                }
+                return literal;
+            }
+        }
+
+        private Map<String, Object> parseObject() {
+            Map<String, Object> object = new LinkedHashMap<>();
+            position++;
+            skipWhitespace();
+            if (peek() == '}') {
+                position++;
+                return object;
+            }
+            while (true) {
+                skipWhitespace();
+                if (peek() != '"') {
+                    throw error("expected key");
+                }
+                String key = parseString();
+                skipWhitespace();
+                expect(':');
+                object.put(key, parseValue());
+                skipWhitespace();
+                if (peek() == ',') {
+                    position++;
+                } else {
+                    expect('}');
+                    return object;
+                }
+            }
+        }
+
+        private String parseString() {
+            StringBuilder sb = new StringBuilder();
+            position++;
+            while (position < json.length()) {
+                char c = json.charAt(position++);
+                if (c == '"') {
+                    return sb.toString();
+                } else if (c == '\\' && position < json.length()) {
+                    char escaped = json.charAt(position++);
+                    switch (escaped) {
+                        case 'n':
+                            sb.append('\n');
+                            break;
+                        case 't':
+                            sb.append('\t');
+                            break;
+                        case 'u':
+                            sb.append(parseUnicodeEscape());
+                            break;
+                        default:
+                            sb.append(escaped);
+                    }
+                } else {
+                    sb.append(c);
+                }
+            }
+            throw error("unterminated string");
+        }
+
+        private char parseUnicodeEscape() {
+            if (position + 4 > json.length()) {
+                throw error("incomplete unicode escape");
+            }
+            int codeUnit = 0;
+            for (int i = 0; i < 4; i++) {
+                int digit = Character.digit(json.charAt(position), 16);
+                if (digit < 0) {
+                    throw error("invalid unicode escape");
+                }
+                codeUnit = 16 * codeUnit + digit;
+                position++;
+            }
+            return (char) codeUnit;
+        }
+
+        private char peek() {
+            return position < json.length() ? json.charAt(position) : '\0';
+        }
+
+        private void expect(char c) {
+            if (peek() != c) {
+                throw error("expected " + c);
+            }
+            position++;
+        }
+
+        private void skipWhitespace() {
+            while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+                position++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + position + " in " + json);
+        }
+    }
+}
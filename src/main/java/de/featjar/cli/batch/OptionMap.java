@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.batch;
+
+import de.featjar.base.cli.IOptionInput;
+import de.featjar.base.cli.Option;
+import de.featjar.base.data.Result;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Option input backed by a map from option names to unparsed values.
+ * Used to run commands from within another command, e.g., for each entry of a batch script.
+ */
+public class OptionMap implements IOptionInput {
+    private final Map<String, String> values;
+
+    public OptionMap(Map<String, String> values) {
+        this.values = values;
+    }
+
+    /**
+     * {@return an option map for the given command-line style arguments}
+     * An argument {@code --name} is followed by its value, unless it is the last argument or followed by another
+     * option, in which case it is a flag set to {@code true}.
+     *
+     * @param arguments the arguments
+     */
+    public static OptionMap parse(List<String> arguments) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < arguments.size(); i++) {
+            String argument = arguments.get(i);
+            if (!argument.startsWith("--")) {
+                throw new IllegalArgumentException("expected option, but got " + argument);
+            }
+            String name = argument.substring(2);
+            if (i + 1 < arguments.size() && !arguments.get(i + 1).startsWith("--")) {
+                values.put(name, arguments.get(++i));
+            } else {
+                values.put(name, "true");
+            }
+        }
+        return new OptionMap(values);
+    }
+
+    public Map<String, String> getValues() {
+        return values;
+    }
+
+    @Override
+    public <T> Result<T> get(Option<T> option) {
+        String value = values.get(option.getName());
+        return value != null ? option.parse(value) : option.getDefaultValue();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.cache;
+
+import de.featjar.base.data.Pair;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.BooleanClause;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary serialization of a {@link BooleanClauseList} together with its {@link VariableMap}.
+ * Integers are stored as variable-length quantities, literals additionally in zigzag encoding.
+ */
+public class BooleanRepresentationSerializer {
+    private static final int MAGIC = 0x464a4252; // FJBR
+    private static final int VERSION = 1;
+
+    private BooleanRepresentationSerializer() {}
+
+    public static void write(Pair<BooleanClauseList, VariableMap> booleanRepresentation, DataOutputStream out)
+            throws IOException {
+        BooleanClauseList clauseList = booleanRepresentation.getKey();
+        VariableMap variableMap = booleanRepresentation.getValue();
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        int variableCount = variableMap.getVariableCount();
+        writeVarInt(out, variableCount);
+        for (int i = 1; i <= variableCount; i++) {
+            out.writeUTF(variableMap.get(i).get());
+        }
+        writeVarInt(out, clauseList.getVariableCount());
+        writeVarInt(out, clauseList.size());
+        for (BooleanClause clause : clauseList.getAll()) {
+            int[] literals = clause.get();
+            writeVarInt(out, literals.length);
+            for (int literal : literals) {
+                writeVarInt(out, (literal << 1) ^ (literal >> 31));
+            }
+        }
+    }
+
+    public static Pair<BooleanClauseList, VariableMap> read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("unknown cache entry format");
+        }
+        int variableCount = readVarInt(in);
+        List<String> variableNames = new ArrayList<>(variableCount);
+        for (int i = 0; i < variableCount; i++) {
+            variableNames.add(in.readUTF());
+        }
+        int clauseListVariableCount = readVarInt(in);
+        int clauseCount = readVarInt(in);
+        List<BooleanClause> clauses = new ArrayList<>(clauseCount);
+        for (int i = 0; i < clauseCount; i++) {
+            int[] literals = new int[readVarInt(in)];
+            for (int j = 0; j < literals.length; j++) {
+                int value = readVarInt(in);
+                literals[j] = (value >>> 1) ^ -(value & 1);
+            }
+            clauses.add(new BooleanClause(literals));
+        }
+        return new Pair<>(new BooleanClauseList(clauses, clauseListVariableCount), new VariableMap(variableNames));
+    }
+
+    /**
+     * Writes a non-negative integer as a variable-length quantity of seven bits per byte.
+     */
+    public static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * {@return a non-negative integer written by {@link #writeVarInt(DataOutputStream, int)}}
+     */
+    public static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("malformed variable-length integer");
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.cache;
+
+import de.featjar.base.computation.AComputation;
+import de.featjar.base.computation.Dependency;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Pair;
+import de.featjar.base.data.Result;
+import de.featjar.base.tree.structure.ITree;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import java.util.List;
+
+/**
+ * Passes through a boolean representation and stores it in a {@link DiskCache}, so that subsequent runs on the
+ * same input can skip its computation.
+ */
+public class ComputeDiskCachedBooleanRepresentation extends AComputation<Pair<BooleanClauseList, VariableMap>> {
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    protected static final Dependency<Pair<BooleanClauseList, VariableMap>> BOOLEAN_REPRESENTATION =
+            (Dependency) Dependency.newDependency(Pair.class);
+
+    protected final DiskCache diskCache;
+    protected final String key;
+
+    public ComputeDiskCachedBooleanRepresentation(
+            IComputation<Pair<BooleanClauseList, VariableMap>> booleanRepresentation,
+            DiskCache diskCache,
+            String key) {
+        super(booleanRepresentation);
+        this.diskCache = diskCache;
+        this.key = key;
+    }
+
+    protected ComputeDiskCachedBooleanRepresentation(ComputeDiskCachedBooleanRepresentation other) {
+        super(other);
+        this.diskCache = other.diskCache;
+        this.key = other.key;
+    }
+
+    @Override
+    public Result<Pair<BooleanClauseList, VariableMap>> compute(List<Object> dependencyList, Progress progress) {
+        Pair<BooleanClauseList, VariableMap> booleanRepresentation = BOOLEAN_REPRESENTATION.get(dependencyList);
+        diskCache.store(key, booleanRepresentation, BooleanRepresentationSerializer::write);
+        return Result.of(booleanRepresentation);
+    }
+
+    @Override
+    public ITree<IComputation<?>> cloneNode() {
+        return new ComputeDiskCachedBooleanRepresentation(this);
+    }
+}
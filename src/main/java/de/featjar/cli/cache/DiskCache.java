@@ -0,0 +1,243 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.cache;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.data.Result;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Persistent cache that stores computation results as files, keyed by a hash of their input.
+ * Entries are evicted in least-recently-used order once the cache exceeds its maximum size.
+ */
+public class DiskCache {
+    /**
+     * Writes a cached value.
+     *
+     * @param <T> the type of the cached value
+     */
+    @FunctionalInterface
+    public interface Writer<T> {
+        void write(T value, DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Reads a cached value.
+     *
+     * @param <T> the type of the cached value
+     */
+    @FunctionalInterface
+    public interface Reader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+
+    public static final Path DEFAULT_DIRECTORY = Paths.get(System.getProperty("user.home"), ".featjar", "cache");
+    public static final long DEFAULT_MAXIMUM_SIZE = 512L * 1024 * 1024;
+
+    private static final String SUFFIX = ".bin";
+
+    private final Path directory;
+    private final long maximumSize;
+
+    public DiskCache() {
+        this(DEFAULT_DIRECTORY, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public DiskCache(Path directory, long maximumSize) {
+        this.directory = directory;
+        this.maximumSize = maximumSize;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * {@return a cache key for the content of the given file and the given salt}
+     * The salt identifies the computation whose result is cached, so that different computations on the same
+     * file do not share entries.
+     * Returns an empty result if the file cannot be read (e.g., when reading from standard input).
+     *
+     * @param file the file
+     * @param salt the salt
+     */
+    public Result<String> getKey(Path file, String salt) {
+        if (!Files.isRegularFile(file)) {
+            return Result.empty();
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(salt.getBytes(StandardCharsets.UTF_8));
+            try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+                byte[] buffer = new byte[1 << 16];
+                while (in.read(buffer) >= 0) {
+                    // digest is updated while reading
+                }
+            }
+            StringBuilder key = new StringBuilder();
+            for (byte b : digest.digest()) {
+                key.append(String.format("%02x", b));
+            }
+            return Result.of(key.toString());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            FeatJAR.log().warning("could not hash " + file + " for disk cache: " + e.getMessage());
+            return Result.empty();
+        }
+    }
+
+    /**
+     * {@return the cached value for the given key, if any}
+     * A successful lookup marks the entry as recently used.
+     *
+     * @param key the key
+     * @param reader the reader for the value
+     * @param <T> the type of the cached value
+     */
+    public <T> Result<T> load(String key, Reader<T> reader) {
+        Path file = getFile(key);
+        if (!Files.isRegularFile(file)) {
+            return Result.empty();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            T value = reader.read(in);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            FeatJAR.log().debug("disk cache hit for " + key);
+            return Result.of(value);
+        } catch (IOException e) {
+            FeatJAR.log().warning("discarding corrupt disk cache entry " + key + ": " + e.getMessage());
+            delete(file);
+            return Result.empty();
+        }
+    }
+
+    /**
+     * Stores a value for the given key and evicts least recently used entries if the cache has grown too large.
+     *
+     * @param key the key
+     * @param value the value
+     * @param writer the writer for the value
+     * @param <T> the type of the cached value
+     */
+    public <T> void store(String key, T value, Writer<T> writer) {
+        Path file = getFile(key);
+        try {
+            Files.createDirectories(directory);
+            Path temporaryFile = Files.createTempFile(directory, key, ".tmp");
+            try (DataOutputStream out =
+                    new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+                writer.write(value, out);
+            } catch (IOException e) {
+                delete(temporaryFile);
+                throw e;
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            FeatJAR.log().debug("stored " + key + " in disk cache");
+            evict();
+        } catch (IOException e) {
+            FeatJAR.log().warning("could not store " + key + " in disk cache: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Removes all entries from this cache.
+     */
+    public void clear() {
+        getEntries().forEach(DiskCache::delete);
+    }
+
+    private void evict() {
+        List<Path> entries = getEntries();
+        long size = entries.stream().mapToLong(DiskCache::getSize).sum();
+        entries.sort(Comparator.comparing(DiskCache::getLastModifiedTime));
+        for (Path entry : entries) {
+            if (size <= maximumSize) {
+                break;
+            }
+            size -= getSize(entry);
+            delete(entry);
+            FeatJAR.log().debug("evicted " + entry.getFileName() + " from disk cache");
+        }
+    }
+
+    private List<Path> getEntries() {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            FeatJAR.log().warning("could not list disk cache: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    private Path getFile(String key) {
+        return directory.resolve(key + SUFFIX);
+    }
+
+    private static long getSize(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static FileTime getLastModifiedTime(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            FeatJAR.log().warning("could not delete " + file + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.io;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.io.format.IFormat;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Converts a DIMACS file into a normalized DIMACS file clause by clause, without parsing it into a formula.
+ * Memory usage only depends on the length of the longest clause, so this also works for files larger than the heap.
+ * Comments (including variable names) and the problem line are copied, clauses are written one per line.
+ * The output is written to a temporary file next to it, which only replaces the output once the whole input has been
+ * converted, so that a malformed input leaves no partial output and the input may also be the output.
+ */
+public class DIMACSStreamConverter {
+    public static final Set<String> FILE_EXTENSIONS = Set.of("dimacs", "cnf");
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private FileChannel channel;
+    private OutputStream out;
+    private int[] clause = new int[64];
+    private int clauseLength;
+    private long variableCount = -1;
+    private long declaredClauseCount = -1;
+    private long clauseCount;
+
+    /**
+     * {@return whether the given conversion can be done by streaming}
+     * That is the case if a DIMACS file is converted into DIMACS.
+     * Converting into CNF beforehand is not necessary, as DIMACS already is in CNF.
+     *
+     * @param input the input
+     * @param output the output
+     * @param outputFormat the output format
+     */
+    public static boolean isApplicable(String input, String output, IFormat<?> outputFormat) {
+        if (input == null || output == null || !"dimacs".equalsIgnoreCase(outputFormat.getName())) {
+            return false;
+        }
+        Path inputFile = Paths.get(input);
+        String fileName = inputFile.getFileName().toString();
+        int extensionIndex = fileName.lastIndexOf('.');
+        return Files.isRegularFile(inputFile)
+                && extensionIndex >= 0
+                && FILE_EXTENSIONS.contains(fileName.substring(extensionIndex + 1).toLowerCase());
+    }
+
+    /**
+     * Converts the given DIMACS file.
+     *
+     * @param input the input file
+     * @param output the output file
+     * @throws IOException if the input cannot be read, is malformed, or the output cannot be written
+     */
+    public void convert(Path input, Path output) throws IOException {
+        final long localTime = System.nanoTime();
+        Path temporaryFile = output.resolveSibling(
+                "." + output.getFileName() + "." + Long.toHexString(System.nanoTime()) + ".tmp");
+        try (FileChannel inputChannel = FileChannel.open(input, StandardOpenOption.READ);
+                OutputStream outputStream = new BufferedOutputStream(
+                        Files.newOutputStream(temporaryFile, StandardOpenOption.CREATE_NEW), BUFFER_SIZE)) {
+            channel = inputChannel;
+            out = outputStream;
+            buffer.clear().flip();
+            parse();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporaryFile);
+            throw e;
+        } finally {
+            channel = null;
+            out = null;
+        }
+        try {
+            Files.move(temporaryFile, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporaryFile);
+            throw e;
+        }
+        if (declaredClauseCount >= 0 && declaredClauseCount != clauseCount) {
+            FeatJAR.log()
+                    .warning(input + " declares " + declaredClauseCount + " clauses, but contains " + clauseCount);
+        }
+        final long timeNeeded = System.nanoTime() - localTime;
+        FeatJAR.log()
+                .debug("streamed " + clauseCount + " clauses from " + input + " in "
+                        + ((timeNeeded / 1_000_000) / 1000.0) + "s");
+    }
+
+    private void parse() throws IOException {
+        int c;
+        while ((c = read()) >= 0) {
+            if (c == 'c' && clauseLength == 0) {
+                copyLine(c);
+            } else if (c == 'p' && clauseLength == 0) {
+                parseProblemLine();
+            } else if (c == '%') {
+                // end marker used by some benchmark collections
+                break;
+            } else if (c == '-' || (c >= '0' && c <= '9')) {
+                parseLiteral(c);
+            } else if (!Character.isWhitespace(c)) {
+                throw new IOException("unexpected character '" + (char) c + "' in clause " + (clauseCount + 1));
+            }
+        }
+        if (clauseLength > 0) {
+            writeClause();
+        }
+        out.flush();
+    }
+
+    private void copyLine(int c) throws IOException {
+        while (c >= 0 && c != '\n') {
+            if (c != '\r') {
+                out.write(c);
+            }
+            c = read();
+        }
+        out.write('\n');
+    }
+
+    private void parseProblemLine() throws IOException {
+        StringBuilder line = new StringBuilder("p");
+        int c;
+        while ((c = read()) >= 0 && c != '\n') {
+            line.append((char) c);
+        }
+        String[] tokens = line.toString().trim().split("\\s+");
+        if (tokens.length != 4 || !tokens[1].equals("cnf")) {
+            throw new IOException("invalid problem line: " + line);
+        }
+        try {
+            variableCount = Long.parseLong(tokens[2]);
+            declaredClauseCount = Long.parseLong(tokens[3]);
+        } catch (NumberFormatException e) {
+            throw new IOException("invalid problem line: " + line, e);
+        }
+        writeASCII("p cnf " + variableCount + " " + declaredClauseCount + "\n");
+    }
+
+    private void parseLiteral(int c) throws IOException {
+        boolean negative = c == '-';
+        long value = negative ? 0 : c - '0';
+        boolean hasDigits = !negative;
+        while ((c = read()) >= '0' && c <= '9') {
+            hasDigits = true;
+            value = value * 10 + (c - '0');
+            if (value > Integer.MAX_VALUE) {
+                throw new IOException("literal out of range in clause " + (clauseCount + 1));
+            }
+        }
+        if (c >= 0 && !Character.isWhitespace(c)) {
+            throw new IOException("unexpected character '" + (char) c + "' in clause " + (clauseCount + 1));
+        }
+        if (!hasDigits) {
+            throw new IOException("sign without variable in clause " + (clauseCount + 1));
+        }
+        if (variableCount < 0) {
+            throw new IOException("clause before problem line");
+        }
+        if (value == 0) {
+            writeClause();
+            return;
+        }
+        if (value > variableCount) {
+            throw new IOException("variable " + value + " exceeds declared count " + variableCount);
+        }
+        if (clauseLength == clause.length) {
+            clause = Arrays.copyOf(clause, 2 * clause.length);
+        }
+        clause[clauseLength++] = negative ? (int) -value : (int) value;
+    }
+
+    private void writeClause() throws IOException {
+        for (int i = 0; i < clauseLength; i++) {
+            writeInt(clause[i]);
+            out.write(' ');
+        }
+        out.write('0');
+        out.write('\n');
+        clauseLength = 0;
+        clauseCount++;
+    }
+
+    private void writeInt(int value) throws IOException {
+        if (value < 0) {
+            out.write('-');
+            value = -value;
+        }
+        if (value >= 10) {
+            writeInt(value / 10);
+        }
+        out.write('0' + value % 10);
+    }
+
+    private void writeASCII(String string) throws IOException {
+        for (int i = 0; i < string.length(); i++) {
+            out.write(string.charAt(i));
+        }
+    }
+
+    private int read() throws IOException {
+        if (!buffer.hasRemaining()) {
+            buffer.clear();
+            int count;
+            do {
+                count = channel.read(buffer);
+            } while (count == 0);
+            buffer.flip();
+            if (count < 0) {
+                return -1;
+            }
+        }
+        return buffer.get() & 0xff;
+    }
+}
@@ -30,9 +30,25 @@ import de.featjar.formula.io.FormulaFormats;
 import de.featjar.formula.structure.formula.IFormula;
 import de.featjar.formula.transformer.ComputeCNFFormula;
 import de.featjar.formula.transformer.ComputeNNFFormula;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * ...
@@ -51,14 +67,27 @@ public class FormatConverter implements ICommand {
 
     public static final Option<Boolean> DRY_RUN_OPTION = new Flag("dry-run").setDescription("Perform dry run");
 
-    public static final Option<Boolean> RECURSIVE_OPTION = new Flag("recursive").setDescription("");
+    public static final Option<Boolean> RECURSIVE_OPTION = new Flag("recursive")
+            .setDescription("Convert all files in the input directory into a mirrored output directory");
+
+    public static final Option<Integer> THREADS_OPTION = new Option<>(
+                    "threads", s -> Result.of(Integer.valueOf(s)))
+            .setDescription("Number of files converted in parallel, 0 for one per processor")
+            .setDefaultValue(0);
 
     public static final Option<Boolean> CNF_OPTION =
             new Flag("cnf").setDescription("Transform into CNF before conversion");
 
     @Override
     public List<Option<?>> getOptions() {
-        return List.of(INPUT_OPTION, OUTPUT_OPTION, OUTPUT_FORMAT_OPTION, DRY_RUN_OPTION, RECURSIVE_OPTION);
+        return List.of(
+                INPUT_OPTION,
+                OUTPUT_OPTION,
+                OUTPUT_FORMAT_OPTION,
+                DRY_RUN_OPTION,
+                RECURSIVE_OPTION,
+                CNF_OPTION,
+                THREADS_OPTION);
     }
 
     @Override
@@ -83,6 +112,11 @@ public class FormatConverter implements ICommand {
         boolean dryRun = optionParser.get(DRY_RUN_OPTION).get();
         boolean recursive = optionParser.get(RECURSIVE_OPTION).get();
         boolean CNF = optionParser.get(CNF_OPTION).get();
+        if (recursive) {
+            int threadCount = optionParser.get(THREADS_OPTION).get();
+            convertRecursively(Paths.get(input), Paths.get(output), outputFormat, CNF, dryRun, threadCount);
+            return;
+        }
         if (!Commands.isValidInput(input)) {
             throw new IllegalArgumentException("input file invalid");
         }
@@ -94,7 +128,171 @@ public class FormatConverter implements ICommand {
         }
     }
 
-    private void convert(String input, String output, IFormat<IFormula> outputFormat, boolean CNF) {
+    /**
+     * Converts all parseable files in the input directory and its subdirectories.
+     * Each file is written to the same relative path in the output directory, with the extension of the output
+     * format.
+     * Files whose output is newer than the input are skipped, and a file that fails to convert does not affect the
+     * others.
+     * Files that would be written to the same output file, e.g., because they only differ in their extension, fail
+     * without being converted.
+     * If the output directory lies inside the input directory, its files are not converted again.
+     */
+    private void convertRecursively(
+            Path inputDirectory,
+            Path outputDirectory,
+            IFormat<IFormula> outputFormat,
+            boolean CNF,
+            boolean dryRun,
+            int threadCount) {
+        if (!Files.isDirectory(inputDirectory)) {
+            throw new IllegalArgumentException("input directory invalid");
+        }
+        Set<String> inputExtensions = getFormats().stream()
+                .filter(IFormat::supportsParse)
+                .map(IFormat::getFileExtension)
+                .flatMap(Optional::stream)
+                .map(String::toLowerCase)
+                .collect(Collectors.toSet());
+        Path absoluteInputDirectory = inputDirectory.toAbsolutePath().normalize();
+        Path absoluteOutputDirectory = outputDirectory.toAbsolutePath().normalize();
+        boolean isOutputInsideInput = !absoluteOutputDirectory.equals(absoluteInputDirectory)
+                && absoluteOutputDirectory.startsWith(absoluteInputDirectory);
+        List<Path> inputFiles;
+        try (Stream<Path> files = Files.walk(inputDirectory)) {
+            inputFiles = files.filter(Files::isRegularFile)
+                    .filter(file -> inputExtensions.contains(getExtension(file)))
+                    .filter(file -> !isOutputInsideInput
+                            || !file.toAbsolutePath().normalize().startsWith(absoluteOutputDirectory))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            FeatJAR.log().error(e);
+            return;
+        }
+        int workerCount = threadCount > 0 ? threadCount : Runtime.getRuntime().availableProcessors();
+        FeatJAR.log()
+                .info("converting " + inputFiles.size() + " files in " + inputDirectory + " into "
+                        + outputFormat.getName() + " with " + workerCount + " threads");
+
+        Map<Path, List<Path>> inputFilesByOutputFile = new LinkedHashMap<>();
+        for (Path inputFile : inputFiles) {
+            inputFilesByOutputFile
+                    .computeIfAbsent(
+                            getOutputFile(inputDirectory, outputDirectory, inputFile, outputFormat),
+                            outputFile -> new ArrayList<>())
+                    .add(inputFile);
+        }
+
+        AtomicInteger convertedCount = new AtomicInteger();
+        AtomicInteger skippedCount = new AtomicInteger();
+        AtomicInteger failedCount = new AtomicInteger();
+        AtomicLong convertedBytes = new AtomicLong();
+        final long localTime = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(workerCount);
+        try {
+            List<Future<?>> futures = new ArrayList<>(inputFiles.size());
+            for (Map.Entry<Path, List<Path>> entry : inputFilesByOutputFile.entrySet()) {
+                Path outputFile = entry.getKey();
+                List<Path> collidingFiles = entry.getValue();
+                if (collidingFiles.size() > 1) {
+                    FeatJAR.log().error("not converting " + collidingFiles + " into the same file " + outputFile);
+                    failedCount.addAndGet(collidingFiles.size());
+                    continue;
+                }
+                Path inputFile = collidingFiles.get(0);
+                futures.add(executor.submit(() -> {
+                    if (isUpToDate(inputFile, outputFile)) {
+                        FeatJAR.log().debug("skipping up-to-date " + outputFile);
+                        skippedCount.incrementAndGet();
+                    } else if (dryRun) {
+                        FeatJAR.log().info("would convert " + inputFile + " into " + outputFile);
+                    } else if (convertFile(inputFile, outputFile, outputFormat, CNF)) {
+                        convertedCount.incrementAndGet();
+                        convertedBytes.addAndGet(inputFile.toFile().length());
+                    } else {
+                        failedCount.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            FeatJAR.log().error(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            FeatJAR.log().error(e);
+        } finally {
+            executor.shutdownNow();
+        }
+        final double seconds = (System.nanoTime() - localTime) / 1e9;
+        FeatJAR.log()
+                .info(String.format(
+                        "converted %d, skipped %d, failed %d files in %.3fs (%.1f files/s, %.2f MiB/s)",
+                        convertedCount.get(),
+                        skippedCount.get(),
+                        failedCount.get(),
+                        seconds,
+                        seconds > 0 ? convertedCount.get() / seconds : 0.0,
+                        seconds > 0 ? convertedBytes.get() / (1024.0 * 1024.0) / seconds : 0.0));
+    }
+
+    private boolean convertFile(Path inputFile, Path outputFile, IFormat<IFormula> outputFormat, boolean CNF) {
+        try {
+            Files.createDirectories(outputFile.toAbsolutePath().getParent());
+        } catch (IOException e) {
+            FeatJAR.log().error("could not create directory for " + outputFile + ": " + e.getMessage());
+            return false;
+        }
+        boolean converted = convert(inputFile.toString(), outputFile.toString(), outputFormat, CNF);
+        if (!converted) {
+            FeatJAR.log().error("could not convert " + inputFile);
+        }
+        return converted;
+    }
+
+    private static Path getOutputFile(
+            Path inputDirectory, Path outputDirectory, Path inputFile, IFormat<IFormula> outputFormat) {
+        Path relativeFile = inputDirectory.relativize(inputFile);
+        String fileName = relativeFile.getFileName().toString();
+        int extensionIndex = fileName.lastIndexOf('.');
+        String baseName = extensionIndex > 0 ? fileName.substring(0, extensionIndex) : fileName;
+        String outputFileName = outputFormat
+                .getFileExtension()
+                .map(extension -> baseName + "." + extension)
+                .orElse(baseName);
+        Path parent = relativeFile.getParent();
+        return parent == null
+                ? outputDirectory.resolve(outputFileName)
+                : outputDirectory.resolve(parent).resolve(outputFileName);
+    }
+
+    private static boolean isUpToDate(Path inputFile, Path outputFile) {
+        try {
+            return Files.isRegularFile(outputFile)
+                    && Files.getLastModifiedTime(outputFile).compareTo(Files.getLastModifiedTime(inputFile)) >= 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static String getExtension(Path file) {
+        String fileName = file.getFileName().toString();
+        int extensionIndex = fileName.lastIndexOf('.');
+        return extensionIndex >= 0 ? fileName.substring(extensionIndex + 1).toLowerCase() : "";
+    }
+
+    private boolean convert(String input, String output, IFormat<IFormula> outputFormat, boolean CNF) {
+        if (DIMACSStreamConverter.isApplicable(input, output, outputFormat)) {
+            try {
+                new DIMACSStreamConverter().convert(Paths.get(input), Paths.get(output));
+                return true;
+            } catch (IOException e) {
+                FeatJAR.log().error(e);
+                return false;
+            }
+        }
         try {
             final Result<IFormula> formula =
                     Commands.loadFile(input, FeatJAR.extensionPoint(FormulaFormats.class));
@@ -112,8 +310,10 @@ public class FormatConverter implements ICommand {
             }
             FeatJAR.log().debug(expression.print());
             Commands.saveFile(expression, output, outputFormat);
+            return true;
         } catch (final Exception e) {
             FeatJAR.log().error(e);
+            return false;
         }
     }
 }
@@ -0,0 +1,297 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.metrics;
+
+import de.featjar.base.FeatJAR;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Records the duration and allocated memory of each stage of a command, e.g., parsing, transformation, and solving.
+ * Stages are recorded for the thread that called {@link #start()}, so that concurrently running commands (e.g., in
+ * a server) do not mix their metrics.
+ * Allocated memory is summed over all threads of the JVM, so that it includes worker threads started by a stage,
+ * but also threads of concurrently running commands.
+ * When no recording has been started, stages are run without being measured.
+ */
+public class Metrics {
+    public static final String CACHE_HIT = "hit";
+    public static final String CACHE_MISS = "miss";
+    public static final String NO_CACHE = "";
+
+    /**
+     * A measured stage.
+     */
+    public static class Stage {
+        private final String name;
+        private final long startTime;
+        private final long duration;
+        private final long allocatedBytes;
+        private final String cache;
+        private final String thread;
+
+        public Stage(String name, long startTime, long duration, long allocatedBytes, String cache, String thread) {
+            this.name = name;
+            this.startTime = startTime;
+            this.duration = duration;
+            this.allocatedBytes = allocatedBytes;
+            this.cache = cache;
+            this.thread = thread;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * {@return the start time in milliseconds since the epoch}
+         */
+        public long getStartTime() {
+            return startTime;
+        }
+
+        /**
+         * {@return the duration in nanoseconds}
+         */
+        public long getDuration() {
+            return duration;
+        }
+
+        /**
+         * {@return the bytes allocated by all threads while running the stage, or -1 if not supported by the JVM}
+         * Threads that terminate before the stage ends are not included.
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        /**
+         * {@return {@link #CACHE_HIT} or {@link #CACHE_MISS} if the stage consulted a cache, empty otherwise}
+         */
+        public String getCache() {
+            return cache;
+        }
+
+        public String getThread() {
+            return thread;
+        }
+    }
+
+    private static final ThreadLocal<List<Stage>> stages = new ThreadLocal<>();
+
+    private Metrics() {}
+
+    /**
+     * Starts recording stages on the current thread, discarding all stages recorded before.
+     */
+    public static void start() {
+        stages.set(Collections.synchronizedList(new ArrayList<>()));
+    }
+
+    /**
+     * {@return the stages recorded on the current thread since {@link #start()}, in order of completion}
+     * Stops recording.
+     */
+    public static List<Stage> stop() {
+        List<Stage> recordedStages = stages.get();
+        stages.remove();
+        return recordedStages != null ? new ArrayList<>(recordedStages) : new ArrayList<>();
+    }
+
+    public static boolean isRecording() {
+        return stages.get() != null;
+    }
+
+    /**
+     * Runs and measures the given stage.
+     *
+     * @param name the name of the stage
+     * @param stage the stage
+     * @param <T> the type of the stage's result
+     * @return the stage's result
+     */
+    public static <T> T measure(String name, Supplier<T> stage) {
+        return measure(name, stage, result -> NO_CACHE);
+    }
+
+    /**
+     * Runs and measures the given stage, which may be answered from a cache.
+     *
+     * @param name the name of the stage
+     * @param stage the stage
+     * @param cache determines from the stage's result whether it was answered from a cache, see
+     * {@link Stage#getCache()}
+     * @param <T> the type of the stage's result
+     * @return the stage's result
+     */
+    public static <T> T measure(String name, Supplier<T> stage, Function<? super T, String> cache) {
+        List<Stage> recordedStages = stages.get();
+        if (recordedStages == null) {
+            return stage.get();
+        }
+        long startTime = System.currentTimeMillis();
+        Map<Long, Long> allocatedBytes = getAllocatedBytes();
+        long localTime = System.nanoTime();
+        T result = stage.get();
+        long duration = System.nanoTime() - localTime;
+        recordedStages.add(new Stage(
+                name,
+                startTime,
+                duration,
+                allocatedBytes == null ? -1 : getAllocatedBytesSince(allocatedBytes),
+                cache.apply(result),
+                Thread.currentThread().getName()));
+        return result;
+    }
+
+    /**
+     * Records the outcome of a cache lookup that has already happened, e.g., one that was served without running the
+     * stage at all.
+     *
+     * @param name the name of the stage
+     * @param cache {@link #CACHE_HIT} or {@link #CACHE_MISS}
+     */
+    public static void record(String name, String cache) {
+        List<Stage> recordedStages = stages.get();
+        if (recordedStages != null) {
+            recordedStages.add(new Stage(
+                    name, System.currentTimeMillis(), 0, 0, cache, Thread.currentThread().getName()));
+        }
+    }
+
+    /**
+     * Writes the given stages to a file, as JSON if its name ends with {@code .json} and as CSV otherwise.
+     *
+     * @param stages the stages
+     * @param file the file
+     */
+    public static void write(List<Stage> stages, Path file) {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            if (file.getFileName().toString().toLowerCase().endsWith(".json")) {
+                writeJSON(stages, out);
+            } else {
+                writeCSV(stages, out);
+            }
+        } catch (IOException e) {
+            FeatJAR.log().warning("could not write metrics to " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static void writeCSV(List<Stage> stages, PrintWriter out) {
+        out.println("stage,start,duration_ns,allocated_bytes,cache,thread");
+        for (Stage stage : stages) {
+            out.println(String.join(
+                    ",",
+                    quoteCSV(stage.getName()),
+                    String.valueOf(stage.getStartTime()),
+                    String.valueOf(stage.getDuration()),
+                    String.valueOf(stage.getAllocatedBytes()),
+                    stage.getCache(),
+                    quoteCSV(stage.getThread())));
+        }
+    }
+
+    private static void writeJSON(List<Stage> stages, PrintWriter out) {
+        out.println("[");
+        for (int i = 0; i < stages.size(); i++) {
+            Stage stage = stages.get(i);
+            out.printf(
+                    "  {\"stage\": %s, \"start\": %d, \"durationNs\": %d, \"allocatedBytes\": %d, \"cache\": %s,"
+                            + " \"thread\": %s}%s%n",
+                    quoteJSON(stage.getName()),
+                    stage.getStartTime(),
+                    stage.getDuration(),
+                    stage.getAllocatedBytes(),
+                    stage.getCache().isEmpty() ? "null" : quoteJSON(stage.getCache()),
+                    quoteJSON(stage.getThread()),
+                    i + 1 < stages.size() ? "," : "");
+        }
+        out.println("]");
+    }
+
+    private static String quoteCSV(String value) {
+        return value.contains(",") || value.contains("\"") ? "\"" + value.replace("\"", "\"\"") + "\"" : value;
+    }
+
+    private static String quoteJSON(String value) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * {@return the bytes allocated so far by each live thread, by thread ID, or null if not supported by the JVM}
+     */
+    private static Map<Long, Long> getAllocatedBytes() {
+        java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+            if (sunThreadMXBean.isThreadAllocatedMemorySupported()
+                    && sunThreadMXBean.isThreadAllocatedMemoryEnabled()) {
+                long[] threadIds = sunThreadMXBean.getAllThreadIds();
+                long[] threadAllocatedBytes = sunThreadMXBean.getThreadAllocatedBytes(threadIds);
+                Map<Long, Long> allocatedBytes = new HashMap<>(2 * threadIds.length);
+                for (int i = 0; i < threadIds.length; i++) {
+                    // -1 for threads that terminated in the meantime
+                    if (threadAllocatedBytes[i] >= 0) {
+                        allocatedBytes.put(threadIds[i], threadAllocatedBytes[i]);
+                    }
+                }
+                return allocatedBytes;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * {@return the bytes allocated by all live threads since the given snapshot of {@link #getAllocatedBytes()}}
+     */
+    private static long getAllocatedBytesSince(Map<Long, Long> allocatedBytes) {
+        Map<Long, Long> currentAllocatedBytes = getAllocatedBytes();
+        if (currentAllocatedBytes == null) {
+            return -1;
+        }
+        long sum = 0;
+        for (Map.Entry<Long, Long> entry : currentAllocatedBytes.entrySet()) {
+            sum += entry.getValue() - allocatedBytes.getOrDefault(entry.getKey(), 0L);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.server;
+
+import java.io.PrintStream;
+
+/**
+ * Print stream that forwards output to a stream chosen per thread.
+ * Installed as {@link System#out} and {@link System#err}, it allows concurrently running commands to each print
+ * into their own buffer.
+ * Threads started by a routed thread inherit its route, so that the output of a command's worker threads ends up in
+ * the same buffer. Once the route is removed, such threads print to the fallback stream again.
+ * Threads of pools created before the route was set, such as shared process pools, print to the fallback stream.
+ */
+public class RoutingPrintStream extends PrintStream {
+    private final PrintStream fallback;
+    private final InheritableThreadLocal<Route> target = new InheritableThreadLocal<>();
+
+    /**
+     * A route shared by a thread and all threads it started, so that removing it also affects the latter.
+     */
+    private static class Route {
+        private volatile PrintStream stream;
+
+        private Route(PrintStream stream) {
+            this.stream = stream;
+        }
+    }
+
+    public RoutingPrintStream(PrintStream fallback) {
+        super(fallback, true);
+        this.fallback = fallback;
+    }
+
+    public PrintStream getFallback() {
+        return fallback;
+    }
+
+    /**
+     * Forwards all output of the current thread and the threads it starts to the given stream.
+     *
+     * @param stream the stream, or {@code null} to forward to the fallback stream again
+     */
+    public void route(PrintStream stream) {
+        Route route = target.get();
+        if (route != null) {
+            route.stream = null;
+        }
+        if (stream == null) {
+            target.remove();
+        } else {
+            target.set(new Route(stream));
+        }
+    }
+
+    private PrintStream getTarget() {
+        Route route = target.get();
+        PrintStream stream = route != null ? route.stream : null;
+        return stream != null ? stream : fallback;
+    }
+
+    @Override
+    public void write(int b) {
+        getTarget().write(b);
+    }
+
+    @Override
+    public void write(byte[] buffer, int offset, int length) {
+        getTarget().write(buffer, offset, length);
+    }
+
+    @Override
+    public void flush() {
+        getTarget().flush();
+    }
+}
@@ -0,0 +1,342 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import de.featjar.base.FeatJAR;
+import de.featjar.base.cli.Commands;
+import de.featjar.base.cli.ICommand;
+import de.featjar.base.cli.IOptionInput;
+import de.featjar.base.cli.Option;
+import de.featjar.base.data.Result;
+import de.featjar.cli.analysis.AAnalysisCommand;
+import de.featjar.cli.analysis.ADDNNFAnalysisCommand;
+import de.featjar.cli.analysis.ASharpSATAnalysisCommand;
+import de.featjar.cli.analysis.ComputeSolutionCountPortfolio;
+import de.featjar.cli.analysis.ComputeSolutionsSAT4J;
+import de.featjar.cli.analysis.FormulaCache;
+import de.featjar.cli.batch.BatchCommand;
+import de.featjar.cli.batch.OptionMap;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves all registered analysis commands over HTTP on the loopback interface.
+ * A {@code POST} request to {@code /<command>?input=<file>&<option>=<value>&<flag>} runs the given command and
+ * responds with its output.
+ * Every request must pass the token given by {@link #TOKEN_OPTION}, or logged on start, in an
+ * {@code Authorization: Bearer <token>} header and address the server as localhost, so that neither other local
+ * users nor web pages opened in a browser can run commands.
+ * Commands and options that write files, start processes, or connect to other hosts are refused.
+ * Parsed formulas and their boolean representations stay in memory between requests (see {@link FormulaCache}),
+ * so that repeated queries on the same model only pay for solving.
+ * {@code /models} lists the resident formulas with their estimated memory usage, a {@code DELETE} request to
+ * {@code /models?input=<file>} evicts a formula.
+ * Formulas that have not been queried for a while are evicted automatically.
+ */
+public class ServerCommand implements ICommand {
+    public static final Option<Integer> PORT_OPTION = new Option<>("port", s -> Result.of(Integer.valueOf(s)))
+            .setDescription("Port to listen on")
+            .setDefaultValue(8642);
+
+    public static final Option<Long> IDLE_TIMEOUT_OPTION = new Option<>(
+                    "idle-timeout", s -> Result.of(Long.valueOf(s)))
+            .setDescription("Time in seconds after which an unused formula is evicted")
+            .setDefaultValue(600L);
+
+    public static final Option<String> TOKEN_OPTION = new Option<>("token", Result::of)
+            .setDescription(
+                    "Token that each request must pass as \"Authorization: Bearer <token>\". Random by default");
+
+    /**
+     * Options that write files, start processes, or connect to other hosts, and thus are refused over HTTP.
+     */
+    private static final Set<String> REFUSED_OPTIONS = Set.of(
+            AAnalysisCommand.METRICS_OPTION.getName(),
+            AAnalysisCommand.BROWSE_CACHE_OPTION.getName(),
+            ADDNNFAnalysisCommand.DDNNF_OPTION.getName(),
+            ComputeSolutionCountPortfolio.STATISTICS_OPTION.getName(),
+            ASharpSATAnalysisCommand.SHARPSAT_BINARY_OPTION.getName(),
+            ComputeSolutionsSAT4J.WORKERS_OPTION.getName(),
+            ComputeSolutionsSAT4J.WORKER_ADDRESSES_OPTION.getName());
+
+    private static final Set<String> LOOPBACK_HOSTS = Set.of("localhost", "127.0.0.1", "[::1]");
+
+    @Override
+    public List<Option<?>> getOptions() {
+        return List.of(PORT_OPTION, IDLE_TIMEOUT_OPTION, TOKEN_OPTION);
+    }
+
+    @Override
+    public String getDescription() {
+        return "Serves all commands over HTTP on localhost, keeping parsed formulas in memory";
+    }
+
+    @Override
+    public void run(IOptionInput optionParser) {
+        int port = optionParser.get(PORT_OPTION).get();
+        Duration idleTimeout = Duration.ofSeconds(optionParser.get(IDLE_TIMEOUT_OPTION).get());
+        String token = optionParser.get(TOKEN_OPTION).orElse(newToken());
+
+        RoutingPrintStream out = new RoutingPrintStream(System.out);
+        RoutingPrintStream err = new RoutingPrintStream(System.err);
+        HttpServer server;
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException e) {
+            FeatJAR.log().error(e);
+            return;
+        }
+        ExecutorService executor = newExecutor();
+        ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor();
+        CountDownLatch stopped = new CountDownLatch(1);
+
+        server.createContext("/", exchange -> handle(exchange, token, out, err));
+        server.setExecutor(executor);
+        FormulaCache.setEnabled(true);
+        System.setOut(out);
+        System.setErr(err);
+        evictor.scheduleAtFixedRate(
+                () -> FormulaCache.evictIdle(idleTimeout),
+                idleTimeout.toSeconds(),
+                Math.max(1, idleTimeout.toSeconds() / 10),
+                TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(0);
+            stopped.countDown();
+        }));
+        server.start();
+        FeatJAR.log().info("listening on http://localhost:" + server.getAddress().getPort());
+        if (optionParser.get(TOKEN_OPTION).isEmpty()) {
+            FeatJAR.log().info("token: " + token);
+        }
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            server.stop(0);
+            evictor.shutdownNow();
+            executor.shutdownNow();
+            System.setOut(out.getFallback());
+            System.setErr(err.getFallback());
+            FormulaCache.setEnabled(false);
+        }
+    }
+
+    /**
+     * {@return an executor that runs each request on its own virtual thread}
+     * Falls back to a cached thread pool on Java versions without virtual threads.
+     */
+    private static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService)
+                    Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            FeatJAR.log().debug("virtual threads not available, using platform threads");
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * {@return a random token}
+     */
+    private static String newToken() {
+        byte[] bytes = new byte[24];
+        new SecureRandom().nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private void handle(HttpExchange exchange, String token, RoutingPrintStream out, RoutingPrintStream err)
+            throws IOException {
+        try {
+            if (!isLoopbackHost(exchange.getRequestHeaders().getFirst("Host"))) {
+                respond(exchange, 403, "only requests to localhost are allowed\n");
+                return;
+            }
+            String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+            if (authorization == null
+                    || !MessageDigest.isEqual(
+                            authorization.getBytes(StandardCharsets.UTF_8),
+                            ("Bearer " + token).getBytes(StandardCharsets.UTF_8))) {
+                respond(exchange, 401, "missing or wrong token\n");
+                return;
+            }
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            Map<String, String> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+            if (path.equals("/") || path.equals("/commands")) {
+                StringBuilder sb = new StringBuilder();
+                for (ICommand command : FeatJAR.extensionPoint(Commands.class).getExtensions()) {
+                    if (!(command instanceof AAnalysisCommand)) {
+                        continue;
+                    }
+                    sb.append(command.getClass().getSimpleName())
+                            .append('\t')
+                            .append(command.getDescription())
+                            .append('\n');
+                }
+                respond(exchange, 200, sb.toString());
+            } else if (path.equals("/models")) {
+                handleModels(exchange, parameters);
+            } else if (!method.equals("POST")) {
+                exchange.getResponseHeaders().add("Allow", "POST");
+                respond(exchange, 405, "commands must be run with POST\n");
+            } else {
+                handleCommand(exchange, path.substring(1), parameters, out, err);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleModels(HttpExchange exchange, Map<String, String> parameters) throws IOException {
+        if (exchange.getRequestMethod().equals("DELETE")) {
+            String input = parameters.get(INPUT_OPTION.getName());
+            boolean evicted = input != null && FormulaCache.evict(input);
+            respond(exchange, evicted ? 200 : 404, evicted ? "evicted " + input + "\n" : "not found\n");
+            return;
+        }
+        StringBuilder sb = new StringBuilder("input\testimated bytes\tidle seconds\n");
+        long totalSize = 0;
+        for (FormulaCache.Entry entry : FormulaCache.getEntries()) {
+            long size = entry.getEstimatedSize();
+            totalSize += size;
+            sb.append(entry.getInput())
+                    .append('\t')
+                    .append(size)
+                    .append('\t')
+                    .append(entry.getIdleTime().toSeconds())
+                    .append('\n');
+        }
+        sb.append("total\t").append(totalSize).append('\t').append('\n');
+        respond(exchange, 200, sb.toString());
+    }
+
+    private void handleCommand(
+            HttpExchange exchange,
+            String name,
+            Map<String, String> parameters,
+            RoutingPrintStream out,
+            RoutingPrintStream err)
+            throws IOException {
+        Result<ICommand> command = BatchCommand.newCommand(name);
+        if (command.isEmpty() || !(command.get() instanceof AAnalysisCommand)) {
+            respond(exchange, 404, "unknown command " + name + "\n");
+            return;
+        }
+        for (String option : parameters.keySet()) {
+            if (REFUSED_OPTIONS.contains(option)) {
+                respond(exchange, 403, "option " + option + " is not available over HTTP\n");
+                return;
+            }
+        }
+        ByteArrayOutputStream outBuffer = new ByteArrayOutputStream();
+        ByteArrayOutputStream errBuffer = new ByteArrayOutputStream();
+        out.route(new PrintStream(outBuffer, true, StandardCharsets.UTF_8));
+        err.route(new PrintStream(errBuffer, true, StandardCharsets.UTF_8));
+        int status = 200;
+        final long localTime = System.nanoTime();
+        try {
+            command.get().run(new OptionMap(parameters));
+        } catch (Exception e) {
+            FeatJAR.log().error(e);
+            errBuffer.writeBytes(String.valueOf(e).getBytes(StandardCharsets.UTF_8));
+            status = 500;
+        } finally {
+            out.route(null);
+            err.route(null);
+        }
+        final long timeNeeded = System.nanoTime() - localTime;
+        exchange.getResponseHeaders().add("X-Time-Needed", String.valueOf((timeNeeded / 1_000_000) / 1000.0));
+        if (status == 200 && outBuffer.size() == 0 && errBuffer.size() > 0) {
+            status = 422;
+        }
+        respond(
+                exchange,
+                status,
+                status == 200
+                        ? outBuffer.toString(StandardCharsets.UTF_8)
+                        : errBuffer.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * {@return whether the given Host header addresses the loopback interface}
+     * Requests from web pages to other host names resolving to the loopback interface are thus refused.
+     */
+    private static boolean isLoopbackHost(String host) {
+        if (host == null) {
+            return false;
+        }
+        int portIndex = host.lastIndexOf(':');
+        if (portIndex >= 0 && portIndex > host.lastIndexOf(']')) {
+            host = host.substring(0, portIndex);
+        }
+        return LOOPBACK_HOSTS.contains(host.toLowerCase());
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        if (query == null || query.isEmpty()) {
+            return parameters;
+        }
+        for (String parameter : query.split("&")) {
+            int index = parameter.indexOf('=');
+            if (index < 0) {
+                parameters.put(URLDecoder.decode(parameter, StandardCharsets.UTF_8), "true");
+            } else {
+                parameters.put(
+                        URLDecoder.decode(parameter.substring(0, index), StandardCharsets.UTF_8),
+                        URLDecoder.decode(parameter.substring(index + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.transformer;
+
+import de.featjar.formula.analysis.VariableMap;
+import java.util.Arrays;
+
+/**
+ * Identifies the auxiliary variables introduced by {@link ComputeTseitinBooleanRepresentation}.
+ * Auxiliary variables are always numbered after all original variables.
+ */
+public class AuxiliaryVariables {
+    public static final String PREFIX = "__aux_";
+
+    private AuxiliaryVariables() {}
+
+    public static boolean isAuxiliary(String variableName) {
+        return variableName.startsWith(PREFIX);
+    }
+
+    /**
+     * {@return the number of variables in the given variable map that are not auxiliary}
+     *
+     * @param variableMap the variable map
+     */
+    public static int getOriginalVariableCount(VariableMap variableMap) {
+        int variableCount = variableMap.getVariableCount();
+        for (int i = 1; i <= variableCount; i++) {
+            if (isAuxiliary(variableMap.get(i).get())) {
+                return i - 1;
+            }
+        }
+        return variableCount;
+    }
+
+    /**
+     * {@return the given literals without those of auxiliary variables}
+     *
+     * @param literals the literals
+     * @param originalVariableCount the number of original variables
+     */
+    public static int[] removeAuxiliaryLiterals(int[] literals, int originalVariableCount) {
+        return Arrays.stream(literals)
+                .filter(literal -> Math.abs(literal) <= originalVariableCount)
+                .toArray();
+    }
+}
@@ -0,0 +1,479 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.transformer;
+
+import de.featjar.formula.analysis.bool.BooleanClause;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Simplifies a {@link BooleanClauseList} by unit propagation, subsumption, self-subsuming resolution, and
+ * (optionally) bounded variable elimination.
+ * Without variable elimination, the simplified clause list is equivalent to the original one, so that all analyses
+ * (including counting) yield the same result.
+ * Variable elimination only preserves satisfiability, solutions can be mapped back with the
+ * {@link ReconstructionStack}.
+ * Variables keep their indices, fixed variables are kept as unit clauses.
+ */
+public class CNFPreprocessor {
+    /**
+     * Maximum number of resolvent pairs considered when eliminating a variable.
+     */
+    public static final int MAXIMUM_RESOLUTION_PAIRS = 256;
+
+    /**
+     * Maximum length of a resolvent added when eliminating a variable.
+     */
+    public static final int MAXIMUM_RESOLVENT_LENGTH = 16;
+
+    private final int variableCount;
+    private final boolean[] frozen;
+    private final List<int[]> clauses = new ArrayList<>();
+    private final List<List<Integer>> occurrences;
+    private final int[] values;
+    private final ArrayDeque<Integer> units = new ArrayDeque<>();
+    private final ReconstructionStack reconstructionStack = new ReconstructionStack();
+    private final int[] marks;
+    private int mark;
+    private boolean unsatisfiable;
+    private boolean[] touched;
+    private final List<Integer> touchedVariables = new ArrayList<>();
+
+    private int clauseCount;
+    private int subsumedClauseCount;
+    private int strengthenedClauseCount;
+
+    /**
+     * Creates a preprocessor.
+     *
+     * @param clauseList the clause list
+     * @param frozenVariables variables that must not be eliminated, e.g., because they are assumed later on
+     */
+    public CNFPreprocessor(BooleanClauseList clauseList, int... frozenVariables) {
+        variableCount = clauseList.getVariableCount();
+        frozen = new boolean[variableCount + 1];
+        for (int variable : frozenVariables) {
+            if (variable <= variableCount) {
+                frozen[variable] = true;
+            }
+        }
+        occurrences = new ArrayList<>(2 * variableCount + 2);
+        for (int i = 0; i < 2 * variableCount + 2; i++) {
+            occurrences.add(new ArrayList<>());
+        }
+        values = new int[variableCount + 1];
+        marks = new int[2 * variableCount + 2];
+        for (BooleanClause clause : clauseList.getAll()) {
+            addClause(clause.get());
+        }
+    }
+
+    /**
+     * Propagates units and removes subsumed clauses and literals.
+     * The result is equivalent to the original clause list.
+     */
+    public void simplify() {
+        propagate();
+        subsume();
+        propagate();
+    }
+
+    /**
+     * Eliminates variables whose elimination by resolution does not increase the number of clauses.
+     * The result is satisfiable if and only if the original clause list is.
+     */
+    public void eliminateVariables() {
+        propagate();
+        int[] candidates = IntStream.rangeClosed(1, variableCount)
+                .filter(variable -> !frozen[variable])
+                .boxed()
+                .sorted(Comparator.comparingLong(variable -> (long) occurrences.get(index(variable)).size()
+                        * occurrences.get(index(-variable)).size()))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        for (int variable : candidates) {
+            if (unsatisfiable) {
+                return;
+            }
+            if (values[variable] == 0) {
+                eliminate(variable, true);
+                propagate();
+            }
+        }
+    }
+
+    /**
+     * Eliminates all given variables, regardless of how many clauses this adds.
+     * The result is equivalent to the original clause list with the given variables existentially quantified, that
+     * is, its solutions are exactly the original solutions projected onto the other variables.
+     * Eliminated variables may still occur in unit clauses if they are fixed.
+     *
+     * @param variables the variables to eliminate
+     * @param maximumClauseCount the number of clauses above which elimination is aborted
+     * @return whether all variables were eliminated, if not, the clause list is only satisfiability-equivalent
+     */
+    public boolean eliminateVariables(IntPredicate variables, long maximumClauseCount) {
+        propagate();
+        boolean[] queued = new boolean[variableCount + 1];
+        PriorityQueue<long[]> queue = new PriorityQueue<>(Comparator.comparingLong(entry -> entry[0]));
+        for (int variable = 1; variable <= variableCount; variable++) {
+            if (variables.test(variable)) {
+                queued[variable] = true;
+                queue.add(new long[] {getResolutionPairCount(variable), variable});
+            }
+        }
+        touched = new boolean[variableCount + 1];
+        try {
+            int clauseCountAtLastSubsumption = clauseCount;
+            while (!queue.isEmpty() && !unsatisfiable) {
+                long[] entry = queue.poll();
+                int variable = (int) entry[1];
+                // scores grow by added resolvents and shrink by removed clauses and literals, so each change queues
+                // a new entry for the variable and entries with an outdated score are skipped
+                if (!queued[variable] || values[variable] != 0 || entry[0] != getResolutionPairCount(variable)) {
+                    continue;
+                }
+                queued[variable] = false;
+                eliminate(variable, false);
+                propagate();
+                if (clauseCount > maximumClauseCount) {
+                    return false;
+                }
+                if (clauseCount > 2 * clauseCountAtLastSubsumption) {
+                    subsume();
+                    propagate();
+                    clauseCountAtLastSubsumption = clauseCount;
+                }
+                for (int touchedVariable : touchedVariables) {
+                    touched[touchedVariable] = false;
+                    if (queued[touchedVariable] && values[touchedVariable] == 0) {
+                        queue.add(new long[] {getResolutionPairCount(touchedVariable), touchedVariable});
+                    }
+                }
+                touchedVariables.clear();
+            }
+            return true;
+        } finally {
+            touched = null;
+            touchedVariables.clear();
+        }
+    }
+
+    private long getResolutionPairCount(int variable) {
+        return (long) getClauses(variable).size() * getClauses(-variable).size();
+    }
+
+    /**
+     * {@return the simplified clause list}
+     */
+    public BooleanClauseList getClauseList() {
+        List<BooleanClause> booleanClauses = new ArrayList<>();
+        if (unsatisfiable) {
+            // an obviously unsatisfiable clause list, as not all solvers accept empty clauses
+            if (variableCount > 0) {
+                booleanClauses.add(new BooleanClause(1));
+                booleanClauses.add(new BooleanClause(-1));
+            } else {
+                booleanClauses.add(new BooleanClause());
+            }
+            return new BooleanClauseList(booleanClauses, variableCount);
+        }
+        for (int variable = 1; variable <= variableCount; variable++) {
+            if (values[variable] != 0) {
+                booleanClauses.add(new BooleanClause(values[variable] * variable));
+            }
+        }
+        for (int[] clause : clauses) {
+            if (clause != null) {
+                booleanClauses.add(new BooleanClause(clause));
+            }
+        }
+        return new BooleanClauseList(booleanClauses, variableCount);
+    }
+
+    public ReconstructionStack getReconstructionStack() {
+        return reconstructionStack;
+    }
+
+    public boolean isUnsatisfiable() {
+        return unsatisfiable;
+    }
+
+    public int getFixedVariableCount() {
+        return (int) Arrays.stream(values).filter(value -> value != 0).count();
+    }
+
+    public int getEliminatedVariableCount() {
+        return reconstructionStack.size();
+    }
+
+    public int getSubsumedClauseCount() {
+        return subsumedClauseCount;
+    }
+
+    public int getStrengthenedClauseCount() {
+        return strengthenedClauseCount;
+    }
+
+    private void addClause(int[] literals) {
+        int[] clause = Arrays.stream(literals)
+                .filter(literal -> values[Math.abs(literal)] != -Integer.signum(literal))
+                .distinct()
+                .boxed()
+                .sorted(Comparator.comparingInt(literal -> Math.abs(literal)))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        for (int i = 0; i < clause.length; i++) {
+            if (values[Math.abs(clause[i])] == Integer.signum(clause[i])
+                    || (i > 0 && clause[i] == -clause[i - 1])) {
+                // satisfied or tautological
+                return;
+            }
+        }
+        if (clause.length == 0) {
+            unsatisfiable = true;
+        } else if (clause.length == 1) {
+            assign(clause[0]);
+        } else {
+            int clauseIndex = clauses.size();
+            clauses.add(clause);
+            clauseCount++;
+            touch(clause);
+            for (int literal : clause) {
+                occurrences.get(index(literal)).add(clauseIndex);
+            }
+        }
+    }
+
+    private void assign(int literal) {
+        int variable = Math.abs(literal);
+        if (values[variable] == 0) {
+            values[variable] = Integer.signum(literal);
+            units.add(literal);
+        } else if (values[variable] != Integer.signum(literal)) {
+            unsatisfiable = true;
+        }
+    }
+
+    private void removeClause(int clauseIndex) {
+        touch(clauses.get(clauseIndex));
+        clauses.set(clauseIndex, null);
+        clauseCount--;
+    }
+
+    private void propagate() {
+        while (!unsatisfiable && !units.isEmpty()) {
+            int literal = units.poll();
+            for (int clauseIndex : occurrences.get(index(literal))) {
+                if (contains(clauses.get(clauseIndex), literal)) {
+                    removeClause(clauseIndex);
+                }
+            }
+            for (int clauseIndex : occurrences.get(index(-literal))) {
+                if (contains(clauses.get(clauseIndex), -literal)) {
+                    removeLiteral(clauseIndex, -literal);
+                }
+            }
+        }
+    }
+
+    private void removeLiteral(int clauseIndex, int literal) {
+        int[] clause = clauses.get(clauseIndex);
+        int[] newClause = Arrays.stream(clause).filter(l -> l != literal).toArray();
+        if (newClause.length == 1) {
+            removeClause(clauseIndex);
+            assign(newClause[0]);
+        } else {
+            clauses.set(clauseIndex, newClause);
+            touch(literal);
+        }
+    }
+
+    /**
+     * Records that the scores of the variables in the given literals have changed while eliminating variables.
+     */
+    private void touch(int... literals) {
+        if (touched == null) {
+            return;
+        }
+        for (int literal : literals) {
+            int variable = Math.abs(literal);
+            if (!touched[variable]) {
+                touched[variable] = true;
+                touchedVariables.add(variable);
+            }
+        }
+    }
+
+    private void subsume() {
+        int[] clauseIndices = IntStream.range(0, clauses.size())
+                .filter(clauseIndex -> clauses.get(clauseIndex) != null)
+                .boxed()
+                .sorted(Comparator.comparingInt(clauseIndex -> clauses.get(clauseIndex).length))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        for (int clauseIndex : clauseIndices) {
+            int[] clause = clauses.get(clauseIndex);
+            if (clause == null || unsatisfiable) {
+                continue;
+            }
+            mark++;
+            int rarestLiteral = clause[0];
+            for (int literal : clause) {
+                marks[index(literal)] = mark;
+                if (occurrences.get(index(literal)).size()
+                        < occurrences.get(index(rarestLiteral)).size()) {
+                    rarestLiteral = literal;
+                }
+            }
+            // remove clauses that contain all literals of this clause
+            for (int otherIndex : occurrences.get(index(rarestLiteral))) {
+                int[] otherClause = clauses.get(otherIndex);
+                if (otherIndex != clauseIndex
+                        && otherClause != null
+                        && otherClause.length >= clause.length
+                        && countMarked(otherClause) == clause.length) {
+                    removeClause(otherIndex);
+                    subsumedClauseCount++;
+                }
+            }
+            // remove the negation of a literal of this clause from clauses that contain all its other literals
+            for (int literal : clause) {
+                for (int otherIndex : occurrences.get(index(-literal))) {
+                    int[] otherClause = clauses.get(otherIndex);
+                    if (otherIndex != clauseIndex
+                            && otherClause != null
+                            && otherClause.length >= clause.length
+                            && contains(otherClause, -literal)
+                            && countMarked(otherClause) == clause.length - 1) {
+                        removeLiteral(otherIndex, -literal);
+                        strengthenedClauseCount++;
+                    }
+                }
+            }
+        }
+    }
+
+    private void eliminate(int variable, boolean bounded) {
+        List<int[]> positiveClauses = getClauses(variable);
+        List<int[]> negativeClauses = getClauses(-variable);
+        if (positiveClauses.isEmpty() && negativeClauses.isEmpty()) {
+            return;
+        }
+        if (bounded && positiveClauses.size() * negativeClauses.size() > MAXIMUM_RESOLUTION_PAIRS) {
+            return;
+        }
+        List<int[]> resolvents = new ArrayList<>();
+        for (int[] positiveClause : positiveClauses) {
+            for (int[] negativeClause : negativeClauses) {
+                int[] resolvent = resolve(positiveClause, negativeClause, variable);
+                if (resolvent == null) {
+                    continue;
+                }
+                if (bounded
+                        && (resolvent.length > MAXIMUM_RESOLVENT_LENGTH
+                                || resolvents.size() >= positiveClauses.size() + negativeClauses.size())) {
+                    return;
+                }
+                resolvents.add(resolvent);
+            }
+        }
+        List<int[]> removedClauses = new ArrayList<>(positiveClauses);
+        removedClauses.addAll(negativeClauses);
+        reconstructionStack.push(variable, removedClauses);
+        for (int literal : new int[] {variable, -variable}) {
+            for (int clauseIndex : occurrences.get(index(literal))) {
+                if (contains(clauses.get(clauseIndex), literal)) {
+                    removeClause(clauseIndex);
+                }
+            }
+        }
+        for (int[] resolvent : resolvents) {
+            addClause(resolvent);
+        }
+    }
+
+    private List<int[]> getClauses(int literal) {
+        List<int[]> literalClauses = new ArrayList<>();
+        for (int clauseIndex : occurrences.get(index(literal))) {
+            int[] clause = clauses.get(clauseIndex);
+            if (contains(clause, literal)) {
+                literalClauses.add(clause);
+            }
+        }
+        return literalClauses;
+    }
+
+    /**
+     * {@return the resolvent of the given clauses on the given variable, or null if it is tautological}
+     */
+    private int[] resolve(int[] positiveClause, int[] negativeClause, int variable) {
+        mark++;
+        int length = 0;
+        int[] resolvent = new int[positiveClause.length + negativeClause.length - 2];
+        for (int[] clause : new int[][] {positiveClause, negativeClause}) {
+            for (int literal : clause) {
+                if (Math.abs(literal) == variable || marks[index(literal)] == mark) {
+                    continue;
+                }
+                if (marks[index(-literal)] == mark) {
+                    return null;
+                }
+                marks[index(literal)] = mark;
+                resolvent[length++] = literal;
+            }
+        }
+        return Arrays.copyOf(resolvent, length);
+    }
+
+    private int countMarked(int[] clause) {
+        int count = 0;
+        for (int literal : clause) {
+            if (marks[index(literal)] == mark) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean contains(int[] clause, int literal) {
+        if (clause == null) {
+            return false;
+        }
+        for (int clauseLiteral : clause) {
+            if (clauseLiteral == literal) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int index(int literal) {
+        return literal > 0 ? 2 * literal : -2 * literal + 1;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.transformer;
+
+/**
+ * Strategy for transforming a formula into conjunctive normal form.
+ */
+public enum CNFStrategy {
+    /**
+     * Distributes disjunctions over conjunctions, which yields an equivalent formula, but may blow up exponentially.
+     */
+    DISTRIBUTIVE,
+    /**
+     * Introduces an auxiliary variable that is equivalent to each non-trivial subformula.
+     * The result is equisatisfiable and has the same number of solutions as the original formula.
+     */
+    TSEITIN,
+    /**
+     * Like {@link #TSEITIN}, but only encodes the implication from each auxiliary variable to its subformula.
+     * The result is smaller and equisatisfiable, but may have more solutions than the original formula.
+     */
+    PLAISTED_GREENBAUM,
+    /**
+     * Distributes small subformulas and introduces auxiliary variables as in {@link #TSEITIN} only for subformulas
+     * above a size threshold.
+     */
+    HYBRID;
+
+    public static CNFStrategy parse(String name) {
+        return valueOf(name.toUpperCase().replace('-', '_'));
+    }
+
+    /**
+     * {@return whether this strategy preserves the number of solutions}
+     */
+    public boolean isCountPreserving() {
+        return this != PLAISTED_GREENBAUM;
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase().replace('_', '-');
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.transformer;
+
+import de.featjar.base.computation.AComputation;
+import de.featjar.base.computation.Dependency;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Pair;
+import de.featjar.base.data.Result;
+import de.featjar.base.tree.structure.ITree;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.BooleanClause;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import de.featjar.formula.structure.formula.IFormula;
+import de.featjar.formula.structure.formula.connective.And;
+import de.featjar.formula.structure.formula.connective.Or;
+import de.featjar.formula.structure.formula.predicate.Literal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Translates a boolean clause list back into a formula in conjunctive normal form, e.g., to pass the result of
+ * {@link ComputeTseitinBooleanRepresentation} to analyses that expect a formula.
+ */
+public class ComputeCNFFormulaOfBooleanRepresentation extends AComputation<IFormula> {
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    protected static final Dependency<Pair<BooleanClauseList, VariableMap>> BOOLEAN_REPRESENTATION =
+            (Dependency) Dependency.newDependency(Pair.class);
+
+    public ComputeCNFFormulaOfBooleanRepresentation(
+            IComputation<Pair<BooleanClauseList, VariableMap>> booleanRepresentation) {
+        super(booleanRepresentation);
+    }
+
+    protected ComputeCNFFormulaOfBooleanRepresentation(ComputeCNFFormulaOfBooleanRepresentation other) {
+        super(other);
+    }
+
+    @Override
+    public Result<IFormula> compute(List<Object> dependencyList, Progress progress) {
+        Pair<BooleanClauseList, VariableMap> booleanRepresentation = BOOLEAN_REPRESENTATION.get(dependencyList);
+        VariableMap variableMap = booleanRepresentation.getValue();
+        List<IFormula> clauses = new ArrayList<>(booleanRepresentation.getKey().size());
+        for (BooleanClause clause : booleanRepresentation.getKey().getAll()) {
+            List<IFormula> literals = new ArrayList<>(clause.get().length);
+            for (int literal : clause.get()) {
+                literals.add(new Literal(literal > 0, variableMap.get(Math.abs(literal)).get()));
+            }
+            clauses.add(new Or(literals));
+        }
+        return Result.of(new And(clauses));
+    }
+
+    @Override
+    public ITree<IComputation<?>> cloneNode() {
+        return new ComputeCNFFormulaOfBooleanRepresentation(this);
+    }
+}
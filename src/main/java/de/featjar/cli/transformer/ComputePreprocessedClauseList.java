@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.transformer;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.computation.AComputation;
+import de.featjar.base.computation.Dependency;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Pair;
+import de.featjar.base.data.Result;
+import de.featjar.base.tree.structure.ITree;
+import de.featjar.formula.analysis.bool.BooleanAssignment;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Simplifies a clause list with {@link CNFPreprocessor}.
+ * Variables of the assumed assignment and clauses are never eliminated, so that the simplified clause list can be
+ * queried under the same assumptions.
+ * Results in the simplified clause list and a {@link ReconstructionStack}, which is empty unless variables are
+ * eliminated.
+ */
+public class ComputePreprocessedClauseList extends AComputation<Pair<BooleanClauseList, ReconstructionStack>> {
+    protected static final Dependency<BooleanClauseList> BOOLEAN_CLAUSE_LIST =
+            Dependency.newDependency(BooleanClauseList.class);
+    protected static final Dependency<BooleanAssignment> ASSUMED_ASSIGNMENT =
+            Dependency.newDependency(BooleanAssignment.class);
+    protected static final Dependency<BooleanClauseList> ASSUMED_CLAUSE_LIST =
+            Dependency.newDependency(BooleanClauseList.class);
+
+    protected final boolean eliminateVariables;
+
+    public ComputePreprocessedClauseList(
+            IComputation<BooleanClauseList> booleanClauseList,
+            IComputation<BooleanAssignment> assumedAssignment,
+            IComputation<BooleanClauseList> assumedClauseList,
+            boolean eliminateVariables) {
+        super(booleanClauseList, assumedAssignment, assumedClauseList);
+        this.eliminateVariables = eliminateVariables;
+    }
+
+    protected ComputePreprocessedClauseList(ComputePreprocessedClauseList other) {
+        super(other);
+        this.eliminateVariables = other.eliminateVariables;
+    }
+
+    @Override
+    public Result<Pair<BooleanClauseList, ReconstructionStack>> compute(
+            List<Object> dependencyList, Progress progress) {
+        final long localTime = System.nanoTime();
+        BooleanClauseList clauseList = BOOLEAN_CLAUSE_LIST.get(dependencyList);
+        int[] frozenVariables = IntStream.concat(
+                        Arrays.stream(ASSUMED_ASSIGNMENT.get(dependencyList).get()),
+                        ASSUMED_CLAUSE_LIST.get(dependencyList).getAll().stream()
+                                .flatMapToInt(clause -> Arrays.stream(clause.get())))
+                .map(Math::abs)
+                .toArray();
+        CNFPreprocessor preprocessor = new CNFPreprocessor(clauseList, frozenVariables);
+        preprocessor.simplify();
+        if (eliminateVariables) {
+            preprocessor.eliminateVariables();
+            preprocessor.simplify();
+        }
+        BooleanClauseList preprocessedClauseList = preprocessor.getClauseList();
+        final long timeNeeded = System.nanoTime() - localTime;
+        FeatJAR.log()
+                .info(String.format(
+                        "preprocessing: %d -> %d clauses, %d -> %d literals, %d fixed, %d eliminated, %d subsumed,"
+                                + " %d strengthened in %.3fs%s",
+                        clauseList.size(),
+                        preprocessedClauseList.size(),
+                        countLiterals(clauseList),
+                        countLiterals(preprocessedClauseList),
+                        preprocessor.getFixedVariableCount(),
+                        preprocessor.getEliminatedVariableCount(),
+                        preprocessor.getSubsumedClauseCount(),
+                        preprocessor.getStrengthenedClauseCount(),
+                        timeNeeded / 1e9,
+                        preprocessor.isUnsatisfiable() ? ", unsatisfiable" : ""));
+        return Result.of(new Pair<>(preprocessedClauseList, preprocessor.getReconstructionStack()));
+    }
+
+    private static long countLiterals(BooleanClauseList clauseList) {
+        return clauseList.getAll().stream()
+                .mapToLong(clause -> clause.get().length)
+                .sum();
+    }
+
+    @Override
+    public ITree<IComputation<?>> cloneNode() {
+        return new ComputePreprocessedClauseList(this);
+    }
+}
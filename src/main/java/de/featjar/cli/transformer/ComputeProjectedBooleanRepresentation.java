@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.transformer;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.computation.AComputation;
+import de.featjar.base.computation.Dependency;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Pair;
+import de.featjar.base.data.Result;
+import de.featjar.base.tree.structure.ITree;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.BooleanClause;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Projects a boolean representation onto a subset of its variables by eliminating all other variables, including
+ * auxiliary variables, with {@link CNFPreprocessor#eliminateVariables(java.util.function.IntPredicate, long)}.
+ * The solutions of the result are exactly the solutions of the original clause list restricted to the projected
+ * variables, so that counting and enumeration are exact for the projected variables regardless of the
+ * {@link CNFStrategy}.
+ * Variables of the result are numbered in their original order.
+ * Fails if elimination creates more than {@link #MAXIMUM_CLAUSE_FACTOR} times as many clauses as the original.
+ */
+public class ComputeProjectedBooleanRepresentation extends AComputation<Pair<BooleanClauseList, VariableMap>> {
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    protected static final Dependency<Pair<BooleanClauseList, VariableMap>> BOOLEAN_REPRESENTATION =
+            (Dependency) Dependency.newDependency(Pair.class);
+
+    /**
+     * Factor by which elimination may increase the number of clauses before projection is aborted.
+     */
+    public static final int MAXIMUM_CLAUSE_FACTOR = 10;
+
+    /**
+     * Number of clauses that elimination may always create, even for small clause lists.
+     */
+    public static final long MINIMUM_CLAUSE_LIMIT = 1_000_000;
+
+    protected final List<String> variableNames;
+
+    /**
+     * Creates a projection.
+     *
+     * @param booleanRepresentation the boolean representation
+     * @param variableNames the names of the variables to keep, unknown names are ignored with a warning
+     */
+    public ComputeProjectedBooleanRepresentation(
+            IComputation<Pair<BooleanClauseList, VariableMap>> booleanRepresentation, List<String> variableNames) {
+        super(booleanRepresentation);
+        this.variableNames = variableNames;
+    }
+
+    protected ComputeProjectedBooleanRepresentation(ComputeProjectedBooleanRepresentation other) {
+        super(other);
+        this.variableNames = other.variableNames;
+    }
+
+    @Override
+    public Result<Pair<BooleanClauseList, VariableMap>> compute(List<Object> dependencyList, Progress progress) {
+        final long localTime = System.nanoTime();
+        Pair<BooleanClauseList, VariableMap> booleanRepresentation = BOOLEAN_REPRESENTATION.get(dependencyList);
+        BooleanClauseList clauseList = booleanRepresentation.getKey();
+        VariableMap variableMap = booleanRepresentation.getValue();
+        Set<String> projectedNames = new HashSet<>(variableNames);
+        int variableCount = clauseList.getVariableCount();
+        int[] projectedIndices = new int[variableCount + 1];
+        List<String> projectedVariableNames = new ArrayList<>();
+        for (int variable = 1; variable <= variableCount; variable++) {
+            String name = variableMap.get(variable).get();
+            if (projectedNames.contains(name)) {
+                projectedVariableNames.add(name);
+                projectedIndices[variable] = projectedVariableNames.size();
+            }
+        }
+        if (projectedVariableNames.size() < projectedNames.size()) {
+            projectedNames.removeAll(projectedVariableNames);
+            FeatJAR.log().warning("ignoring unknown variables for projection: " + String.join(", ", projectedNames));
+        }
+
+        CNFPreprocessor preprocessor = new CNFPreprocessor(clauseList);
+        preprocessor.simplify();
+        long maximumClauseCount =
+                Math.max((long) MAXIMUM_CLAUSE_FACTOR * clauseList.size(), MINIMUM_CLAUSE_LIMIT);
+        if (!preprocessor.eliminateVariables(variable -> projectedIndices[variable] == 0, maximumClauseCount)) {
+            return Result.empty(new IllegalStateException(String.format(
+                    "projection onto %d variables exceeds %d clauses, try projecting onto more variables",
+                    projectedVariableNames.size(), maximumClauseCount)));
+        }
+        preprocessor.simplify();
+
+        List<BooleanClause> projectedClauses = new ArrayList<>();
+        if (preprocessor.isUnsatisfiable()) {
+            projectedClauses.add(new BooleanClause());
+        } else {
+            for (BooleanClause clause : preprocessor.getClauseList().getAll()) {
+                int[] literals = clause.get();
+                int[] projectedLiterals = new int[literals.length];
+                boolean projected = true;
+                for (int i = 0; i < literals.length; i++) {
+                    int projectedIndex = projectedIndices[Math.abs(literals[i])];
+                    if (projectedIndex == 0) {
+                        projected = false;
+                        break;
+                    }
+                    projectedLiterals[i] = literals[i] > 0 ? projectedIndex : -projectedIndex;
+                }
+                // hidden variables only remain in unit clauses if they are fixed, which does not affect the projection
+                if (projected) {
+                    projectedClauses.add(new BooleanClause(projectedLiterals));
+                }
+            }
+        }
+        BooleanClauseList projectedClauseList = new BooleanClauseList(projectedClauses, projectedVariableNames.size());
+        final long timeNeeded = System.nanoTime() - localTime;
+        FeatJAR.log()
+                .info(String.format(
+                        "projection: %d -> %d variables, %d -> %d clauses in %.3fs",
+                        variableCount,
+                        projectedVariableNames.size(),
+                        clauseList.size(),
+                        projectedClauseList.size(),
+                        timeNeeded / 1e9));
+        return Result.of(new Pair<>(projectedClauseList, new VariableMap(projectedVariableNames)));
+    }
+
+    @Override
+    public ITree<IComputation<?>> cloneNode() {
+        return new ComputeProjectedBooleanRepresentation(this);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.transformer;
+
+import de.featjar.base.computation.AComputation;
+import de.featjar.base.computation.Dependency;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Result;
+import de.featjar.base.tree.structure.ITree;
+import de.featjar.formula.analysis.bool.BooleanSolution;
+import java.util.List;
+
+/**
+ * Maps an analysis result on a preprocessed clause list back to the original clause list.
+ * Assigns the variables recorded in a {@link ReconstructionStack} in a {@link BooleanSolution}, other results are
+ * passed through unchanged.
+ *
+ * @param <T> the type of the analysis result
+ */
+public class ComputeReconstructedSolution<T> extends AComputation<T> {
+    protected static final Dependency<Object> RESULT = Dependency.newDependency(Object.class);
+    protected static final Dependency<ReconstructionStack> RECONSTRUCTION_STACK =
+            Dependency.newDependency(ReconstructionStack.class);
+
+    public ComputeReconstructedSolution(
+            IComputation<T> result, IComputation<ReconstructionStack> reconstructionStack) {
+        super(result, reconstructionStack);
+    }
+
+    protected ComputeReconstructedSolution(ComputeReconstructedSolution<T> other) {
+        super(other);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Result<T> compute(List<Object> dependencyList, Progress progress) {
+        Object result = RESULT.get(dependencyList);
+        ReconstructionStack reconstructionStack = RECONSTRUCTION_STACK.get(dependencyList);
+        if (result instanceof BooleanSolution && !reconstructionStack.isEmpty()) {
+            int[] solution = ((BooleanSolution) result).get();
+            return Result.of((T) new BooleanSolution(reconstructionStack.reconstruct(solution)));
+        }
+        return Result.of((T) result);
+    }
+
+    @Override
+    public ITree<IComputation<?>> cloneNode() {
+        return new ComputeReconstructedSolution<>(this);
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.transformer;
+
+import de.featjar.base.computation.AComputation;
+import de.featjar.base.computation.Dependency;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Pair;
+import de.featjar.base.data.Result;
+import de.featjar.base.tree.structure.ITree;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.BooleanClause;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import de.featjar.formula.structure.formula.IFormula;
+import de.featjar.formula.structure.formula.connective.And;
+import de.featjar.formula.structure.formula.connective.Or;
+import de.featjar.formula.structure.formula.predicate.False;
+import de.featjar.formula.structure.formula.predicate.Literal;
+import de.featjar.formula.structure.formula.predicate.True;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transforms a formula in negation normal form into a boolean clause list by introducing auxiliary variables for
+ * subformulas, as described by Tseitin and Plaisted and Greenbaum.
+ * In contrast to {@link de.featjar.formula.transformer.ComputeCNFFormula}, the size of the result is linear in the
+ * size of the formula.
+ * Auxiliary variables are named with {@link AuxiliaryVariables#PREFIX} and numbered after all original variables,
+ * so that they can be projected away by truncating solutions (see {@link AuxiliaryVariables}).
+ */
+public class ComputeTseitinBooleanRepresentation extends AComputation<Pair<BooleanClauseList, VariableMap>> {
+    protected static final Dependency<IFormula> NNF_FORMULA = Dependency.newDependency(IFormula.class);
+
+    /**
+     * Maximum number of clauses created by distributing a single disjunction in {@link CNFStrategy#HYBRID}.
+     */
+    public static final int MAXIMUM_DISTRIBUTED_CLAUSES = 1024;
+
+    /**
+     * Offset for the temporary indices of auxiliary variables, larger than any number of original variables.
+     */
+    private static final int AUXILIARY_OFFSET = Integer.MAX_VALUE / 2;
+
+    protected final CNFStrategy strategy;
+    protected final int threshold;
+
+    /**
+     * Creates a transformation.
+     *
+     * @param nnfFormula the formula in negation normal form
+     * @param strategy the strategy, one of {@link CNFStrategy#TSEITIN}, {@link CNFStrategy#PLAISTED_GREENBAUM},
+     *                 or {@link CNFStrategy#HYBRID}
+     * @param threshold the size of subformulas above which {@link CNFStrategy#HYBRID} introduces auxiliary variables
+     */
+    public ComputeTseitinBooleanRepresentation(IComputation<IFormula> nnfFormula, CNFStrategy strategy, int threshold) {
+        super(nnfFormula);
+        if (strategy == CNFStrategy.DISTRIBUTIVE) {
+            throw new IllegalArgumentException("distributive transformation does not use auxiliary variables");
+        }
+        this.strategy = strategy;
+        this.threshold = strategy == CNFStrategy.HYBRID ? threshold : 1;
+    }
+
+    protected ComputeTseitinBooleanRepresentation(ComputeTseitinBooleanRepresentation other) {
+        super(other);
+        this.strategy = other.strategy;
+        this.threshold = other.threshold;
+    }
+
+    @Override
+    public Result<Pair<BooleanClauseList, VariableMap>> compute(List<Object> dependencyList, Progress progress) {
+        IFormula nnfFormula = NNF_FORMULA.get(dependencyList);
+        try {
+            return Result.of(new Transformation(nnfFormula).transform());
+        } catch (IllegalArgumentException e) {
+            return Result.empty(e);
+        }
+    }
+
+    @Override
+    public ITree<IComputation<?>> cloneNode() {
+        return new ComputeTseitinBooleanRepresentation(this);
+    }
+
+    private class Transformation {
+        private final IFormula formula;
+        private final Map<String, Integer> variables = new LinkedHashMap<>();
+        private final List<int[]> clauses = new ArrayList<>();
+        private final List<int[]> definitions = new ArrayList<>();
+        private final Map<IFormula, Integer> sizes = new IdentityHashMap<>();
+        private int auxiliaryVariableCount = 0;
+
+        private Transformation(IFormula formula) {
+            this.formula = formula;
+        }
+
+        private Pair<BooleanClauseList, VariableMap> transform() {
+            collectVariables(formula);
+            int originalVariableCount = variables.size();
+            clauses.addAll(toClauses(formula));
+            int variableCount = originalVariableCount + auxiliaryVariableCount;
+            List<String> variableNames = new ArrayList<>(variables.keySet());
+            for (int i = 1; i <= auxiliaryVariableCount; i++) {
+                variableNames.add(AuxiliaryVariables.PREFIX + i);
+            }
+            List<BooleanClause> booleanClauses = new ArrayList<>(clauses.size() + definitions.size());
+            for (int[] clause : clauses) {
+                booleanClauses.add(new BooleanClause(renumber(clause, originalVariableCount)));
+            }
+            for (int[] clause : definitions) {
+                booleanClauses.add(new BooleanClause(renumber(clause, originalVariableCount)));
+            }
+            return new Pair<>(new BooleanClauseList(booleanClauses, variableCount), new VariableMap(variableNames));
+        }
+
+        /**
+         * Auxiliary variables are numbered above {@link #AUXILIARY_OFFSET} while transforming, as the number of
+         * original variables is only known afterwards.
+         */
+        private int[] renumber(int[] clause, int originalVariableCount) {
+            int[] literals = new int[clause.length];
+            for (int i = 0; i < clause.length; i++) {
+                int literal = clause[i];
+                boolean auxiliary = Math.abs(literal) > AUXILIARY_OFFSET;
+                int variable = auxiliary
+                        ? Math.abs(literal) - AUXILIARY_OFFSET + originalVariableCount
+                        : Math.abs(literal);
+                literals[i] = literal < 0 ? -variable : variable;
+            }
+            return literals;
+        }
+
+        /**
+         * Collects the variables of the given formula and records the size of each of its subformulas, so that
+         * sorting children by size does not traverse them again.
+         *
+         * @return the size of the given formula
+         */
+        private int collectVariables(IFormula formula) {
+            int size = 1;
+            if (formula instanceof Literal) {
+                variables.putIfAbsent(getName((Literal) formula), variables.size() + 1);
+            } else {
+                for (IFormula child : getChildren(formula)) {
+                    size += collectVariables(child);
+                }
+            }
+            sizes.put(formula, size);
+            return size;
+        }
+
+        /**
+         * {@return clauses that are satisfied exactly when the given formula is satisfied}
+         * Subformulas nested in disjunctions are replaced by auxiliary variables, unless they are small enough
+         * to be distributed.
+         */
+        private List<int[]> toClauses(IFormula formula) {
+            List<int[]> result = new ArrayList<>();
+            if (formula instanceof Literal) {
+                result.add(new int[] {getLiteral((Literal) formula)});
+            } else if (formula instanceof False) {
+                result.add(new int[0]);
+            } else if (formula instanceof And) {
+                for (IFormula child : getChildren(formula)) {
+                    result.addAll(toClauses(child));
+                }
+            } else if (formula instanceof Or) {
+                result.add(new int[0]);
+                List<IFormula> children = new ArrayList<>(getChildren(formula));
+                children.sort(Comparator.comparingInt(this::size));
+                for (IFormula child : children) {
+                    List<int[]> childClauses = size(child) <= threshold ? toClauses(child) : null;
+                    if (childClauses == null
+                            || (long) result.size() * childClauses.size() > MAXIMUM_DISTRIBUTED_CLAUSES) {
+                        childClauses = List.<int[]>of(new int[] {define(child)});
+                    }
+                    result = distribute(result, childClauses);
+                }
+            } else if (!(formula instanceof True)) {
+                List<IFormula> children = getChildren(formula);
+                if (children.size() != 1) {
+                    throw new IllegalArgumentException("formula is not in negation normal form: " + formula);
+                }
+                result.addAll(toClauses(children.get(0)));
+            }
+            return result;
+        }
+
+        private List<int[]> distribute(List<int[]> clauses1, List<int[]> clauses2) {
+            List<int[]> result = new ArrayList<>(clauses1.size() * clauses2.size());
+            for (int[] clause1 : clauses1) {
+                for (int[] clause2 : clauses2) {
+                    int[] clause = new int[clause1.length + clause2.length];
+                    System.arraycopy(clause1, 0, clause, 0, clause1.length);
+                    System.arraycopy(clause2, 0, clause, clause1.length, clause2.length);
+                    result.add(clause);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * {@return a literal that implies (or, unless using Plaisted-Greenbaum, is equivalent to) the given formula}
+         */
+        private int define(IFormula formula) {
+            if (formula instanceof Literal) {
+                return getLiteral((Literal) formula);
+            }
+            List<IFormula> children = getChildren(formula);
+            if (!(formula instanceof And) && !(formula instanceof Or)) {
+                if (formula instanceof True || formula instanceof False) {
+                    int auxiliaryVariable = newAuxiliaryVariable();
+                    definitions.add(new int[] {formula instanceof True ? auxiliaryVariable : -auxiliaryVariable});
+                    return auxiliaryVariable;
+                }
+                if (children.size() != 1) {
+                    throw new IllegalArgumentException("formula is not in negation normal form: " + formula);
+                }
+                return define(children.get(0));
+            }
+            int[] childLiterals = children.stream().mapToInt(this::define).toArray();
+            int auxiliaryVariable = newAuxiliaryVariable();
+            boolean equivalence = strategy != CNFStrategy.PLAISTED_GREENBAUM;
+            int[] longClause = new int[childLiterals.length + 1];
+            if (formula instanceof And) {
+                // a -> c_i and, for equivalence, (c_1 & ... & c_n) -> a
+                longClause[0] = auxiliaryVariable;
+                for (int i = 0; i < childLiterals.length; i++) {
+                    definitions.add(new int[] {-auxiliaryVariable, childLiterals[i]});
+                    longClause[i + 1] = -childLiterals[i];
+                }
+                if (equivalence) {
+                    definitions.add(longClause);
+                }
+            } else {
+                // a -> (c_1 | ... | c_n) and, for equivalence, c_i -> a
+                longClause[0] = -auxiliaryVariable;
+                for (int i = 0; i < childLiterals.length; i++) {
+                    if (equivalence) {
+                        definitions.add(new int[] {auxiliaryVariable, -childLiterals[i]});
+                    }
+                    longClause[i + 1] = childLiterals[i];
+                }
+                definitions.add(longClause);
+            }
+            return auxiliaryVariable;
+        }
+
+        private int newAuxiliaryVariable() {
+            return AUXILIARY_OFFSET + ++auxiliaryVariableCount;
+        }
+
+        private int getLiteral(Literal literal) {
+            int variable = variables.get(getName(literal));
+            return literal.isPositive() ? variable : -variable;
+        }
+
+        private String getName(Literal literal) {
+            return literal.getExpression().getName();
+        }
+
+        private int size(IFormula formula) {
+            return sizes.get(formula);
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<IFormula> getChildren(IFormula formula) {
+            return formula instanceof Literal ? List.of() : (List<IFormula>) formula.getChildren();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.transformer;
+
+import de.featjar.base.computation.AComputation;
+import de.featjar.base.computation.Dependency;
+import de.featjar.base.computation.IComputation;
+import de.featjar.base.computation.Progress;
+import de.featjar.base.data.Result;
+import de.featjar.base.tree.structure.ITree;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.BooleanAssignment;
+import de.featjar.formula.analysis.bool.BooleanSolution;
+import de.featjar.formula.analysis.bool.BooleanSolutionList;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Removes the literals of auxiliary variables from an analysis result.
+ * Supports {@link BooleanAssignment}, {@link BooleanSolution}, and {@link BooleanSolutionList}, other results are
+ * passed through unchanged.
+ * Elements of a {@link BooleanSolutionList} that only consist of auxiliary variables (e.g., atomic sets) are removed,
+ * except for the first element, which holds the core and dead literals of atomic sets and is kept even if empty.
+ *
+ * @param <T> the type of the analysis result
+ */
+public class ComputeWithoutAuxiliaryVariables<T> extends AComputation<T> {
+    protected static final Dependency<Object> RESULT = Dependency.newDependency(Object.class);
+    protected static final Dependency<VariableMap> VARIABLE_MAP = Dependency.newDependency(VariableMap.class);
+
+    public ComputeWithoutAuxiliaryVariables(IComputation<T> result, IComputation<VariableMap> variableMap) {
+        super(result, variableMap);
+    }
+
+    protected ComputeWithoutAuxiliaryVariables(ComputeWithoutAuxiliaryVariables<T> other) {
+        super(other);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Result<T> compute(List<Object> dependencyList, Progress progress) {
+        Object result = RESULT.get(dependencyList);
+        int originalVariableCount = AuxiliaryVariables.getOriginalVariableCount(VARIABLE_MAP.get(dependencyList));
+        if (result instanceof BooleanSolutionList) {
+            List<BooleanSolution> solutions = ((BooleanSolutionList) result).getAll();
+            List<BooleanSolution> strippedSolutions = new ArrayList<>(solutions.size());
+            for (int i = 0; i < solutions.size(); i++) {
+                int[] literals = solutions.get(i).get();
+                int[] strippedLiterals = AuxiliaryVariables.removeAuxiliaryLiterals(literals, originalVariableCount);
+                if (i == 0 || literals.length == 0 || strippedLiterals.length > 0) {
+                    strippedSolutions.add(new BooleanSolution(strippedLiterals));
+                }
+            }
+            return Result.of((T) new BooleanSolutionList(strippedSolutions, originalVariableCount));
+        } else if (result instanceof BooleanSolution) {
+            return Result.of((T) new BooleanSolution(AuxiliaryVariables.removeAuxiliaryLiterals(
+                    ((BooleanSolution) result).get(), originalVariableCount)));
+        } else if (result instanceof BooleanAssignment) {
+            return Result.of((T) new BooleanAssignment(AuxiliaryVariables.removeAuxiliaryLiterals(
+                    ((BooleanAssignment) result).get(), originalVariableCount)));
+        }
+        return Result.of((T) result);
+    }
+
+    @Override
+    public ITree<IComputation<?>> cloneNode() {
+        return new ComputeWithoutAuxiliaryVariables<>(this);
+    }
+}
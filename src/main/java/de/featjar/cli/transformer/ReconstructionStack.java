@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.transformer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the variables eliminated by {@link CNFPreprocessor}, so that solutions of the preprocessed clause list can
+ * be extended to solutions of the original clause list.
+ * Each entry holds an eliminated variable together with the clauses that were removed when it was eliminated.
+ */
+public class ReconstructionStack {
+    private final List<Integer> variables = new ArrayList<>();
+    private final List<List<int[]>> clauses = new ArrayList<>();
+
+    /**
+     * Records the elimination of a variable.
+     *
+     * @param variable the eliminated variable
+     * @param removedClauses the clauses that contained the variable
+     */
+    public void push(int variable, List<int[]> removedClauses) {
+        variables.add(variable);
+        clauses.add(removedClauses);
+    }
+
+    public int size() {
+        return variables.size();
+    }
+
+    public boolean isEmpty() {
+        return variables.isEmpty();
+    }
+
+    /**
+     * {@return a solution of the original clause list that agrees with the given solution on all variables that were
+     * not eliminated}
+     * Eliminated variables are assigned in reverse order of their elimination, each one such that all of its removed
+     * clauses are satisfied.
+     *
+     * @param solution a solution of the preprocessed clause list, containing one literal per variable in order
+     */
+    public int[] reconstruct(int[] solution) {
+        int[] reconstructedSolution = solution.clone();
+        for (int i = variables.size() - 1; i >= 0; i--) {
+            int variable = variables.get(i);
+            if (variable > reconstructedSolution.length) {
+                continue;
+            }
+            boolean value = false;
+            for (int[] clause : clauses.get(i)) {
+                if (contains(clause, variable) && !isSatisfiedWithout(clause, variable, reconstructedSolution)) {
+                    value = true;
+                    break;
+                }
+            }
+            reconstructedSolution[variable - 1] = value ? variable : -variable;
+        }
+        return reconstructedSolution;
+    }
+
+    private static boolean contains(int[] clause, int literal) {
+        for (int clauseLiteral : clause) {
+            if (clauseLiteral == literal) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSatisfiedWithout(int[] clause, int variable, int[] solution) {
+        for (int literal : clause) {
+            int clauseVariable = Math.abs(literal);
+            if (clauseVariable != variable
+                    && clauseVariable <= solution.length
+                    && solution[clauseVariable - 1] == literal) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.worker;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.data.Pair;
+import de.featjar.base.data.Result;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.BooleanClause;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * Enumerates solutions with several worker processes, each running an {@link EnumerationWorker}.
+ * The search space is partitioned into cubes, that is, all assignments of the variables that occur in the most
+ * clauses, and each worker takes the next cube as soon as it has streamed all solutions of its previous cube.
+ * Workers are either spawned as local processes or connected to over the network, so that enumeration is not
+ * limited by the heap of a single process.
+ */
+public class DistributedEnumeration implements AutoCloseable {
+    /**
+     * Main class of spawned worker processes.
+     */
+    public static final String MAIN_CLASS = "de.featjar.base.FeatJAR";
+
+    /**
+     * Time to wait for a spawned worker process to connect.
+     */
+    public static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(60);
+
+    /**
+     * Number of cubes per worker, so that workers that finish early can take over the remaining cubes.
+     */
+    public static final int CUBES_PER_WORKER = 8;
+
+    private final List<Socket> sockets = new ArrayList<>();
+    private final List<Process> processes = new ArrayList<>();
+
+    /**
+     * Spawns the given number of local worker processes with the class path of this process.
+     * Each worker connects back to this process on the loopback interface.
+     *
+     * @param count the number of workers
+     * @throws IOException if a worker cannot be started or does not connect in time
+     */
+    public void spawnWorkers(int count) throws IOException {
+        if (count <= 0) {
+            return;
+        }
+        try (ServerSocket serverSocket = new ServerSocket(0, count, InetAddress.getLoopbackAddress())) {
+            serverSocket.setSoTimeout((int) CONNECT_TIMEOUT.toMillis());
+            String address = "localhost:" + serverSocket.getLocalPort();
+            for (int i = 0; i < count; i++) {
+                processes.add(new ProcessBuilder(
+                                getJavaCommand(),
+                                "-cp",
+                                System.getProperty("java.class.path"),
+                                MAIN_CLASS,
+                                EnumerationWorkerCommand.class.getName(),
+                                "--" + EnumerationWorkerCommand.CONNECT_OPTION.getName(),
+                                address)
+                        .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                        .redirectError(ProcessBuilder.Redirect.INHERIT)
+                        .start());
+            }
+            for (int i = 0; i < count; i++) {
+                sockets.add(serverSocket.accept());
+            }
+        }
+        FeatJAR.log().info("spawned " + count + " worker processes");
+    }
+
+    /**
+     * Connects to a worker that has been started with {@link EnumerationWorkerCommand#PORT_OPTION}.
+     *
+     * @param address the address of the worker as {@code host:port}
+     * @throws IOException if the worker cannot be connected to
+     */
+    public void connectWorker(String address) throws IOException {
+        int separator = address.lastIndexOf(':');
+        if (separator < 0) {
+            throw new IOException("expected host:port, got " + address);
+        }
+        String host = address.substring(0, separator);
+        int port;
+        try {
+            port = Integer.parseInt(address.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            throw new IOException("invalid port in " + address, e);
+        }
+        Socket socket = new Socket();
+        socket.connect(new InetSocketAddress(host, port), (int) CONNECT_TIMEOUT.toMillis());
+        sockets.add(socket);
+        FeatJAR.log().info("connected to worker " + address);
+    }
+
+    public int getWorkerCount() {
+        return sockets.size();
+    }
+
+    /**
+     * Passes each solution found by any worker to the given consumer, one solution at a time.
+     * The passed array is reused for subsequent solutions, so the consumer must copy it to retain it.
+     *
+     * @param booleanRepresentation the boolean representation, including any assumed clauses
+     * @param assumptions the literals assumed in every query
+     * @param timeout the timeout of each worker's solver
+     * @param consumer the consumer, which returns {@code false} to stop the enumeration
+     * @return {@code true} if all solutions have been enumerated, {@code false} if the enumeration was stopped by
+     * the consumer, or an empty result if a worker timed out or failed
+     */
+    public Result<Boolean> enumerate(
+            Pair<BooleanClauseList, VariableMap> booleanRepresentation,
+            int[] assumptions,
+            Duration timeout,
+            Predicate<int[]> consumer) {
+        if (sockets.isEmpty()) {
+            return Result.empty(new IllegalStateException("no workers"));
+        }
+        Queue<int[]> cubes = new ConcurrentLinkedQueue<>(
+                getCubes(booleanRepresentation.getKey(), assumptions, CUBES_PER_WORKER * sockets.size()));
+        FeatJAR.log().info("distributing " + cubes.size() + " cubes over " + sockets.size() + " workers");
+        AtomicBoolean stopped = new AtomicBoolean();
+        AtomicBoolean timedOut = new AtomicBoolean();
+        int variableCount = booleanRepresentation.getKey().getVariableCount();
+        ExecutorService executor = Executors.newFixedThreadPool(sockets.size());
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Socket socket : sockets) {
+                futures.add(executor.submit(() -> {
+                    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                    DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                    EnumerationWorker.writeHeader(out, booleanRepresentation, timeout);
+                    byte[] bits = new byte[(variableCount + 7) / 8];
+                    int[] solution = new int[variableCount];
+                    int[] cube;
+                    while (!stopped.get() && (cube = cubes.poll()) != null) {
+                        out.writeByte(EnumerationWorker.CUBE);
+                        EnumerationWorker.writeLiterals(out, cube);
+                        out.flush();
+                        byte status;
+                        while ((status = in.readByte()) == EnumerationWorker.SOLUTION) {
+                            in.readFully(bits);
+                            EnumerationWorker.fromBits(bits, solution);
+                            synchronized (consumer) {
+                                if (!stopped.get() && !consumer.test(solution)) {
+                                    stopped.set(true);
+                                }
+                            }
+                            if (stopped.get()) {
+                                socket.close();
+                                return null;
+                            }
+                        }
+                        if (status == EnumerationWorker.TIMEOUT) {
+                            timedOut.set(true);
+                            stopped.set(true);
+                        } else if (status != EnumerationWorker.COMPLETE) {
+                            throw new IOException("unknown status " + status);
+                        }
+                    }
+                    out.writeByte(EnumerationWorker.QUIT);
+                    out.flush();
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            stopped.set(true);
+            close();
+            return Result.empty(e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            return Result.empty(e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return timedOut.get() ? Result.empty() : Result.of(!stopped.get());
+    }
+
+    /**
+     * {@return all assignments of the unassumed variables that occur in the most clauses, each extended by the
+     * assumptions}
+     * As few variables are assigned as necessary to obtain at least the given number of cubes.
+     */
+    private static List<int[]> getCubes(BooleanClauseList clauseList, int[] assumptions, int minimumCubeCount) {
+        int variableCount = clauseList.getVariableCount();
+        int[] occurrences = new int[variableCount + 1];
+        for (BooleanClause clause : clauseList.getAll()) {
+            for (int literal : clause.get()) {
+                occurrences[Math.abs(literal)]++;
+            }
+        }
+        for (int literal : assumptions) {
+            occurrences[Math.abs(literal)] = -1;
+        }
+        int[] variables = IntStream.rangeClosed(1, variableCount)
+                .filter(variable -> occurrences[variable] >= 0)
+                .boxed()
+                .sorted(Comparator.comparingInt(variable -> -occurrences[variable]))
+                .limit(32 - Integer.numberOfLeadingZeros(Math.max(1, minimumCubeCount - 1)))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        List<int[]> cubes = new ArrayList<>(1 << variables.length);
+        for (int bits = 0; bits < 1 << variables.length; bits++) {
+            int[] cube = Arrays.copyOf(assumptions, assumptions.length + variables.length);
+            for (int i = 0; i < variables.length; i++) {
+                cube[assumptions.length + i] = (bits & (1 << i)) != 0 ? variables[i] : -variables[i];
+            }
+            cubes.add(cube);
+        }
+        return cubes;
+    }
+
+    private static String getJavaCommand() {
+        return ProcessHandle.current()
+                .info()
+                .command()
+                .orElse(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+    }
+
+    /**
+     * Disconnects from all workers and stops all spawned worker processes.
+     */
+    @Override
+    public void close() {
+        for (Socket socket : sockets) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                FeatJAR.log().warning("could not disconnect from worker: " + e.getMessage());
+            }
+        }
+        for (Process process : processes) {
+            process.destroy();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.worker;
+
+import static de.featjar.cli.cache.BooleanRepresentationSerializer.readVarInt;
+import static de.featjar.cli.cache.BooleanRepresentationSerializer.writeVarInt;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.data.Pair;
+import de.featjar.base.data.Result;
+import de.featjar.cli.analysis.solver.ClauseSolver;
+import de.featjar.cli.analysis.solver.SolutionEnumerator;
+import de.featjar.cli.cache.BooleanRepresentationSerializer;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Enumerates solutions on behalf of a {@link DistributedEnumeration}.
+ * <p>
+ * The protocol is binary. The coordinator sends a header with the timeout and the clause list, followed by any
+ * number of cubes, each answered by the worker with its solutions and a final status, and eventually a quit message.
+ * Cubes and solutions are encoded with variable-length integers and bit sets, respectively.
+ */
+public class EnumerationWorker {
+    static final int MAGIC = 0x464a4557; // FJEW
+    static final int VERSION = 1;
+
+    static final byte QUIT = 0;
+    static final byte CUBE = 1;
+
+    static final byte SOLUTION = 1;
+    static final byte COMPLETE = 2;
+    static final byte TIMEOUT = 3;
+
+    private EnumerationWorker() {}
+
+    /**
+     * Serves one coordinator on the given socket until it quits or disconnects.
+     *
+     * @param socket the socket
+     * @throws IOException if the connection fails or the coordinator violates the protocol
+     */
+    public static void serve(Socket socket) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("unknown protocol");
+        }
+        Duration timeout = Duration.ofMillis(in.readLong());
+        Pair<BooleanClauseList, VariableMap> booleanRepresentation = BooleanRepresentationSerializer.read(in);
+        ClauseSolver solver = new ClauseSolver(booleanRepresentation.getKey(), timeout);
+        int variableCount = solver.getVariableCount();
+        byte[] bits = new byte[(variableCount + 7) / 8];
+        FeatJAR.log().info("ready to enumerate " + variableCount + " variables");
+        int cubeCount = 0;
+        while (in.readByte() == CUBE) {
+            int[] cube = readLiterals(in);
+            try {
+                Result<Boolean> complete = new SolutionEnumerator(solver, cube).enumerate(solution -> {
+                    try {
+                        out.writeByte(SOLUTION);
+                        out.write(toBits(solution, bits));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return true;
+                });
+                out.writeByte(complete.isPresent() ? COMPLETE : TIMEOUT);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+            cubeCount++;
+        }
+        FeatJAR.log().info("enumerated " + cubeCount + " cubes");
+    }
+
+    static void writeHeader(
+            DataOutputStream out, Pair<BooleanClauseList, VariableMap> booleanRepresentation, Duration timeout)
+            throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(timeout.toMillis());
+        BooleanRepresentationSerializer.write(booleanRepresentation, out);
+    }
+
+    static void writeLiterals(DataOutputStream out, int[] literals) throws IOException {
+        writeVarInt(out, literals.length);
+        for (int literal : literals) {
+            writeVarInt(out, (literal << 1) ^ (literal >> 31));
+        }
+    }
+
+    static int[] readLiterals(DataInputStream in) throws IOException {
+        int[] literals = new int[readVarInt(in)];
+        for (int i = 0; i < literals.length; i++) {
+            int value = readVarInt(in);
+            literals[i] = (value >>> 1) ^ -(value & 1);
+        }
+        return literals;
+    }
+
+    /**
+     * {@return the given solution as a bit set, where bit {@code i} is set if variable {@code i + 1} is selected}
+     *
+     * @param solution the solution
+     * @param bits the array to write the bit set to
+     */
+    static byte[] toBits(int[] solution, byte[] bits) {
+        Arrays.fill(bits, (byte) 0);
+        for (int i = 0; i < solution.length; i++) {
+            if (solution[i] > 0) {
+                bits[i >> 3] |= (byte) (1 << (i & 7));
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * {@return the solution encoded by the given bit set}
+     *
+     * @param bits the bit set
+     * @param solution the array to write the solution to
+     */
+    static int[] fromBits(byte[] bits, int[] solution) {
+        for (int i = 0; i < solution.length; i++) {
+            solution[i] = (bits[i >> 3] & (1 << (i & 7))) != 0 ? i + 1 : -(i + 1);
+        }
+        return solution;
+    }
+}
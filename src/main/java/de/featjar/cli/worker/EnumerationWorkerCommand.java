@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.worker;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.base.cli.ICommand;
+import de.featjar.base.cli.IOptionInput;
+import de.featjar.base.cli.Option;
+import de.featjar.base.data.Result;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+
+/**
+ * Runs an {@link EnumerationWorker} for a {@link DistributedEnumeration}.
+ * Either connects to a coordinator that has spawned this process, or listens for coordinators on a port, serving one
+ * coordinator at a time until the process is stopped.
+ */
+public class EnumerationWorkerCommand implements ICommand {
+    public static final Option<String> CONNECT_OPTION = new Option<>("connect", Result::of)
+            .setDescription("Address (host:port) of the coordinator to connect to");
+
+    public static final Option<Integer> PORT_OPTION = new Option<>("port", s -> Result.of(Integer.valueOf(s)))
+            .setDescription("Port to listen on for coordinators");
+
+    public static final Option<String> BIND_OPTION = new Option<>("bind", Result::of)
+            .setDescription("Address to listen on, e.g., 0.0.0.0 to accept coordinators on other hosts")
+            .setDefaultValue(InetAddress.getLoopbackAddress().getHostAddress());
+
+    @Override
+    public List<Option<?>> getOptions() {
+        return List.of(CONNECT_OPTION, PORT_OPTION, BIND_OPTION);
+    }
+
+    @Override
+    public String getDescription() {
+        return "Enumerates solutions on behalf of the solution enumeration command when it distributes its work";
+    }
+
+    @Override
+    public void run(IOptionInput optionParser) {
+        Result<String> coordinator = optionParser.get(CONNECT_OPTION);
+        Result<Integer> port = optionParser.get(PORT_OPTION);
+        if (coordinator.isPresent()) {
+            String address = coordinator.get();
+            int separator = address.lastIndexOf(':');
+            try (Socket socket = new Socket(
+                    address.substring(0, separator), Integer.parseInt(address.substring(separator + 1)))) {
+                EnumerationWorker.serve(socket);
+            } catch (IOException | RuntimeException e) {
+                FeatJAR.log().error(e);
+            }
+        } else if (port.isPresent()) {
+            try (ServerSocket serverSocket = new ServerSocket()) {
+                serverSocket.bind(new InetSocketAddress(optionParser.get(BIND_OPTION).get(), port.get()));
+                FeatJAR.log().info("listening for coordinators on " + serverSocket.getLocalSocketAddress());
+                while (!Thread.currentThread().isInterrupted()) {
+                    try (Socket socket = serverSocket.accept()) {
+                        FeatJAR.log().info("serving coordinator " + socket.getRemoteSocketAddress());
+                        EnumerationWorker.serve(socket);
+                    } catch (IOException | RuntimeException e) {
+                        FeatJAR.log().warning("coordinator disconnected: " + e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                FeatJAR.log().error(e);
+            }
+        } else {
+            FeatJAR.log().error("either --connect or --port is required");
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.formula.analysis.bool.BooleanClause;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+
+/**
+ * Base class for tests that check clause list analyses on random clause lists against a brute-force oracle.
+ * Tests are placed in the package of the class they test, so that they can access package-private members.
+ */
+public abstract class AClauseListTest {
+    @BeforeAll
+    public static void setUp() {
+        FeatJAR.initialize();
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        FeatJAR.deinitialize();
+    }
+
+    /**
+     * {@return a random clause list}
+     *
+     * @param random the random number generator
+     * @param variableCount the number of variables
+     * @param clausesPerVariable the maximum number of clauses per variable
+     * @param maximumClauseLength the maximum number of literals per clause
+     */
+    protected static BooleanClauseList randomClauseList(
+            Random random, int variableCount, int clausesPerVariable, int maximumClauseLength) {
+        List<BooleanClause> clauses = new ArrayList<>();
+        int clauseCount = random.nextInt(clausesPerVariable * variableCount);
+        for (int i = 0; i < clauseCount; i++) {
+            int[] literals = new int[1 + random.nextInt(maximumClauseLength)];
+            for (int j = 0; j < literals.length; j++) {
+                literals[j] = randomLiteral(random, variableCount);
+            }
+            clauses.add(new BooleanClause(literals));
+        }
+        return new BooleanClauseList(clauses, variableCount);
+    }
+
+    protected static int randomLiteral(Random random, int variableCount) {
+        int variable = 1 + random.nextInt(variableCount);
+        return random.nextBoolean() ? variable : -variable;
+    }
+
+    /**
+     * {@return all solutions of the given clause list, each as a bit mask with bit {@code i - 1} set if variable
+     * {@code i} is true}
+     * Enumerates all assignments, so the clause list should have at most about 20 variables.
+     */
+    protected static Set<Long> getSolutions(BooleanClauseList clauseList) {
+        Set<Long> solutions = new TreeSet<>();
+        int variableCount = clauseList.getVariableCount();
+        for (long solution = 0; solution < 1L << variableCount; solution++) {
+            if (isSolution(clauseList, solution)) {
+                solutions.add(solution);
+            }
+        }
+        return solutions;
+    }
+
+    /**
+     * {@return the number of solutions of the given clause list that contain all given literals}
+     */
+    protected static long countSolutions(BooleanClauseList clauseList, int... literals) {
+        return getSolutions(clauseList).stream()
+                .filter(solution -> containsAll(solution, literals))
+                .count();
+    }
+
+    /**
+     * {@return whether the given bit mask, see {@link #getSolutions(BooleanClauseList)}, satisfies the given clause
+     * list}
+     */
+    protected static boolean isSolution(BooleanClauseList clauseList, long solution) {
+        for (BooleanClause clause : clauseList.getAll()) {
+            if (!containsAny(solution, clause.get())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@return the literals of the given bit mask, see {@link #getSolutions(BooleanClauseList)}, ordered by variable}
+     */
+    protected static int[] toLiterals(long solution, int variableCount) {
+        int[] literals = new int[variableCount];
+        for (int variable = 1; variable <= variableCount; variable++) {
+            literals[variable - 1] = contains(solution, variable) ? variable : -variable;
+        }
+        return literals;
+    }
+
+    /**
+     * {@return the bit mask, see {@link #getSolutions(BooleanClauseList)}, of the given complete assignment}
+     */
+    protected static long toSolution(int... literals) {
+        long solution = 0;
+        for (int literal : literals) {
+            if (literal > 0) {
+                solution |= 1L << (literal - 1);
+            }
+        }
+        return solution;
+    }
+
+    protected static boolean containsAll(long solution, int... literals) {
+        for (int literal : literals) {
+            if (!contains(solution, literal)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsAny(long solution, int... literals) {
+        for (int literal : literals) {
+            if (contains(solution, literal)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean contains(long solution, int literal) {
+        return ((solution >> (Math.abs(literal) - 1) & 1) == 1) == literal > 0;
+    }
+}
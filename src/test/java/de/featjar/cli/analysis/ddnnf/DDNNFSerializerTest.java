@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.ddnnf;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import de.featjar.cli.AClauseListTest;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.Test;
+
+public class DDNNFSerializerTest extends AClauseListTest {
+    @Test
+    public void roundTripPreservesCircuit() throws IOException, TimeoutException, InterruptedException {
+        Random random = new Random(1);
+        for (int i = 0; i < 20; i++) {
+            int variableCount = 3 + random.nextInt(10);
+            BooleanClauseList clauseList = randomClauseList(random, variableCount, 2, 3);
+            DDNNF ddnnf = DDNNFTest.compile(clauseList);
+            DDNNF readDDNNF = read(write(ddnnf, "key"), "key");
+            assertEquals(ddnnf.getVariableCount(), readDDNNF.getVariableCount());
+            assertEquals(ddnnf.getNodeCount(), readDDNNF.getNodeCount());
+            assertEquals(ddnnf.getEdgeCount(), readDDNNF.getEdgeCount());
+            for (int node = 0; node < ddnnf.getNodeCount(); node++) {
+                assertEquals(ddnnf.getType(node), readDDNNF.getType(node));
+                assertArrayEquals(ddnnf.getChildren(node), readDDNNF.getChildren(node));
+            }
+            for (int variable = 1; variable <= variableCount; variable++) {
+                assertEquals(
+                        ddnnf.getVariableMap().get(variable).get(),
+                        readDDNNF.getVariableMap().get(variable).get());
+            }
+            assertEquals(ddnnf.countSolutions(), readDDNNF.countSolutions());
+            assertArrayEquals(ddnnf.countSolutionsWithEachVariable(), readDDNNF.countSolutionsWithEachVariable());
+        }
+    }
+
+    @Test
+    public void otherKeyIsRejected() throws IOException, TimeoutException, InterruptedException {
+        DDNNF ddnnf = DDNNFTest.compile(randomClauseList(new Random(1), 5, 2, 3));
+        byte[] bytes = write(ddnnf, "key");
+        assertThrows(IOException.class, () -> read(bytes, "other key"));
+    }
+
+    @Test
+    public void truncatedInputIsRejected() throws IOException, TimeoutException, InterruptedException {
+        DDNNF ddnnf = DDNNFTest.compile(randomClauseList(new Random(1), 5, 2, 3));
+        byte[] bytes = write(ddnnf, "key");
+        for (int length = 0; length < bytes.length; length++) {
+            byte[] truncatedBytes = Arrays.copyOf(bytes, length);
+            assertThrows(IOException.class, () -> read(truncatedBytes, "key"));
+        }
+    }
+
+    private static byte[] write(DDNNF ddnnf, String key) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            DDNNFSerializer.write(ddnnf, key, out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static DDNNF read(byte[] bytes, String key) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            return DDNNFSerializer.read(in, key);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.ddnnf;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import de.featjar.cli.AClauseListTest;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.BooleanClause;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+public class DDNNFTest extends AClauseListTest {
+    @Test
+    public void unsatisfiableFormulaHasNoSolutions() throws TimeoutException, InterruptedException {
+        BooleanClauseList clauseList = new BooleanClauseList(
+                List.of(new BooleanClause(1, 2), new BooleanClause(-1), new BooleanClause(-2)), 3);
+        DDNNF ddnnf = compile(clauseList);
+        assertEquals(BigInteger.ZERO, ddnnf.countSolutions());
+        assertEquals(BigInteger.ZERO, ddnnf.countSolutionsWithEachVariable()[0]);
+    }
+
+    @Test
+    public void unconstrainedVariablesAreCounted() throws TimeoutException, InterruptedException {
+        BooleanClauseList clauseList = new BooleanClauseList(List.of(new BooleanClause(1, 2)), 4);
+        DDNNF ddnnf = compile(clauseList);
+        assertEquals(BigInteger.valueOf(12), ddnnf.countSolutions());
+        assertEquals(BigInteger.valueOf(6), ddnnf.countSolutions(4));
+        assertEquals(BigInteger.ZERO, ddnnf.countSolutions(3, -3));
+    }
+
+    @Test
+    public void randomFormulasMatchBruteForce() throws TimeoutException, InterruptedException {
+        Random random = new Random(1);
+        for (int i = 0; i < 50; i++) {
+            int variableCount = 3 + random.nextInt(10);
+            BooleanClauseList clauseList = randomClauseList(random, variableCount, 2, 3);
+            Set<Long> solutions = getSolutions(clauseList);
+            DDNNF ddnnf = compile(clauseList);
+            int assumption = randomLiteral(random, variableCount);
+            for (int[] assumptions : new int[][] {{}, {assumption}}) {
+                List<Long> assumedSolutions = solutions.stream()
+                        .filter(solution -> containsAll(solution, assumptions))
+                        .collect(Collectors.toList());
+                assertEquals(BigInteger.valueOf(assumedSolutions.size()), ddnnf.countSolutions(assumptions));
+                BigInteger[] variableCounts = ddnnf.countSolutionsWithEachVariable(assumptions);
+                assertEquals(BigInteger.valueOf(assumedSolutions.size()), variableCounts[0]);
+                for (int variable = 1; variable <= variableCount; variable++) {
+                    int literal = variable;
+                    long expected = assumedSolutions.stream()
+                            .filter(solution -> containsAll(solution, literal))
+                            .count();
+                    assertEquals(BigInteger.valueOf(expected), variableCounts[variable]);
+                }
+            }
+        }
+    }
+
+    static DDNNF compile(BooleanClauseList clauseList) throws TimeoutException, InterruptedException {
+        int variableCount = clauseList.getVariableCount();
+        VariableMap variableMap = new VariableMap(
+                IntStream.rangeClosed(1, variableCount).mapToObj(i -> "x" + i).collect(Collectors.toList()));
+        return new DDNNFCompiler(variableCount, Long.MAX_VALUE).compile(clauseList, variableMap);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.solver;
+
+import static de.featjar.base.computation.Computations.async;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.featjar.base.data.Result;
+import de.featjar.cli.AClauseListTest;
+import de.featjar.formula.analysis.bool.BooleanAssignment;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class ComputeApproximateSolutionCountTest extends AClauseListTest {
+    private static final double EPSILON = 0.8;
+    private static final double DELTA = 0.2;
+
+    @Test
+    public void fewSolutionsAreCountedExactly() {
+        Random random = new Random(1);
+        for (int i = 0; i < 50; i++) {
+            // fewer solutions than the threshold of 73 for an epsilon of 0.8
+            int variableCount = 1 + random.nextInt(6);
+            BooleanClauseList clauseList = randomClauseList(random, variableCount, 2, 3);
+            int[] assumptions = random.nextBoolean() ? new int[0] : new int[] {randomLiteral(random, variableCount)};
+            Result<BigInteger> count = approximate(clauseList, assumptions, i);
+            assertTrue(count.isPresent());
+            assertEquals(BigInteger.valueOf(countSolutions(clauseList, assumptions)), count.get());
+        }
+    }
+
+    @Test
+    public void estimateIsWithinBounds() {
+        Random random = new Random(2);
+        int checkedFormulaCount = 0;
+        while (checkedFormulaCount < 3) {
+            int variableCount = 14 + random.nextInt(3);
+            BooleanClauseList clauseList = randomClauseList(random, variableCount, 1, 3);
+            long expected = countSolutions(clauseList);
+            if (expected < 1000) {
+                continue;
+            }
+            checkedFormulaCount++;
+            Result<BigInteger> count = approximate(clauseList, new int[0], 42);
+            assertTrue(count.isPresent());
+            double estimate = count.get().doubleValue();
+            assertTrue(
+                    expected / (1 + EPSILON) <= estimate && estimate <= expected * (1 + EPSILON),
+                    () -> estimate + " is not within a factor of " + (1 + EPSILON) + " of " + expected);
+        }
+    }
+
+    @Test
+    public void invalidParametersAreRejected() {
+        BooleanClauseList clauseList = new BooleanClauseList(List.of(), 2);
+        for (double[] parameters : new double[][] {{0, DELTA}, {EPSILON, 0}, {EPSILON, 1}}) {
+            Result<BigInteger> count = new ComputeApproximateSolutionCount(
+                            async(clauseList),
+                            async(new BooleanAssignment()),
+                            async(new BooleanClauseList(List.of(), 2)),
+                            async(Duration.ZERO),
+                            parameters[0],
+                            parameters[1],
+                            1,
+                            0)
+                    .get();
+            assertTrue(count.isEmpty());
+        }
+    }
+
+    private static Result<BigInteger> approximate(BooleanClauseList clauseList, int[] assumptions, long seed) {
+        return new ComputeApproximateSolutionCount(
+                        async(clauseList),
+                        async(new BooleanAssignment(assumptions)),
+                        async(new BooleanClauseList(List.of(), clauseList.getVariableCount())),
+                        async(Duration.ZERO),
+                        EPSILON,
+                        DELTA,
+                        2,
+                        seed)
+                .get();
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.solver;
+
+import static de.featjar.base.computation.Computations.async;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.featjar.base.data.Result;
+import de.featjar.cli.AClauseListTest;
+import de.featjar.formula.analysis.bool.BooleanAssignment;
+import de.featjar.formula.analysis.bool.BooleanClause;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import de.featjar.formula.analysis.bool.BooleanSolution;
+import de.featjar.formula.analysis.bool.BooleanSolutionList;
+import de.featjar.formula.analysis.sat4j.ComputeAtomicSetsSAT4J;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+public class ComputeAtomicSetsInParallelTest extends AClauseListTest {
+    @Test
+    public void complementaryVariablesFormAtomicSet() {
+        // 1 <=> -2, 3 <=> 4, 5 is core, 6 is dead, 7 is unconstrained
+        BooleanClauseList clauseList = new BooleanClauseList(
+                List.of(
+                        new BooleanClause(1, 2),
+                        new BooleanClause(-1, -2),
+                        new BooleanClause(-3, 4),
+                        new BooleanClause(3, -4),
+                        new BooleanClause(5),
+                        new BooleanClause(-6),
+                        new BooleanClause(-1, 3, 7)),
+                7);
+        Set<String> expected = Set.of("1,-2", "3,4", "7");
+        for (int threadCount : new int[] {1, 4}) {
+            BooleanSolutionList atomicSets = computeInParallel(clauseList, threadCount);
+            assertEquals(Set.of(-6, 5), toSet(atomicSets.getAll().get(0)));
+            assertEquals(expected, normalize(atomicSets));
+        }
+        BooleanSolutionList atomicSets = computeSAT4J(clauseList);
+        assertEquals(Set.of(-6, 5), toSet(atomicSets.getAll().get(0)));
+        assertEquals(expected, normalize(atomicSets));
+    }
+
+    @Test
+    public void randomFormulasMatchSAT4J() {
+        Random random = new Random(1);
+        for (int i = 0; i < 50; i++) {
+            int variableCount = 3 + random.nextInt(10);
+            BooleanClauseList clauseList = randomClauseList(random, variableCount);
+            if (!new ClauseSolver(clauseList).hasSolution().get()) {
+                continue;
+            }
+            BooleanSolutionList expected = computeSAT4J(clauseList);
+            for (int threadCount : new int[] {1, 4}) {
+                BooleanSolutionList atomicSets = computeInParallel(clauseList, threadCount);
+                assertEquals(toSet(expected.getAll().get(0)), toSet(atomicSets.getAll().get(0)));
+                assertEquals(normalize(expected), normalize(atomicSets));
+            }
+        }
+    }
+
+    @Test
+    public void concurrentlyFoldedSolutionsKeepAtomicSetsTogether() throws Exception {
+        // 1-8 and 9-16 are atomic sets, 17-20 are unconstrained
+        List<BooleanClause> clauses = new ArrayList<>();
+        for (int first : new int[] {1, 9}) {
+            for (int variable = first + 1; variable < first + 8; variable++) {
+                int literal = variable % 2 == 0 ? -variable : variable;
+                clauses.add(new BooleanClause(-first, literal));
+                clauses.add(new BooleanClause(first, -literal));
+            }
+        }
+        BooleanClauseList clauseList = new BooleanClauseList(clauses, 20);
+        List<int[]> solutions = new ArrayList<>();
+        new SolutionEnumerator(new ClauseSolver(clauseList)).enumerate(solution -> solutions.add(solution.clone()));
+        int[] reference = solutions.get(0);
+        Set<String> expected = Set.of("1,-2,3,-4,5,-6,7,-8", "9,-10,11,-12,13,-14,15,-16", "17", "18", "19", "20");
+        Random random = new Random(3);
+        for (int run = 0; run < 100; run++) {
+            // another thread keeps folding in solutions while the workers compare and regroup the signatures
+            Signatures signatures = new Signatures(clauseList.getVariableCount());
+            Consumer<int[]> refineSignatures = AtomicSetSearch.newSignatureRefiner(reference, signatures);
+            AtomicBoolean done = new AtomicBoolean();
+            long seed = random.nextLong();
+            Thread folder = new Thread(() -> {
+                Random folderRandom = new Random(seed);
+                while (!done.get()) {
+                    refineSignatures.accept(solutions.get(folderRandom.nextInt(solutions.size())));
+                }
+            });
+            folder.start();
+            Result<List<int[]>> atomicSets;
+            try {
+                atomicSets = AtomicSetSearch.search(
+                        new int[0], reference, new int[0], signatures, () -> new ClauseSolver(clauseList), 4);
+            } finally {
+                done.set(true);
+                folder.join();
+            }
+            assertTrue(atomicSets.isPresent());
+            List<BooleanSolution> result = new ArrayList<>();
+            result.add(new BooleanSolution());
+            atomicSets.get().forEach(atomicSet -> result.add(new BooleanSolution(atomicSet)));
+            assertEquals(expected, normalize(new BooleanSolutionList(result, clauseList.getVariableCount())));
+        }
+    }
+
+    /**
+     * {@return a random clause list with at least one pair of complementary variables and one core or dead variable}
+     */
+    private static BooleanClauseList randomClauseList(Random random, int variableCount) {
+        List<BooleanClause> clauses = new ArrayList<>(randomClauseList(random, variableCount, 2, 3).getAll());
+        int x = 1 + random.nextInt(variableCount);
+        int y = 1 + random.nextInt(variableCount);
+        if (x != y) {
+            clauses.add(new BooleanClause(x, y));
+            clauses.add(new BooleanClause(-x, -y));
+        }
+        clauses.add(new BooleanClause(randomLiteral(random, variableCount)));
+        return new BooleanClauseList(clauses, variableCount);
+    }
+
+    private static BooleanSolutionList computeInParallel(BooleanClauseList clauseList, int threadCount) {
+        Result<BooleanSolutionList> result = new ComputeAtomicSetsInParallel(
+                        async(clauseList),
+                        async(new BooleanAssignment()),
+                        async(new BooleanClauseList(List.of(), clauseList.getVariableCount())),
+                        async(Duration.ZERO),
+                        threadCount)
+                .get();
+        assertTrue(result.isPresent());
+        return result.get();
+    }
+
+    private static BooleanSolutionList computeSAT4J(BooleanClauseList clauseList) {
+        Result<BooleanSolutionList> result = new ComputeAtomicSetsSAT4J(async(clauseList)).get();
+        assertTrue(result.isPresent());
+        return result.get();
+    }
+
+    private static Set<Integer> toSet(BooleanSolution solution) {
+        return Arrays.stream(solution.get()).boxed().collect(Collectors.toSet());
+    }
+
+    /**
+     * {@return the atomic sets without the core and dead literals, each with its smallest variable positive}
+     * An atomic set and its negation are equivalent, and which of both is computed depends on the first solution.
+     */
+    private static Set<String> normalize(BooleanSolutionList atomicSets) {
+        Set<String> normalized = new TreeSet<>();
+        for (BooleanSolution atomicSet : atomicSets.getAll().subList(1, atomicSets.getAll().size())) {
+            int[] literals = Arrays.stream(atomicSet.get())
+                    .boxed()
+                    .sorted(Comparator.comparingInt(Math::abs))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            int sign = literals[0] > 0 ? 1 : -1;
+            normalized.add(
+                    Arrays.stream(literals).mapToObj(l -> String.valueOf(sign * l)).collect(Collectors.joining(",")));
+        }
+        return normalized;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.solver;
+
+import static de.featjar.base.computation.Computations.async;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.featjar.base.data.Result;
+import de.featjar.cli.AClauseListTest;
+import de.featjar.formula.analysis.bool.BooleanAssignment;
+import de.featjar.formula.analysis.bool.BooleanClause;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class ComputeSolutionCountByCubesTest extends AClauseListTest {
+    @Test
+    public void cubeCountsMatchSequentialCounts() {
+        Random random = new Random(1);
+        for (int i = 0; i < 50; i++) {
+            int variableCount = 1 + random.nextInt(12);
+            BooleanClauseList clauseList = randomClauseList(random, variableCount, 2, 3);
+            int[] assumptions = random.nextBoolean() ? new int[0] : new int[] {randomLiteral(random, variableCount)};
+            BooleanClauseList assumedClauseList = randomClauseList(random, variableCount, 1, 3);
+            List<BooleanClause> clauses = new ArrayList<>(clauseList.getAll());
+            clauses.addAll(assumedClauseList.getAll());
+            ClauseSolver solver = new ClauseSolver(clauseList);
+            solver.addClauses(assumedClauseList);
+            long[] expected = {0};
+            new SolutionEnumerator(solver, assumptions).enumerate(solution -> ++expected[0] > 0);
+            assertEquals(countSolutions(new BooleanClauseList(clauses, variableCount), assumptions), expected[0]);
+            // a cube size of 1 splits each cube that has a solution again, down to complete assignments
+            for (int cubeSize : new int[] {1, 3, ComputeSolutionCountByCubes.DEFAULT_CUBE_SIZE}) {
+                for (int threadCount : new int[] {1, 4}) {
+                    EnumerationProgress enumerationProgress = new EnumerationProgress(Duration.ZERO, Duration.ZERO);
+                    Result<BigInteger> count = new ComputeSolutionCountByCubes(
+                                    async(clauseList),
+                                    async(new BooleanAssignment(assumptions)),
+                                    async(assumedClauseList),
+                                    async(Duration.ZERO),
+                                    threadCount,
+                                    cubeSize,
+                                    enumerationProgress)
+                            .get();
+                    assertTrue(count.isPresent());
+                    assertEquals(BigInteger.valueOf(expected[0]), count.get());
+                    assertTrue(enumerationProgress.isComplete());
+                    assertEquals(expected[0], enumerationProgress.getSolutionCount());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void stoppedEnumerationYieldsLowerBound() {
+        BooleanClauseList clauseList = new BooleanClauseList(List.of(new BooleanClause(1, 2)), 10);
+        EnumerationProgress enumerationProgress = new EnumerationProgress(Duration.ZERO, Duration.ZERO);
+        enumerationProgress.cancel();
+        Result<BigInteger> count = new ComputeSolutionCountByCubes(
+                        async(clauseList),
+                        async(new BooleanAssignment()),
+                        async(new BooleanClauseList(List.of(), 10)),
+                        async(Duration.ZERO),
+                        2,
+                        1,
+                        enumerationProgress)
+                .get();
+        assertTrue(count.isPresent());
+        assertTrue(count.get().compareTo(BigInteger.valueOf(3 << 8)) < 0);
+        assertFalse(enumerationProgress.isComplete());
+    }
+}
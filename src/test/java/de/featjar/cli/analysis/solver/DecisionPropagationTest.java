@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.analysis.solver;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.featjar.base.data.Result;
+import de.featjar.cli.AClauseListTest;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+public class DecisionPropagationTest extends AClauseListTest {
+    @Test
+    public void decisionsImplyCoreAndDeadLiteralsUnderAssumptions() {
+        Random random = new Random(1);
+        int checkedFormulaCount = 0;
+        while (checkedFormulaCount < 50) {
+            int variableCount = 2 + random.nextInt(9);
+            BooleanClauseList clauseList = randomClauseList(random, variableCount, 2, 3);
+            int[] assumptions = random.nextBoolean() ? new int[0] : new int[] {randomLiteral(random, variableCount)};
+            int[] expected = getImpliedLiterals(clauseList, assumptions);
+            DecisionPropagation propagation = new DecisionPropagation(new ClauseSolver(clauseList), assumptions);
+            Result<int[]> initiallyImplied = propagation.initialize();
+            if (expected == null) {
+                assertTrue(initiallyImplied.isEmpty());
+                continue;
+            }
+            checkedFormulaCount++;
+            assertArrayEquals(expected, sort(initiallyImplied.get()));
+            assertArrayEquals(expected, propagation.getAssignedLiterals());
+
+            List<Integer> decisions = new ArrayList<>();
+            Deque<int[]> assignedLiterals = new ArrayDeque<>();
+            for (int step = 0; step < 20; step++) {
+                int[] assigned = propagation.getAssignedLiterals();
+                int literal = randomLiteral(random, variableCount);
+                int value = valueOf(assigned, Math.abs(literal));
+                if (random.nextInt(3) == 0) {
+                    Result<Integer> undone = propagation.undo();
+                    if (decisions.isEmpty()) {
+                        assertTrue(undone.isEmpty());
+                    } else {
+                        assertEquals(decisions.remove(decisions.size() - 1), undone.get());
+                        assertArrayEquals(assignedLiterals.pop(), propagation.getAssignedLiterals());
+                    }
+                } else if (value == -literal) {
+                    assertTrue(propagation.decide(literal).isEmpty());
+                    assertArrayEquals(assigned, propagation.getAssignedLiterals());
+                } else {
+                    Result<int[]> implied = propagation.decide(literal);
+                    decisions.add(literal);
+                    assignedLiterals.push(assigned);
+                    int[] decidedAndAssumed = IntStream.concat(
+                                    IntStream.of(assumptions), decisions.stream().mapToInt(Integer::intValue))
+                            .toArray();
+                    expected = getImpliedLiterals(clauseList, decidedAndAssumed);
+                    assertArrayEquals(expected, propagation.getAssignedLiterals());
+                    int[] newlyAssigned = IntStream.of(expected)
+                            .filter(l -> valueOf(assigned, Math.abs(l)) == 0 && l != literal)
+                            .toArray();
+                    assertArrayEquals(newlyAssigned, sort(implied.get()));
+                }
+                assertArrayEquals(
+                        decisions.stream().mapToInt(Integer::intValue).toArray(), propagation.getDecisions());
+            }
+        }
+    }
+
+    /**
+     * {@return the literals that have the same value in all solutions that contain the given literals, ordered by
+     * variable, or null if there is no such solution}
+     */
+    private static int[] getImpliedLiterals(BooleanClauseList clauseList, int[] literals) {
+        int variableCount = clauseList.getVariableCount();
+        long[] solutions = getSolutions(clauseList).stream()
+                .filter(solution -> containsAll(solution, literals))
+                .mapToLong(Long::longValue)
+                .toArray();
+        if (solutions.length == 0) {
+            return null;
+        }
+        return IntStream.of(toLiterals(solutions[0], variableCount))
+                .filter(literal -> Arrays.stream(solutions).allMatch(solution -> containsAll(solution, literal)))
+                .toArray();
+    }
+
+    /**
+     * {@return the literal of the given variable in the given literals ordered by variable, 0 if there is none}
+     */
+    private static int valueOf(int[] literals, int variable) {
+        return IntStream.of(literals)
+                .filter(literal -> Math.abs(literal) == variable)
+                .findFirst()
+                .orElse(0);
+    }
+
+    private static int[] sort(int[] literals) {
+        return IntStream.of(literals)
+                .boxed()
+                .sorted((a, b) -> Integer.compare(Math.abs(a), Math.abs(b)))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+}
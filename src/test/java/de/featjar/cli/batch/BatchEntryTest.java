@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class BatchEntryTest {
+    @Test
+    public void argumentsAndJsonGiveSameEntry() {
+        BatchEntry arguments = BatchEntry.parse("ComputeSolutionSAT4J --input \"my model.xml\" --timeout 10 --stream");
+        BatchEntry json = BatchEntry.parse("{\"command\": \"ComputeSolutionSAT4J\", \"input\": \"my model.xml\","
+                + " \"options\": {\"timeout\": 10, \"stream\": true}}");
+        for (BatchEntry entry : new BatchEntry[] {arguments, json}) {
+            assertEquals("ComputeSolutionSAT4J", entry.getCommand());
+            assertEquals("my model.xml", entry.getInput());
+            assertEquals("10", entry.getOptions().getValues().get("timeout"));
+            assertEquals("true", entry.getOptions().getValues().get("stream"));
+        }
+    }
+
+    @Test
+    public void blankLinesAndCommentsAreSkipped() {
+        assertNull(BatchEntry.parse("   "));
+        assertNull(BatchEntry.parse("# ComputeSolutionSAT4J --input model.xml"));
+    }
+
+    @Test
+    public void escapesAreDecoded() {
+        BatchEntry entry = BatchEntry.parse(
+                "{\"command\": \"ComputeSolutionSAT4J\", \"input\": \"a\\\\b\\\"c\\u00e4\\td.xml\"}");
+        assertEquals("a\\b\"c\u00e4\td.xml", entry.getInput());
+        assertEquals(Map.of("input", "a\\b\"c\u00e4\td.xml"), entry.getOptions().getValues());
+    }
+
+    @Test
+    public void malformedLinesAreRejected() {
+        String[] lines = {
+            "{\"command\": \"ComputeSolutionSAT4J\"",
+            "{\"command\": \"ComputeSolutionSAT4J\", }",
+            "{\"command\": \"ComputeSolutionSAT4J\"} trailing",
+            "{\"command\" \"ComputeSolutionSAT4J\"}",
+            "{\"command\": \"ComputeSolutionSAT4J}",
+            "{\"input\": \"model.xml\"}",
+            "{\"command\": \"\\u12\"}",
+            "{\"command\": \"\\u12",
+            "{\"command\": \"\\uXYZW\"}",
+            "{\"command\": \"\\",
+            "{\"command\": }",
+            "ComputeSolutionSAT4J --input \"model.xml"
+        };
+        for (String line : lines) {
+            assertThrows(IllegalArgumentException.class, () -> BatchEntry.parse(line), line);
+        }
+    }
+}
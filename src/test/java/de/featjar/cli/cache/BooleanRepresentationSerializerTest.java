@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import de.featjar.base.data.Pair;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.BooleanClause;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class BooleanRepresentationSerializerTest {
+    @Test
+    public void roundTripPreservesClausesAndVariableNames() throws IOException {
+        Random random = new Random(1);
+        for (int i = 0; i < 20; i++) {
+            int variableCount = 1 + random.nextInt(1 << (2 * (i % 9)));
+            List<String> variableNames = new ArrayList<>();
+            for (int variable = 1; variable <= variableCount; variable++) {
+                variableNames.add(variable % 7 == 0 ? "Feature \u00e4 " + variable : "x" + variable);
+            }
+            List<BooleanClause> clauses = new ArrayList<>();
+            int clauseCount = random.nextInt(100);
+            for (int j = 0; j < clauseCount; j++) {
+                int[] literals = new int[random.nextInt(5)];
+                for (int k = 0; k < literals.length; k++) {
+                    int variable = 1 + random.nextInt(variableCount);
+                    literals[k] = random.nextBoolean() ? variable : -variable;
+                }
+                clauses.add(new BooleanClause(literals));
+            }
+            Pair<BooleanClauseList, VariableMap> booleanRepresentation =
+                    new Pair<>(new BooleanClauseList(clauses, variableCount), new VariableMap(variableNames));
+            Pair<BooleanClauseList, VariableMap> readBooleanRepresentation = read(write(booleanRepresentation));
+            BooleanClauseList readClauseList = readBooleanRepresentation.getKey();
+            assertEquals(variableCount, readClauseList.getVariableCount());
+            assertEquals(clauseCount, readClauseList.size());
+            for (int j = 0; j < clauseCount; j++) {
+                assertArrayEquals(clauses.get(j).get(), readClauseList.getAll().get(j).get());
+            }
+            VariableMap readVariableMap = readBooleanRepresentation.getValue();
+            assertEquals(variableCount, readVariableMap.getVariableCount());
+            for (int variable = 1; variable <= variableCount; variable++) {
+                assertEquals(variableNames.get(variable - 1), readVariableMap.get(variable).get());
+            }
+        }
+    }
+
+    @Test
+    public void varIntRoundTrip() throws IOException {
+        int[] values = {0, 1, 127, 128, 16383, 16384, 1 << 21, 1 << 28, Integer.MAX_VALUE};
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (int value : values) {
+                BooleanRepresentationSerializer.writeVarInt(out, value);
+            }
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            for (int value : values) {
+                assertEquals(value, BooleanRepresentationSerializer.readVarInt(in));
+            }
+        }
+    }
+
+    @Test
+    public void malformedInputIsRejected() throws IOException {
+        byte[] bytes = write(new Pair<>(
+                new BooleanClauseList(List.of(new BooleanClause(1, -2), new BooleanClause(2)), 2),
+                new VariableMap(List.of("a", "b"))));
+        for (int length = 0; length < bytes.length; length++) {
+            byte[] truncatedBytes = Arrays.copyOf(bytes, length);
+            assertThrows(IOException.class, () -> read(truncatedBytes));
+        }
+        byte[] otherFormatBytes = bytes.clone();
+        otherFormatBytes[0]++;
+        assertThrows(IOException.class, () -> read(otherFormatBytes));
+    }
+
+    private static byte[] write(Pair<BooleanClauseList, VariableMap> booleanRepresentation) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            BooleanRepresentationSerializer.write(booleanRepresentation, out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Pair<BooleanClauseList, VariableMap> read(byte[] bytes) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            return BooleanRepresentationSerializer.read(in);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import de.featjar.cli.AClauseListTest;
+import de.featjar.formula.analysis.bool.BooleanClause;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DIMACSStreamConverterTest extends AClauseListTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void inputIsNormalized() throws IOException {
+        String input = "c 1 a\r\nc 2 b\r\np  cnf 3   4\r\n1 -2 0 2\n3 0\n\n-1\t-3 0 0\n2 3\n%\n0\n";
+        String expected = "c 1 a\nc 2 b\np cnf 3 4\n1 -2 0\n2 3 0\n-1 -3 0\n0\n2 3 0\n";
+        assertEquals(expected, convert(input));
+        assertEquals(expected, convert(expected));
+    }
+
+    @Test
+    public void roundTripPreservesClauses() throws IOException {
+        Random random = new Random(1);
+        for (int i = 0; i < 20; i++) {
+            int variableCount = 1 + random.nextInt(100);
+            BooleanClauseList clauseList = randomClauseList(random, variableCount, 4, 20);
+            StringBuilder input =
+                    new StringBuilder("c random\np cnf " + variableCount + " " + clauseList.size() + "\n");
+            for (BooleanClause clause : clauseList.getAll()) {
+                for (int literal : clause.get()) {
+                    input.append(random.nextInt(4) == 0 ? "\n" : " ").append(literal);
+                }
+                input.append(random.nextBoolean() ? "\t" : "  ").append(0);
+            }
+            List<String> lines = convert(input.toString()).lines().collect(Collectors.toList());
+            assertEquals("c random", lines.get(0));
+            assertEquals("p cnf " + variableCount + " " + clauseList.size(), lines.get(1));
+            assertEquals(clauseList.size() + 2, lines.size());
+            for (int j = 0; j < clauseList.size(); j++) {
+                int[] literals = Arrays.stream(lines.get(j + 2).split(" "))
+                        .mapToInt(Integer::parseInt)
+                        .toArray();
+                assertEquals(0, literals[literals.length - 1]);
+                assertArrayEquals(
+                        clauseList.getAll().get(j).get(), Arrays.copyOf(literals, literals.length - 1));
+            }
+        }
+    }
+
+    @Test
+    public void inputMayBeOutput() throws IOException {
+        Path file = directory.resolve("model.dimacs");
+        Files.writeString(file, "p cnf 2 1\n1\n-2 0\n", StandardCharsets.UTF_8);
+        new DIMACSStreamConverter().convert(file, file);
+        assertEquals("p cnf 2 1\n1 -2 0\n", Files.readString(file, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void malformedInputIsRejected() throws IOException {
+        String[] inputs = {
+            "1 2 0\np cnf 2 1\n",
+            "p dnf 2 1\n1 2 0\n",
+            "p cnf 2\n1 2 0\n",
+            "p cnf two 1\n1 2 0\n",
+            "p cnf 2 1\n1 3 0\n",
+            "p cnf 2 1\n1 x 0\n",
+            "p cnf 2 1\n1-2 0\n",
+            "p cnf 2 1\n- 2 0\n",
+            "p cnf 2 1\n1 2 0 a\n",
+            "p cnf 2 1\n99999999999 0\n",
+        };
+        Path output = directory.resolve("output.dimacs");
+        Files.writeString(output, "previous", StandardCharsets.UTF_8);
+        for (String input : inputs) {
+            Path inputFile = directory.resolve("input.dimacs");
+            Files.writeString(inputFile, input, StandardCharsets.UTF_8);
+            assertThrows(IOException.class, () -> new DIMACSStreamConverter().convert(inputFile, output), input);
+            assertEquals("previous", Files.readString(output, StandardCharsets.UTF_8));
+        }
+        try (var files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    private String convert(String input) throws IOException {
+        Path inputFile = directory.resolve("input.dimacs");
+        Path outputFile = directory.resolve("output.dimacs");
+        Files.writeString(inputFile, input, StandardCharsets.UTF_8);
+        new DIMACSStreamConverter().convert(inputFile, outputFile);
+        return Files.readString(outputFile, StandardCharsets.UTF_8);
+    }
+}
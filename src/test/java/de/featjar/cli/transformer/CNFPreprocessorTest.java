@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.transformer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.featjar.cli.AClauseListTest;
+import de.featjar.formula.analysis.bool.BooleanClause;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.IntPredicate;
+import org.junit.jupiter.api.Test;
+
+public class CNFPreprocessorTest extends AClauseListTest {
+    @Test
+    public void simplificationPreservesSolutions() {
+        Random random = new Random(1);
+        for (int i = 0; i < 100; i++) {
+            BooleanClauseList clauseList = randomClauseList(random, 2 + random.nextInt(10), 3, 4);
+            CNFPreprocessor preprocessor = new CNFPreprocessor(clauseList);
+            preprocessor.simplify();
+            BooleanClauseList simplifiedClauseList = preprocessor.getClauseList();
+            assertEquals(getSolutions(clauseList), getSolutions(simplifiedClauseList));
+            if (preprocessor.isUnsatisfiable()) {
+                assertTrue(getSolutions(clauseList).isEmpty());
+            }
+        }
+    }
+
+    @Test
+    public void variableEliminationPreservesSatisfiabilityAndFrozenVariables() {
+        Random random = new Random(2);
+        for (int i = 0; i < 100; i++) {
+            int variableCount = 2 + random.nextInt(10);
+            BooleanClauseList clauseList = randomClauseList(random, variableCount, 3, 4);
+            int frozenVariable = 1 + random.nextInt(variableCount);
+            CNFPreprocessor preprocessor = new CNFPreprocessor(clauseList, frozenVariable);
+            preprocessor.simplify();
+            preprocessor.eliminateVariables();
+            BooleanClauseList preprocessedClauseList = preprocessor.getClauseList();
+            Set<Long> solutions = getSolutions(preprocessedClauseList);
+            assertEquals(getSolutions(clauseList).isEmpty(), solutions.isEmpty());
+            IntPredicate isFrozen = variable -> variable == frozenVariable;
+            assertEquals(project(getSolutions(clauseList), isFrozen), project(solutions, isFrozen));
+            for (long solution : solutions) {
+                int[] reconstructedSolution =
+                        preprocessor.getReconstructionStack().reconstruct(toLiterals(solution, variableCount));
+                assertTrue(isSolution(clauseList, toSolution(reconstructedSolution)));
+            }
+        }
+    }
+
+    @Test
+    public void projectionKeepsProjectedSolutions() {
+        Random random = new Random(3);
+        for (int i = 0; i < 100; i++) {
+            int variableCount = 2 + random.nextInt(10);
+            BooleanClauseList clauseList = randomClauseList(random, variableCount, 3, 4);
+            int projectedVariableCount = 1 + random.nextInt(variableCount);
+            IntPredicate isEliminated = variable -> variable > projectedVariableCount;
+            CNFPreprocessor preprocessor = new CNFPreprocessor(clauseList);
+            assertTrue(preprocessor.eliminateVariables(isEliminated, Long.MAX_VALUE));
+            BooleanClauseList preprocessedClauseList = preprocessor.getClauseList();
+            IntPredicate isProjected = isEliminated.negate();
+            assertEquals(
+                    project(getSolutions(clauseList), isProjected),
+                    project(getSolutions(preprocessedClauseList), isProjected));
+            for (BooleanClause clause : preprocessedClauseList.getAll()) {
+                for (int literal : clause.get()) {
+                    assertFalse(clause.get().length > 1 && isEliminated.test(Math.abs(literal)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void contradictionIsDetected() {
+        BooleanClauseList clauseList = new BooleanClauseList(
+                List.of(
+                        new BooleanClause(1, 2),
+                        new BooleanClause(-1, 2),
+                        new BooleanClause(-2, 3),
+                        new BooleanClause(-3)),
+                3);
+        CNFPreprocessor preprocessor = new CNFPreprocessor(clauseList);
+        preprocessor.simplify();
+        assertTrue(preprocessor.isUnsatisfiable());
+        assertTrue(getSolutions(preprocessor.getClauseList()).isEmpty());
+    }
+
+    private static Set<Long> project(Set<Long> solutions, IntPredicate variables) {
+        long mask = 0;
+        for (int variable = 1; variable < Long.SIZE; variable++) {
+            if (variables.test(variable)) {
+                mask |= 1L << (variable - 1);
+            }
+        }
+        Set<Long> projectedSolutions = new TreeSet<>();
+        for (long solution : solutions) {
+            projectedSolutions.add(solution & mask);
+        }
+        return projectedSolutions;
+    }
+}
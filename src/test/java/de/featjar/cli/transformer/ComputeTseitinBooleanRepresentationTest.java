@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.transformer;
+
+import static de.featjar.base.computation.Computations.async;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.featjar.base.data.Pair;
+import de.featjar.base.data.Result;
+import de.featjar.cli.AClauseListTest;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.BooleanClauseList;
+import de.featjar.formula.structure.formula.IFormula;
+import de.featjar.formula.structure.formula.connective.And;
+import de.featjar.formula.structure.formula.connective.Or;
+import de.featjar.formula.structure.formula.predicate.Literal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class ComputeTseitinBooleanRepresentationTest extends AClauseListTest {
+    private static final int MAXIMUM_VARIABLE_COUNT = 16;
+
+    @Test
+    public void tseitinPreservesSolutions() {
+        checkRandomFormulas(CNFStrategy.TSEITIN, 1);
+    }
+
+    @Test
+    public void hybridPreservesSolutions() {
+        checkRandomFormulas(CNFStrategy.HYBRID, 3);
+        checkRandomFormulas(CNFStrategy.HYBRID, 8);
+    }
+
+    @Test
+    public void plaistedGreenbaumPreservesSatisfiability() {
+        checkRandomFormulas(CNFStrategy.PLAISTED_GREENBAUM, 1);
+    }
+
+    /**
+     * Checks that each assignment of the original variables that satisfies a random formula has exactly one
+     * extension to the auxiliary variables that satisfies the clauses, or at least one for Plaisted-Greenbaum, and
+     * that no other assignment has any.
+     */
+    private static void checkRandomFormulas(CNFStrategy strategy, int threshold) {
+        Random random = new Random(1);
+        int checkedFormulaCount = 0;
+        while (checkedFormulaCount < 50) {
+            int originalVariableCount = 1 + random.nextInt(5);
+            IFormula formula = randomFormula(random, originalVariableCount, 3);
+            Result<Pair<BooleanClauseList, VariableMap>> booleanRepresentation =
+                    new ComputeTseitinBooleanRepresentation(async(formula), strategy, threshold).get();
+            assertTrue(booleanRepresentation.isPresent());
+            BooleanClauseList clauseList = booleanRepresentation.get().getKey();
+            VariableMap variableMap = booleanRepresentation.get().getValue();
+            int variableCount = clauseList.getVariableCount();
+            if (variableCount > MAXIMUM_VARIABLE_COUNT) {
+                continue;
+            }
+            checkedFormulaCount++;
+            assertEquals(variableCount, variableMap.getVariableCount());
+            int formulaVariableCount = AuxiliaryVariables.getOriginalVariableCount(variableMap);
+            Map<String, Integer> variables = new HashMap<>();
+            for (int variable = 1; variable <= variableCount; variable++) {
+                String name = variableMap.get(variable).get();
+                assertEquals(variable > formulaVariableCount, AuxiliaryVariables.isAuxiliary(name));
+                variables.put(name, variable);
+            }
+            int[] extensionCounts = new int[1 << formulaVariableCount];
+            for (int solution = 0; solution < 1 << variableCount; solution++) {
+                if (isSolution(clauseList, solution)) {
+                    extensionCounts[solution & ((1 << formulaVariableCount) - 1)]++;
+                }
+            }
+            for (int assignment = 0; assignment < 1 << formulaVariableCount; assignment++) {
+                boolean satisfied = evaluate(formula, variables, assignment);
+                if (strategy.isCountPreserving()) {
+                    assertEquals(satisfied ? 1 : 0, extensionCounts[assignment]);
+                } else {
+                    assertEquals(satisfied, extensionCounts[assignment] > 0);
+                }
+            }
+        }
+    }
+
+    private static IFormula randomFormula(Random random, int variableCount, int depth) {
+        if (depth == 0 || random.nextInt(4) == 0) {
+            return new Literal(random.nextBoolean(), "v" + (1 + random.nextInt(variableCount)));
+        }
+        List<IFormula> children = new ArrayList<>();
+        int childCount = 1 + random.nextInt(3);
+        for (int i = 0; i < childCount; i++) {
+            children.add(randomFormula(random, variableCount, depth - 1));
+        }
+        return random.nextBoolean() ? new And(children) : new Or(children);
+    }
+
+    /**
+     * {@return whether the given formula is satisfied by the given assignment}
+     *
+     * @param variables the index of each variable
+     * @param assignment a bit mask with bit {@code i - 1} set if variable {@code i} is true
+     */
+    private static boolean evaluate(IFormula formula, Map<String, Integer> variables, int assignment) {
+        if (formula instanceof Literal) {
+            Literal literal = (Literal) formula;
+            int variable = variables.get(literal.getExpression().getName());
+            return ((assignment >> (variable - 1) & 1) == 1) == literal.isPositive();
+        }
+        boolean isAnd = formula instanceof And;
+        for (Object child : formula.getChildren()) {
+            if (evaluate((IFormula) child, variables, assignment) != isAnd) {
+                return !isAnd;
+            }
+        }
+        return isAnd;
+    }
+}
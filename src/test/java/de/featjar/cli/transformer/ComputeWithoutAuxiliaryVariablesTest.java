@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2023 Elias Kuiter
+ *
+ * This file is part of FeatJAR-cli.
+ *
+ * cli is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3.0 of the License,
+ * or (at your option) any later version.
+ *
+ * cli is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with cli. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * See <https://github.com/FeatureIDE/FeatJAR-cli> for further information.
+ */
+package de.featjar.cli.transformer;
+
+import static de.featjar.base.computation.Computations.async;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import de.featjar.base.FeatJAR;
+import de.featjar.formula.analysis.VariableMap;
+import de.featjar.formula.analysis.bool.BooleanSolution;
+import de.featjar.formula.analysis.bool.BooleanSolutionList;
+import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class ComputeWithoutAuxiliaryVariablesTest {
+    private static final VariableMap VARIABLE_MAP =
+            new VariableMap(List.of("a", "b", "c", AuxiliaryVariables.PREFIX + 1, AuxiliaryVariables.PREFIX + 2));
+
+    @BeforeAll
+    public static void setUp() {
+        FeatJAR.initialize();
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        FeatJAR.deinitialize();
+    }
+
+    @Test
+    public void coreDeadElementIsKeptWhenOnlyAuxiliary() {
+        // atomic sets whose core and dead literals are all forced auxiliary literals
+        BooleanSolutionList atomicSets = new BooleanSolutionList(
+                List.of(
+                        new BooleanSolution(4, -5),
+                        new BooleanSolution(1, -2),
+                        new BooleanSolution(-4),
+                        new BooleanSolution(3, 5)),
+                5);
+        List<BooleanSolution> result = new ComputeWithoutAuxiliaryVariables<>(async(atomicSets), async(VARIABLE_MAP))
+                .get()
+                .get()
+                .getAll();
+        assertEquals(3, result.size());
+        assertArrayEquals(new int[0], result.get(0).get());
+        assertArrayEquals(new int[] {1, -2}, result.get(1).get());
+        assertArrayEquals(new int[] {3}, result.get(2).get());
+    }
+
+    @Test
+    public void auxiliaryLiteralsAreRemovedFromSolutions() {
+        BooleanSolution solution = new BooleanSolution(1, -2, 3, -4, 5);
+        BooleanSolution result = new ComputeWithoutAuxiliaryVariables<>(async(solution), async(VARIABLE_MAP))
+                .get()
+                .get();
+        assertArrayEquals(new int[] {1, -2, 3}, result.get());
+    }
+}